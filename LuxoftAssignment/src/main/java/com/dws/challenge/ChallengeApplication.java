@@ -3,13 +3,18 @@ package com.dws.challenge;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
 
 @SpringBootApplication(exclude = {DataSourceAutoConfiguration.class})
 public class ChallengeApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ChallengeApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(ChallengeApplication.class, args);
+		// Used by the cdsArchive build task: start once, then exit so the JVM dumps the loaded classes
+		if (Boolean.getBoolean("app.exit-on-ready")) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
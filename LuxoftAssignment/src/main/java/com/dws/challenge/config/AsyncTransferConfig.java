@@ -0,0 +1,42 @@
+package com.dws.challenge.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncTransferConfig class defining the executor that runs transfer sagas submitted through the
+ * asynchronous endpoint and the sagas of due scheduled transfers. Sagas block on account locks and on the notifier, so they run here instead
+ * of on servlet threads. The queue is bounded: once it is full, new sagas are rejected rather than
+ * piling up behind a slow notifier.
+ */
+@Configuration
+public class AsyncTransferConfig {
+
+    public static final String TRANSFER_SAGA_EXECUTOR = "transferSagaExecutor";
+
+    /**
+     * Creates the transfer saga executor.
+     * @param threads The number of threads running sagas.
+     * @param queueCapacity The number of sagas that may wait for a thread.
+     * @return The executor.
+     */
+    @Bean(name = TRANSFER_SAGA_EXECUTOR, destroyMethod = "shutdown")
+    public ThreadPoolExecutor transferSagaExecutor(@Value("${transfers.async.threads:64}") int threads,
+                                                   @Value("${transfers.async.queue-capacity:10000}") int queueCapacity) {
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "transfer-saga-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,26 @@
+package com.dws.challenge.config;
+
+import com.dws.challenge.web.ReplicaGuardInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * ReplicaWebConfig class guarding the endpoints of a read replica. It is active under the same
+ * condition as the ReplicationFollower, so a primary never pays for the check. Holds are not
+ * replicated, so a replica rejects reads of them too rather than report nothing held.
+ */
+@Configuration
+@ConditionalOnProperty(name = "accounts.repository.type", havingValue = "replica")
+public class ReplicaWebConfig implements WebMvcConfigurer {
+
+    static final String HOLDS_MESSAGE = "Holds are not replicated; send hold requests to the primary";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReplicaGuardInterceptor(false, HOLDS_MESSAGE))
+                .addPathPatterns("/api/holds", "/api/holds/**");
+        registry.addInterceptor(new ReplicaGuardInterceptor(true, ReplicaGuardInterceptor.READ_ONLY_MESSAGE));
+    }
+}
@@ -0,0 +1,32 @@
+package com.dws.challenge.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * The outcome of one money-conservation audit pass.
+ */
+@Data
+public class AuditReport {
+
+  private final long epoch;
+
+  private final Instant startedAt;
+
+  private final Instant completedAt;
+
+  private final long accountsScanned;
+
+  private final BigDecimal expectedTotal;
+
+  private final BigDecimal scannedTotal;
+
+  public BigDecimal getDiscrepancy() {
+    return scannedTotal.subtract(expectedTotal);
+  }
+
+  public boolean isConsistent() {
+    return scannedTotal.compareTo(expectedTotal) == 0;
+  }
+}
@@ -0,0 +1,17 @@
+package com.dws.challenge.domain;
+
+import java.math.BigDecimal;
+import lombok.Data;
+
+/**
+ * A committed change to an account's balance, numbered in commit order.
+ */
+@Data
+public class BalanceChangeEvent {
+
+  private final long sequence;
+
+  private final String accountId;
+
+  private final BigDecimal balance;
+}
@@ -0,0 +1,16 @@
+package com.dws.challenge.domain;
+
+/**
+ * The kinds of balance adjustment a bulk job applies to every account it covers.
+ */
+public enum BulkAdjustmentType {
+
+  /** Debits a flat amount; accounts that cannot cover it are skipped. */
+  FEE,
+
+  /** Credits the balance times a percentage rate, rounded half-even to at least two decimals. */
+  INTEREST,
+
+  /** Adds a signed amount; accounts it would overdraw are skipped. */
+  CORRECTION
+}
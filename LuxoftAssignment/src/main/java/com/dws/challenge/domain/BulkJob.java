@@ -0,0 +1,67 @@
+package com.dws.challenge.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * A bulk balance adjustment and its checkpoint.
+ * The accounts it covers are split into chunks of the account id space: chunk i starts at the
+ * i-th entry of chunkStarts and ends before the next one. Each chunk records the last account id
+ * it processed, so a paused or interrupted job resumes where every chunk left off.
+ */
+@Data
+public class BulkJob {
+
+  private final String jobId;
+
+  private final BulkAdjustmentType type;
+
+  private final BigDecimal value;
+
+  private final String accountIdPrefix;
+
+  private final Instant createdAt;
+
+  private final List<String> chunkStarts;
+
+  private final String[] chunkCursors;
+
+  private final boolean[] chunksCompleted;
+
+  private BulkJobState state;
+
+  private Instant completedAt;
+
+  private long accountsProcessed;
+
+  private long accountsAdjusted;
+
+  private long accountsSkipped;
+
+  private BigDecimal netAmount = BigDecimal.ZERO;
+
+  public BulkJob(String jobId, BulkAdjustmentType type, BigDecimal value, String accountIdPrefix,
+    Instant createdAt, List<String> chunkStarts) {
+    this.jobId = jobId;
+    this.type = type;
+    this.value = value;
+    this.accountIdPrefix = accountIdPrefix;
+    this.createdAt = createdAt;
+    this.chunkStarts = chunkStarts;
+    this.chunkCursors = new String[chunkStarts.size()];
+    this.chunksCompleted = new boolean[chunkStarts.size()];
+    this.state = BulkJobState.RUNNING;
+  }
+
+  public int getChunksDone() {
+    int done = 0;
+    for (boolean completed : chunksCompleted) {
+      if (completed) {
+        done++;
+      }
+    }
+    return done;
+  }
+}
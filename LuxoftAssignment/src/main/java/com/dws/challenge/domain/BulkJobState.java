@@ -0,0 +1,11 @@
+package com.dws.challenge.domain;
+
+/**
+ * The lifecycle states of a bulk adjustment job.
+ */
+public enum BulkJobState {
+  RUNNING,
+  PAUSED,
+  COMPLETED,
+  FAILED
+}
@@ -0,0 +1,43 @@
+package com.dws.challenge.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * A progress and throughput report of a bulk adjustment job.
+ * Throughput covers the current run, or the last one once the job stopped.
+ */
+@Data
+public class BulkJobStatus {
+
+  private final String jobId;
+
+  private final BulkAdjustmentType type;
+
+  private final BigDecimal value;
+
+  private final String accountIdPrefix;
+
+  private final BulkJobState state;
+
+  private final Instant createdAt;
+
+  private final Instant completedAt;
+
+  private final int chunks;
+
+  private final int chunksDone;
+
+  private final long accountsProcessed;
+
+  private final long accountsAdjusted;
+
+  private final long accountsSkipped;
+
+  private final BigDecimal netAmount;
+
+  private final double accountsPerSecond;
+
+  private final int batchSize;
+}
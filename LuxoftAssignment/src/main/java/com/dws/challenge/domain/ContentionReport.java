@@ -0,0 +1,26 @@
+package com.dws.challenge.domain;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * The hottest accounts and their lock contention over the most recent profiling windows.
+ */
+@Data
+public class ContentionReport {
+
+  private final Instant generatedAt;
+
+  private final long coveredSeconds;
+
+  private final int sampleRate;
+
+  private final long sampledTransfers;
+
+  private final double averageLockWaitMicros;
+
+  private final double averageLockHoldMicros;
+
+  private final List<HotAccount> hotAccounts;
+}
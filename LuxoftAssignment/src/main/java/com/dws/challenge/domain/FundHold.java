@@ -0,0 +1,38 @@
+package com.dws.challenge.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * A reservation of funds on an account, to be captured or released later.
+ * The held amount counts against the account's available balance until the hold is fully
+ * captured, released or expires. Holds are immutable; a partial capture yields a new state.
+ */
+@Data
+public class FundHold {
+
+  private final String holdId;
+
+  private final String accountId;
+
+  private final BigDecimal authorizedAmount;
+
+  private final BigDecimal heldAmount;
+
+  private final BigDecimal capturedAmount;
+
+  private final Instant createdAt;
+
+  private final Instant expiresAt;
+
+  /**
+   * Returns the state of this hold after capturing part of it.
+   * @param amount The amount captured, at most the held amount.
+   * @return The new state of the hold.
+   */
+  public FundHold captured(BigDecimal amount) {
+    return new FundHold(holdId, accountId, authorizedAmount, heldAmount.subtract(amount), capturedAmount.add(amount),
+      createdAt, expiresAt);
+  }
+}
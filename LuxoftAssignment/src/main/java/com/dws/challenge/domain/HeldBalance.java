@@ -0,0 +1,22 @@
+package com.dws.challenge.domain;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * The balance of an account split into the part reserved by holds and the part available to spend.
+ */
+@Data
+public class HeldBalance {
+
+  private final String accountId;
+
+  private final BigDecimal balance;
+
+  private final BigDecimal heldAmount;
+
+  private final BigDecimal availableBalance;
+
+  private final List<FundHold> holds;
+}
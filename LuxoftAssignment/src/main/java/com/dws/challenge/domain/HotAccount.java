@@ -0,0 +1,23 @@
+package com.dws.challenge.domain;
+
+import lombok.Data;
+
+/**
+ * The estimated traffic and lock contention of one account over a contention report's windows.
+ * Counts and times come from sampled transfers and are scaled up by the sample rate where noted.
+ */
+@Data
+public class HotAccount {
+
+  private final String accountId;
+
+  private final long sampledTransfers;
+
+  private final long estimatedTransfers;
+
+  private final double averageLockWaitMicros;
+
+  private final double averageLockHoldMicros;
+
+  private final double lockWaitShare;
+}
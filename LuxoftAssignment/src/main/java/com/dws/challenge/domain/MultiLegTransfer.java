@@ -0,0 +1,33 @@
+package com.dws.challenge.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A transfer debiting one account and crediting many, applied atomically.
+ */
+@Data
+public class MultiLegTransfer {
+
+  @NotNull
+  @NotEmpty
+  private final String accountFromId;
+
+  @NotNull
+  @NotEmpty
+  @Valid
+  private final List<TransferLeg> legs;
+
+  @JsonCreator
+  public MultiLegTransfer(@JsonProperty("accountFromId") String accountFromId,
+    @JsonProperty("legs") List<TransferLeg> legs) {
+    this.accountFromId = accountFromId;
+    this.legs = legs;
+  }
+}
@@ -0,0 +1,25 @@
+package com.dws.challenge.domain;
+
+import lombok.Data;
+
+/**
+ * The replication state of a node: how far its accounts are behind the primary's change stream.
+ */
+@Data
+public class ReplicationStatus {
+
+  private final String role;
+
+  /**
+   * Every balance change numbered up to this sequence is reflected by this node's accounts.
+   */
+  private final long sequence;
+
+  private final long primarySequence;
+
+  private final long stalenessMillis;
+
+  private final boolean connected;
+
+  private final int followers;
+}
@@ -0,0 +1,39 @@
+package com.dws.challenge.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * A future-dated or recurring transfer waiting to be fired by the scheduler.
+ * One-shot schedules have an interval of zero seconds.
+ */
+@Data
+public class ScheduledTransfer {
+
+  private final String scheduleId;
+
+  private final String accountFromId;
+
+  private final String accountToId;
+
+  private final BigDecimal amount;
+
+  private final long intervalSeconds;
+
+  private Instant nextExecution;
+
+  public ScheduledTransfer(String scheduleId, String accountFromId, String accountToId,
+    BigDecimal amount, Instant nextExecution, long intervalSeconds) {
+    this.scheduleId = scheduleId;
+    this.accountFromId = accountFromId;
+    this.accountToId = accountToId;
+    this.amount = amount;
+    this.nextExecution = nextExecution;
+    this.intervalSeconds = intervalSeconds;
+  }
+
+  public boolean isRecurring() {
+    return intervalSeconds > 0;
+  }
+}
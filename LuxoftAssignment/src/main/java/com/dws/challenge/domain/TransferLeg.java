@@ -0,0 +1,30 @@
+package com.dws.challenge.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+/**
+ * One credit of a multi-leg transfer.
+ */
+@Data
+public class TransferLeg {
+
+  @NotNull
+  @NotEmpty
+  private final String accountToId;
+
+  @NotNull
+  private final BigDecimal amount;
+
+  @JsonCreator
+  public TransferLeg(@JsonProperty("accountToId") String accountToId,
+    @JsonProperty("amount") BigDecimal amount) {
+    this.accountToId = accountToId;
+    this.amount = amount;
+  }
+}
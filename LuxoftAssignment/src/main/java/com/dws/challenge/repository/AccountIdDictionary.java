@@ -0,0 +1,200 @@
+package com.dws.challenge.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * AccountIdDictionary class mapping external account ids to dense int handles.
+ * Handles are assigned from zero in insertion order and never change, so they can index parallel
+ * primitive arrays. The ids themselves are copied into large shared char chunks and found through
+ * an open-addressing table of handles, so the dictionary allocates no object per account.
+ * Lookups take no lock; adding ids is serialized.
+ */
+public final class AccountIdDictionary {
+
+    static final int HANDLE_CHUNK_BITS = 16;
+    static final int HANDLE_CHUNK_SIZE = 1 << HANDLE_CHUNK_BITS;
+
+    private static final int MAX_HANDLE_CHUNKS = 1 << (31 - HANDLE_CHUNK_BITS);
+    private static final int ARENA_CHUNK_BITS = 20;
+    private static final int ARENA_CHUNK_SIZE = 1 << ARENA_CHUNK_BITS;
+    private static final int MAX_ARENA_CHUNKS = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int FIELD_BITS = 21;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // Chunk tables are allocated at full size so readers never see them replaced
+    private final int[][] hashes = new int[MAX_HANDLE_CHUNKS][];
+    private final long[][] locations = new long[MAX_HANDLE_CHUNKS][];
+    private final char[][] arena = new char[MAX_ARENA_CHUNKS][];
+    private volatile int[] slots;
+    private int size;
+    private int arenaChunk;
+    private int arenaPosition;
+
+    public AccountIdDictionary() {
+        clear();
+    }
+
+    /**
+     * Returns the handle of an account id.
+     * @param accountId The account id.
+     * @return The handle, or -1 if the id was never added.
+     */
+    public int handleOf(String accountId) {
+        int hash = accountId.hashCode();
+        int[] table = slots;
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            // Acquire pairs with the release in add, making the handle's id visible
+            int entry = (int) SLOTS.getAcquire(table, slot);
+            if (entry == 0) {
+                return -1;
+            }
+            int handle = entry - 1;
+            if (hashes[handle >>> HANDLE_CHUNK_BITS][handle & (HANDLE_CHUNK_SIZE - 1)] == hash
+                    && idEquals(handle, accountId)) {
+                return handle;
+            }
+        }
+    }
+
+    /**
+     * Returns the handle of an account id, adding the id if needed.
+     * @param accountId The account id.
+     * @return The handle of the id.
+     * @throws IllegalArgumentException if the id is too long to be stored.
+     */
+    public int intern(String accountId) {
+        int handle = handleOf(accountId);
+        return handle >= 0 ? handle : add(accountId);
+    }
+
+    /**
+     * Returns the account id of a handle.
+     * @param handle A handle returned by this dictionary.
+     * @return The account id.
+     */
+    public String idOf(int handle) {
+        long location = locations[handle >>> HANDLE_CHUNK_BITS][handle & (HANDLE_CHUNK_SIZE - 1)];
+        return new String(arena[chunkOf(location)], offsetOf(location), lengthOf(location));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes every id. Handles returned before are no longer valid.
+     */
+    public synchronized void clear() {
+        size = 0;
+        arenaChunk = 0;
+        arenaPosition = 0;
+        arena[0] = new char[ARENA_CHUNK_SIZE];
+        slots = new int[INITIAL_CAPACITY];
+    }
+
+    private synchronized int add(String accountId) {
+        int existing = handleOf(accountId);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (accountId.length() > ARENA_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Account id is too long");
+        }
+
+        int handle = size;
+        int chunk = handle >>> HANDLE_CHUNK_BITS;
+        if (chunk == MAX_HANDLE_CHUNKS) {
+            throw new IllegalStateException("The account id dictionary is full");
+        }
+        if (hashes[chunk] == null) {
+            hashes[chunk] = new int[HANDLE_CHUNK_SIZE];
+            locations[chunk] = new long[HANDLE_CHUNK_SIZE];
+        }
+        int hash = accountId.hashCode();
+        hashes[chunk][handle & (HANDLE_CHUNK_SIZE - 1)] = hash;
+        locations[chunk][handle & (HANDLE_CHUNK_SIZE - 1)] = store(accountId);
+
+        int[] table = slots;
+        if ((handle + 1) * 2L > table.length) {
+            table = rehash(table.length * 2);
+        }
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        SLOTS.setRelease(table, slot, handle + 1);
+        size++;
+        return handle;
+    }
+
+    private long store(String accountId) {
+        int length = accountId.length();
+        if (arenaPosition + length > ARENA_CHUNK_SIZE) {
+            if (arenaChunk + 1 == MAX_ARENA_CHUNKS) {
+                throw new IllegalStateException("The account id dictionary is full");
+            }
+            arenaChunk++;
+            arenaPosition = 0;
+            arena[arenaChunk] = new char[ARENA_CHUNK_SIZE];
+        }
+        accountId.getChars(0, length, arena[arenaChunk], arenaPosition);
+        long location = ((long) arenaChunk << (2 * FIELD_BITS)) | ((long) arenaPosition << FIELD_BITS) | length;
+        arenaPosition += length;
+        return location;
+    }
+
+    /**
+     * Publishes a larger slot table. Lookups already running on the previous table only miss the
+     * ids added since, which callers confirm under the dictionary's lock.
+     */
+    private int[] rehash(int capacity) {
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (int handle = 0; handle < size; handle++) {
+            int slot = spread(hashes[handle >>> HANDLE_CHUNK_BITS][handle & (HANDLE_CHUNK_SIZE - 1)]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = handle + 1;
+        }
+        slots = table;
+        return table;
+    }
+
+    private boolean idEquals(int handle, String accountId) {
+        long location = locations[handle >>> HANDLE_CHUNK_BITS][handle & (HANDLE_CHUNK_SIZE - 1)];
+        int length = lengthOf(location);
+        if (length != accountId.length()) {
+            return false;
+        }
+        char[] chunk = arena[chunkOf(location)];
+        int offset = offsetOf(location);
+        for (int i = 0; i < length; i++) {
+            if (chunk[offset + i] != accountId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return (int) ((hash * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private static int chunkOf(long location) {
+        return (int) (location >>> (2 * FIELD_BITS));
+    }
+
+    private static int offsetOf(long location) {
+        return (int) (location >>> FIELD_BITS) & FIELD_MASK;
+    }
+
+    private static int lengthOf(long location) {
+        return (int) location & FIELD_MASK;
+    }
+}
@@ -0,0 +1,152 @@
+package com.dws.challenge.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AccountLocks class holding the locks that guard account balances.
+ * Accounts are hashed onto a fixed table of lock stripes, so lock memory does not grow with the
+ * number of accounts. Every component that reads or changes a balance consistently must hold the
+ * account's stripe, and components locking more than one account must acquire the stripes in
+ * ascending stripe order. Stripes are reentrant, so two accounts sharing a stripe are safe.
+ * Each stripe also carries a version, odd while the stripe is held, so a balance can be read
+ * optimistically without locking and trusted only if the version did not move meanwhile.
+ */
+@Component
+public class AccountLocks {
+
+    public static final int DEFAULT_STRIPES = 1 << 14;
+
+    private final StripeLock[] stripes;
+    private final int mask;
+
+    public AccountLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs a new AccountLocks with the given number of stripes, rounded up to a power of two.
+     * @param stripeCount The number of lock stripes.
+     */
+    @Autowired
+    public AccountLocks(@Value("${accounts.lock-stripes:16384}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new StripeLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new StripeLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the stripe guarding the given account, which is also its position in the lock order.
+     * @param accountId The ID of the account.
+     * @return The stripe index of the account.
+     */
+    public int stripeOf(String accountId) {
+        int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the lock of the given stripe.
+     * @param stripe The stripe index.
+     * @return The lock of the stripe.
+     */
+    public Lock lockAt(int stripe) {
+        return stripes[stripe];
+    }
+
+    /**
+     * Returns the lock guarding the given account.
+     * @param accountId The ID of the account.
+     * @return The lock for the account.
+     */
+    public Lock lockFor(String accountId) {
+        return stripes[stripeOf(accountId)];
+    }
+
+    /**
+     * Starts an optimistic read of a stripe.
+     * @param stripe The stripe index.
+     * @return A stamp to validate once the read is done, or 0 if the stripe is currently held.
+     */
+    public long tryOptimisticRead(int stripe) {
+        long version = stripes[stripe].version;
+        return (version & 1) == 0 ? version : 0;
+    }
+
+    /**
+     * Checks that no holder of the stripe could have changed what was read since the stamp was taken.
+     * @param stripe The stripe index.
+     * @param stamp The stamp returned by tryOptimisticRead.
+     * @return true if the values read under the stamp are consistent.
+     */
+    public boolean validate(int stripe, long stamp) {
+        // Keep the optimistic reads from being reordered after the version check
+        VarHandle.acquireFence();
+        return stamp != 0 && stripes[stripe].version == stamp;
+    }
+
+    /**
+     * StripeLock class adding a seqlock-style version to a reentrant lock.
+     * The version is bumped when the outermost hold is acquired and again when it is released.
+     */
+    private static final class StripeLock extends ReentrantLock {
+
+        private volatile long version = 2;
+
+        @Override
+        public void lock() {
+            super.lock();
+            acquired();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            super.lockInterruptibly();
+            acquired();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!super.tryLock()) {
+                return false;
+            }
+            acquired();
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+            if (!super.tryLock(timeout, unit)) {
+                return false;
+            }
+            acquired();
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            if (getHoldCount() == 1) {
+                // The volatile write publishes every change made under the lock before the new version
+                version = version + 1;
+            }
+            super.unlock();
+        }
+
+        private void acquired() {
+            if (getHoldCount() == 1) {
+                version = version + 1;
+                // Make the odd version visible before any change made under the lock
+                VarHandle.storeStoreFence();
+            }
+        }
+    }
+}
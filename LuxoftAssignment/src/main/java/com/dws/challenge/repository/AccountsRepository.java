@@ -3,11 +3,25 @@ package com.dws.challenge.repository;
 import com.dws.challenge.domain.Account;
 import com.dws.challenge.exception.DuplicateAccountIdException;
 
+import java.util.Collection;
+
 public interface AccountsRepository {
 
   void createAccount(Account account) throws DuplicateAccountIdException;
 
   Account getAccount(String accountId);
 
+  /**
+   * Returns an account for a read-only scan, without the side effects of getAccount such as
+   * moving the account to faster storage.
+   * @param accountId The ID of the account.
+   * @return The account, or null if it does not exist.
+   */
+  default Account peekAccount(String accountId) {
+    return getAccount(accountId);
+  }
+
+  Collection<String> getAccountIds();
+
   void clearAccounts();
 }
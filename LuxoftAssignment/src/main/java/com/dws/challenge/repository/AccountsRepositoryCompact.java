@@ -0,0 +1,155 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.exception.DuplicateAccountIdException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * AccountsRepositoryCompact class keeping accounts in primitive arrays indexed by dense handles.
+ * An AccountIdDictionary turns each account id into an int handle once, and the balance of the
+ * account is stored as an unscaled long and a scale in parallel arrays at that handle, so the
+ * repository holds no object per account. Accounts returned by getAccount are short-lived views.
+ * Selected with accounts.repository.type=compact.
+ */
+@Repository
+@ConditionalOnProperty(name = "accounts.repository.type", havingValue = "compact")
+public class AccountsRepositoryCompact implements AccountsRepository {
+
+    private static final int CHUNK_BITS = AccountIdDictionary.HANDLE_CHUNK_BITS;
+    private static final int CHUNK_MASK = AccountIdDictionary.HANDLE_CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 1 << (31 - CHUNK_BITS);
+    // Scale marking a balance too wide for a long, kept in wideBalances instead
+    private static final short WIDE = Short.MIN_VALUE;
+
+    private final AccountLocks accountLocks;
+    private final AccountIdDictionary dictionary = new AccountIdDictionary();
+    private final long[][] unscaledBalances = new long[MAX_CHUNKS][];
+    private final short[][] scales = new short[MAX_CHUNKS][];
+    private final Map<Integer, BigDecimal> wideBalances = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new AccountsRepositoryCompact.
+     * @param accountLocks The locks guarding account balances.
+     */
+    @Autowired
+    public AccountsRepositoryCompact(AccountLocks accountLocks) {
+        this.accountLocks = accountLocks;
+    }
+
+    @Override
+    public void createAccount(Account account) throws DuplicateAccountIdException {
+        String accountId = account.getAccountId();
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            if (dictionary.handleOf(accountId) >= 0) {
+                throw new DuplicateAccountIdException("Account id " + accountId + " already exists!");
+            }
+            int handle = dictionary.intern(accountId);
+            ensureChunk(handle >>> CHUNK_BITS);
+            writeBalance(handle, account.getBalance());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Account getAccount(String accountId) {
+        int handle = dictionary.handleOf(accountId);
+        return handle < 0 ? null : new CompactAccount(this, accountId, handle);
+    }
+
+    /**
+     * Returns a view of the account ids, decoded from the dictionary as they are iterated.
+     * @return The account ids.
+     */
+    @Override
+    public Collection<String> getAccountIds() {
+        int size = dictionary.size();
+        return new AbstractList<String>() {
+            @Override
+            public String get(int handle) {
+                return dictionary.idOf(handle);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public void clearAccounts() {
+        dictionary.clear();
+        wideBalances.clear();
+    }
+
+    /**
+     * Reads a balance optimistically, falling back to the account's lock if a writer got in the way,
+     * so a reader never sees a half-written balance.
+     * @param accountId The ID of the account.
+     * @param handle The handle of the account.
+     * @return The balance of the account.
+     */
+    BigDecimal balanceOf(String accountId, int handle) {
+        int stripe = accountLocks.stripeOf(accountId);
+        long stamp = accountLocks.tryOptimisticRead(stripe);
+        if (stamp != 0) {
+            short scale = scales[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+            long unscaled = unscaledBalances[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+            BigDecimal wide = scale == WIDE ? wideBalances.get(handle) : null;
+            if (accountLocks.validate(stripe, stamp)) {
+                return scale == WIDE ? wide : BigDecimal.valueOf(unscaled, scale);
+            }
+        }
+
+        Lock lock = accountLocks.lockAt(stripe);
+        lock.lock();
+        try {
+            short scale = scales[handle >>> CHUNK_BITS][handle & CHUNK_MASK];
+            if (scale == WIDE) {
+                return wideBalances.get(handle);
+            }
+            return BigDecimal.valueOf(unscaledBalances[handle >>> CHUNK_BITS][handle & CHUNK_MASK], scale);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a balance. Must be called while holding the account's lock.
+     * @param handle The handle of the account.
+     * @param balance The new balance.
+     */
+    void writeBalance(int handle, BigDecimal balance) {
+        int chunk = handle >>> CHUNK_BITS;
+        if (balance.scale() > Short.MIN_VALUE && balance.scale() <= Short.MAX_VALUE
+                && balance.unscaledValue().bitLength() < 64) {
+            if (scales[chunk][handle & CHUNK_MASK] == WIDE) {
+                wideBalances.remove(handle);
+            }
+            unscaledBalances[chunk][handle & CHUNK_MASK] = balance.unscaledValue().longValue();
+            scales[chunk][handle & CHUNK_MASK] = (short) balance.scale();
+        } else {
+            wideBalances.put(handle, balance);
+            scales[chunk][handle & CHUNK_MASK] = WIDE;
+        }
+    }
+
+    private synchronized void ensureChunk(int chunk) {
+        if (unscaledBalances[chunk] == null) {
+            unscaledBalances[chunk] = new long[AccountIdDictionary.HANDLE_CHUNK_SIZE];
+            scales[chunk] = new short[AccountIdDictionary.HANDLE_CHUNK_SIZE];
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.exception.DuplicateAccountIdException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AccountsRepositoryReplica class holding a read-only copy of a primary's accounts, kept up to date
+ * from the primary's change stream. Selected with accounts.repository.type=replica.
+ * Each account remembers the sequence number of the change it reflects, so changes arriving out of
+ * order across accounts or already covered by the snapshot are skipped. The watermark is the highest
+ * sequence number up to which every change has been applied; heartbeats from the primary tell how
+ * long ago the primary was at the watermark, which is the reported staleness.
+ * The apply methods are called by a single replication thread; reads need no lock.
+ */
+@Repository
+@ConditionalOnProperty(name = "accounts.repository.type", havingValue = "replica")
+public class AccountsRepositoryReplica implements AccountsRepository {
+
+    private volatile Map<String, ReplicaAccount> accounts = new ConcurrentHashMap<>();
+    private volatile long watermark;
+    private volatile long primarySequence;
+    private volatile long freshAsOfMillis;
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Object watermarkMonitor = new Object();
+
+    // Confined to the replication thread
+    private Map<String, ReplicaAccount> snapshot;
+    private long snapshotSequence;
+    private final PriorityQueue<Long> received = new PriorityQueue<>();
+    private final ArrayDeque<long[]> heartbeats = new ArrayDeque<>();
+
+    @Override
+    public void createAccount(Account account) throws DuplicateAccountIdException {
+        throw new UnsupportedOperationException("Replicas are read-only; create accounts on the primary");
+    }
+
+    @Override
+    public Account getAccount(String accountId) {
+        return accounts.get(accountId);
+    }
+
+    @Override
+    public Collection<String> getAccountIds() {
+        return Collections.unmodifiableSet(accounts.keySet());
+    }
+
+    @Override
+    public void clearAccounts() {
+        accounts.clear();
+    }
+
+    /**
+     * Starts receiving a snapshot. The current accounts keep serving reads until it is complete.
+     * @param baseSequence The primary's sequence number when the snapshot began.
+     */
+    public void beginSnapshot(long baseSequence) {
+        snapshot = new ConcurrentHashMap<>();
+        snapshotSequence = baseSequence;
+    }
+
+    /**
+     * Adds an account to the snapshot being received.
+     * @param accountId The ID of the account.
+     * @param balance The balance of the account.
+     * @param version The sequence number the balance reflects.
+     */
+    public void applySnapshot(String accountId, BigDecimal balance, long version) {
+        snapshot.put(accountId, new ReplicaAccount(accountId, balance, version));
+    }
+
+    /**
+     * Replaces the accounts with the received snapshot. Every change numbered up to the snapshot's
+     * base sequence is reflected by it.
+     */
+    public void endSnapshot() {
+        accounts = snapshot;
+        snapshot = null;
+        received.clear();
+        heartbeats.clear();
+        advanceWatermark(snapshotSequence);
+    }
+
+    /**
+     * Applies a change from the primary.
+     * @param sequence The sequence number of the change.
+     * @param accountId The ID of the account.
+     * @param balance The balance of the account after the change.
+     */
+    public void apply(long sequence, String accountId, BigDecimal balance) {
+        ReplicaAccount current = accounts.get(accountId);
+        if (current == null || current.version() < sequence) {
+            accounts.put(accountId, new ReplicaAccount(accountId, balance, sequence));
+        }
+        long applied = watermark;
+        if (sequence <= applied) {
+            return;
+        }
+        if (sequence != applied + 1) {
+            // An earlier change to another account is still in flight
+            received.add(sequence);
+            return;
+        }
+        applied = sequence;
+        while (!received.isEmpty() && received.peek() == applied + 1) {
+            applied = received.poll();
+        }
+        advanceWatermark(applied);
+    }
+
+    /**
+     * Records a heartbeat from the primary.
+     * @param sequence The primary's sequence number when the heartbeat was sent.
+     * @param sentAtMillis The time the heartbeat was sent.
+     */
+    public void heartbeat(long sequence, long sentAtMillis) {
+        primarySequence = sequence;
+        if (sequence <= watermark) {
+            heartbeats.clear();
+            freshAsOfMillis = sentAtMillis;
+        } else {
+            heartbeats.addLast(new long[] {sequence, sentAtMillis});
+        }
+    }
+
+    /**
+     * Returns the sequence number up to which every change of the primary is reflected.
+     * @return The watermark.
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Returns the primary's sequence number as of its latest heartbeat.
+     * @return The primary's sequence number.
+     */
+    public long getPrimarySequence() {
+        return primarySequence;
+    }
+
+    /**
+     * Returns how long ago the primary was at a sequence number this replica has reached.
+     * @return The staleness in milliseconds, or Long.MAX_VALUE before the first heartbeat was caught up with.
+     */
+    public long getStalenessMillis() {
+        long freshAsOf = freshAsOfMillis;
+        return freshAsOf == 0 ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - freshAsOf);
+    }
+
+    /**
+     * Waits until every change numbered up to a sequence number is reflected.
+     * @param sequence The sequence number.
+     * @param timeoutMillis The maximum time to wait.
+     * @return true if the watermark reached the sequence number, false if the wait timed out.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    public boolean awaitWatermark(long sequence, long timeoutMillis) throws InterruptedException {
+        if (watermark >= sequence) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        waiters.incrementAndGet();
+        try {
+            synchronized (watermarkMonitor) {
+                while (watermark < sequence) {
+                    long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                    if (remainingMillis <= 0) {
+                        return false;
+                    }
+                    watermarkMonitor.wait(remainingMillis);
+                }
+                return true;
+            }
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private void advanceWatermark(long sequence) {
+        watermark = sequence;
+        while (!heartbeats.isEmpty() && heartbeats.peekFirst()[0] <= sequence) {
+            freshAsOfMillis = heartbeats.pollFirst()[1];
+        }
+        // Waiters register before reading the watermark, so one of the two sides sees the other
+        if (waiters.get() > 0) {
+            synchronized (watermarkMonitor) {
+                watermarkMonitor.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.exception.DuplicateAccountIdException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * AccountsRepositoryTiered class keeping recently used accounts on the heap and the rest off-heap.
+ * Every account has a fixed-size record in a MappedAccountStore. An account is promoted to the heap
+ * when it is looked up, which covers transfers, and a background sweeper demotes accounts that have
+ * been idle for a while back to their records, so the heap only grows with the active accounts.
+ * Promotion and demotion happen under the account's lock, like any other balance change.
+ * Selected with accounts.repository.type=tiered.
+ */
+@Repository
+@ConditionalOnProperty(name = "accounts.repository.type", havingValue = "tiered")
+@Slf4j
+public class AccountsRepositoryTiered implements AccountsRepository {
+
+    private final AccountLocks accountLocks;
+    private final MappedAccountStore store;
+    private final long idleNanos;
+    private final long sweepSeconds;
+    private final Map<String, TieredAccount> hot = new ConcurrentHashMap<>();
+    // Accounts whose id does not fit a record; they stay on the heap for good
+    private final Set<String> unindexed = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Constructs a new AccountsRepositoryTiered with an empty store.
+     * @param accountLocks The locks guarding account balances.
+     * @param storePath The location of the file backing the off-heap store.
+     * @param capacity The number of records of the store.
+     * @param idleSeconds The time after which an unused account is demoted.
+     * @param sweepSeconds The delay between demotion sweeps, or zero to disable them.
+     */
+    @Autowired
+    public AccountsRepositoryTiered(AccountLocks accountLocks,
+                                    @Value("${accounts.tiered.store-path:data/accounts.store}") String storePath,
+                                    @Value("${accounts.tiered.capacity:4194304}") int capacity,
+                                    @Value("${accounts.tiered.idle-seconds:300}") long idleSeconds,
+                                    @Value("${accounts.tiered.sweep-seconds:30}") long sweepSeconds) {
+        Path file = Paths.get(storePath);
+        try {
+            this.store = new MappedAccountStore(file, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open account store " + file, e);
+        }
+        this.accountLocks = accountLocks;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        this.sweepSeconds = sweepSeconds;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (sweepSeconds <= 0) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-demotion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                int demoted = demoteIdle(System.nanoTime());
+                if (demoted > 0) {
+                    log.info("Demoted {} idle accounts, {} remain on the heap", demoted, hot.size());
+                }
+            } catch (RuntimeException e) {
+                log.error("Account demotion failed", e);
+            }
+        }, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        store.close();
+    }
+
+    @Override
+    public void createAccount(Account account) throws DuplicateAccountIdException {
+        String accountId = account.getAccountId();
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            if (hot.containsKey(accountId) || store.find(accountId) >= 0) {
+                throw new DuplicateAccountIdException("Account id " + accountId + " already exists!");
+            }
+            if (MappedAccountStore.fitsId(accountId) && MappedAccountStore.canStore(account.getBalance())) {
+                // New accounts start cold and are promoted on first use
+                store.insert(accountId, account.getBalance());
+            } else {
+                TieredAccount pinned = new TieredAccount(this, accountId, -1);
+                pinned.promote(account.getBalance());
+                hot.put(accountId, pinned);
+                unindexed.add(accountId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an account, promoting it to the heap if it was cold.
+     * @param accountId The ID of the account.
+     * @return The account, or null if it does not exist.
+     */
+    @Override
+    public Account getAccount(String accountId) {
+        TieredAccount account = hot.get(accountId);
+        if (account != null) {
+            account.touch();
+            return account;
+        }
+
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            account = hot.get(accountId);
+            if (account != null) {
+                account.touch();
+                return account;
+            }
+            int slot = store.find(accountId);
+            if (slot < 0) {
+                return null;
+            }
+            account = new TieredAccount(this, accountId, slot);
+            account.promote(store.balanceAt(slot));
+            hot.put(accountId, account);
+            store.markHot(slot);
+            return account;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an account without promoting it, so scans over every account leave the heap alone.
+     * @param accountId The ID of the account.
+     * @return The account, or null if it does not exist.
+     */
+    @Override
+    public Account peekAccount(String accountId) {
+        TieredAccount account = hot.get(accountId);
+        if (account != null) {
+            return account;
+        }
+        int slot = store.find(accountId);
+        return slot < 0 ? null : new TieredAccount(this, accountId, slot);
+    }
+
+    /**
+     * Returns a live view of the account ids. Iterating it reads the store slot by slot instead of
+     * copying the ids to the heap, and sees accounts created while it runs only on a best-effort basis.
+     * @return The account ids.
+     */
+    @Override
+    public Collection<String> getAccountIds() {
+        return new AbstractCollection<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new AccountIdIterator();
+            }
+
+            @Override
+            public int size() {
+                return store.size() + unindexed.size();
+            }
+        };
+    }
+
+    @Override
+    public void clearAccounts() {
+        hot.clear();
+        unindexed.clear();
+        store.clear();
+    }
+
+    /**
+     * Demotes every account that has not been looked up for the idle time.
+     * @param nowNanos The current System.nanoTime().
+     * @return The number of accounts demoted.
+     */
+    int demoteIdle(long nowNanos) {
+        int demoted = 0;
+        for (TieredAccount account : hot.values()) {
+            if (account.getSlot() < 0 || nowNanos - account.getLastAccessNanos() < idleNanos) {
+                continue;
+            }
+            Lock lock = accountLocks.lockFor(account.getAccountId());
+            lock.lock();
+            try {
+                // Re-check under the lock: the account may have been used or replaced meanwhile
+                if (hot.get(account.getAccountId()) != account || nowNanos - account.getLastAccessNanos() < idleNanos) {
+                    continue;
+                }
+                BigDecimal balance = account.residentBalance();
+                if (!MappedAccountStore.canStore(balance)) {
+                    continue;
+                }
+                store.setCold(account.getSlot(), balance);
+                account.demote();
+                hot.remove(account.getAccountId());
+                demoted++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return demoted;
+    }
+
+    int hotCount() {
+        return hot.size();
+    }
+
+    /**
+     * Reads the balance of a non-resident account. Callers holding the account's lock get the current
+     * balance; unlocked readers get a recent one, even if the account moves between tiers meanwhile.
+     * The read is optimistic, falling back to the account's lock if a writer got in the way, so a
+     * reader never sees a half-written balance.
+     * @param account The account to read.
+     * @return The balance, or zero for an account removed by clearAccounts.
+     */
+    BigDecimal loadBalance(TieredAccount account) {
+        int stripe = accountLocks.stripeOf(account.getAccountId());
+        long stamp = accountLocks.tryOptimisticRead(stripe);
+        if (stamp != 0) {
+            BigDecimal balance = currentBalance(account);
+            if (balance != null && accountLocks.validate(stripe, stamp)) {
+                return balance;
+            }
+        }
+
+        // Promotion and demotion happen under the lock, so the account stays in one tier while it is held
+        Lock lock = accountLocks.lockAt(stripe);
+        lock.lock();
+        try {
+            BigDecimal balance = currentBalance(account);
+            return balance != null ? balance : BigDecimal.ZERO;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the balance from whichever tier holds the account now. Unless the account's lock is held,
+     * the result may be torn, or null if the account moved while it was read, and must be validated.
+     */
+    private BigDecimal currentBalance(TieredAccount account) {
+        TieredAccount current = hot.get(account.getAccountId());
+        if (current != null && current != account) {
+            // A stale reference to an account promoted again since
+            return current.residentBalance();
+        }
+        if (account.isResident()) {
+            // This very reference was promoted after the caller found it non-resident
+            return account.residentBalance();
+        }
+        return account.getSlot() < 0 ? null : store.balanceAt(account.getSlot());
+    }
+
+    /**
+     * Writes the balance of a non-resident account. Must be called while holding the account's lock.
+     * @param account The account to change.
+     * @param balance The new balance.
+     */
+    void storeBalance(TieredAccount account, BigDecimal balance) {
+        TieredAccount current = hot.get(account.getAccountId());
+        if (current != null && current != account) {
+            current.setBalance(balance);
+        } else if (MappedAccountStore.canStore(balance)) {
+            store.writeBalance(account.getSlot(), balance);
+        } else {
+            // Balances a record cannot hold keep the account on the heap until they fit again
+            account.promote(balance);
+            hot.put(account.getAccountId(), account);
+            store.markHot(account.getSlot());
+        }
+    }
+
+    /**
+     * AccountIdIterator class walking the store slots, then the accounts without a record.
+     */
+    private final class AccountIdIterator implements Iterator<String> {
+
+        private final Iterator<String> unindexedIds = unindexed.iterator();
+        private int slot;
+        private String next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && slot < store.capacity()) {
+                next = store.idAt(slot++);
+            }
+            if (next == null && unindexedIds.hasNext()) {
+                next = unindexedIds.next();
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String id = next;
+            next = null;
+            return id;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.dws.challenge.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AppendOnlyJournal class persisting the entries of a file-backed repository as an append-only
+ * journal of tab-separated lines. The entries are rebuilt by replaying every line through a Codec,
+ * skipping a line torn by a crash mid-write. The journal is compacted to one line per live entry
+ * when it is opened, and again once the lines appended since the last compaction reach both the
+ * compaction threshold and the number of entries it kept, so the file stays proportional to the
+ * live entries and each compaction costs no more than the appends that triggered it.
+ * @param <T> The type of the entries, keyed by their ID.
+ */
+@Slf4j
+final class AppendOnlyJournal<T> implements Closeable {
+
+    // URLEncoder always escapes '~', so it cannot clash with an encoded value
+    private static final String NONE = "~";
+
+    private final Path path;
+    private final String name;
+    private final Codec<T> codec;
+    private final long compactionLines;
+    private BufferedWriter writer;
+    private long linesSinceCompaction;
+    private long liveAtCompaction;
+
+    /**
+     * Opens a journal and compacts its existing content.
+     * @param path The location of the journal file.
+     * @param name The name of the journal used in log and error messages.
+     * @param codec The codec translating between journal lines and entries.
+     * @param compactionLines The number of appended lines after which the journal is compacted while
+     *                        open; 0 compacts it only when opened.
+     * @throws UncheckedIOException if the journal cannot be read or written.
+     */
+    AppendOnlyJournal(Path path, String name, Codec<T> codec, long compactionLines) {
+        this.path = path;
+        this.name = name;
+        this.codec = codec;
+        this.compactionLines = compactionLines;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            compact();
+            log.info("Loaded {} entries from the {} journal {}", liveAtCompaction, name, path);
+            this.writer = openWriter();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open " + name + " journal " + path, e);
+        }
+    }
+
+    /**
+     * Appends lines and flushes them to the file.
+     * @param lines The fields of each line.
+     * @throws UncheckedIOException if the journal cannot be written.
+     */
+    synchronized void append(Collection<String[]> lines) {
+        try {
+            for (String[] fields : lines) {
+                writer.write(String.join("\t", fields));
+                writer.newLine();
+            }
+            writer.flush();
+            linesSinceCompaction += lines.size();
+            if (compactionLines > 0 && linesSinceCompaction >= Math.max(compactionLines, liveAtCompaction)) {
+                writer.close();
+                try {
+                    compact();
+                    log.info("Compacted the {} journal {} to {} entries", name, path, liveAtCompaction);
+                } finally {
+                    writer = openWriter();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write " + name + " journal " + path, e);
+        }
+    }
+
+    /**
+     * Returns the number of lines appended since the journal was last compacted.
+     * @return The number of lines.
+     */
+    synchronized long getLinesSinceCompaction() {
+        return linesSinceCompaction;
+    }
+
+    /**
+     * Replays the journal.
+     * @return The live entries by ID, in the order they were first written.
+     * @throws UncheckedIOException if the journal cannot be read.
+     */
+    synchronized Map<String, T> load() {
+        try {
+            writer.flush();
+            return replay();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + name + " journal " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    static String encode(String value) {
+        return value == null ? NONE : URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    static String decode(String value) {
+        return NONE.equals(value) ? null : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rewrites the journal with one line per live entry. Must be called while no writer is open.
+     */
+    private void compact() throws IOException {
+        Map<String, T> live = replay();
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (T entry : live.values()) {
+                out.write(String.join("\t", codec.snapshot(entry)));
+                out.newLine();
+            }
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        liveAtCompaction = live.size();
+        linesSinceCompaction = 0;
+    }
+
+    private BufferedWriter openWriter() throws IOException {
+        return Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Map<String, T> replay() throws IOException {
+        Map<String, T> entries = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            try {
+                if (codec.replay(entries, line.split("\t"))) {
+                    continue;
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                // Falls through to the warning below.
+            }
+            if (!line.isEmpty()) {
+                // A torn last line from a crash mid-write; everything before it is intact.
+                log.warn("Skipping malformed {} journal entry: {}", name, line);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Codec interface translating between journal lines and the entries they describe.
+     * @param <T> The type of the entries.
+     */
+    interface Codec<T> {
+
+        /**
+         * Applies one journal line to the entries replayed so far.
+         * @param entries The entries by ID.
+         * @param fields The fields of the line.
+         * @return false if the line is not a valid journal entry.
+         */
+        boolean replay(Map<String, T> entries, String[] fields);
+
+        /**
+         * Returns the fields of the one line that recreates an entry on its own.
+         * @param entry The entry.
+         * @return The fields of the line.
+         */
+        String[] snapshot(T entry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.BulkJob;
+
+import java.util.Collection;
+
+public interface BulkJobsRepository {
+
+  void saveJob(BulkJob job);
+
+  void saveCheckpoint(BulkJob job, int chunk);
+
+  Collection<BulkJob> loadAll();
+}
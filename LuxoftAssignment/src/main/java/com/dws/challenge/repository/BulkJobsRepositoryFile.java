@@ -0,0 +1,159 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.BulkAdjustmentType;
+import com.dws.challenge.domain.BulkJob;
+import com.dws.challenge.domain.BulkJobState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BulkJobsRepositoryFile class persisting bulk jobs and their checkpoints in an append-only journal.
+ * A job line holds the full state of a job and is written when the job starts or changes state;
+ * a checkpoint line records the progress of one chunk after each batch. The journal is replayed
+ * and compacted to one job line per job when the repository is created, and again once enough
+ * checkpoints have piled up while it runs.
+ */
+@Repository
+public class BulkJobsRepositoryFile implements BulkJobsRepository {
+
+    private static final String JOB = "J";
+    private static final String CHECKPOINT = "C";
+    // The journal's marker for a missing value
+    private static final String NONE = "~";
+    private static final int JOB_FIELDS = 13;
+
+    private final AppendOnlyJournal<BulkJob> journal;
+
+    /**
+     * Constructs a new BulkJobsRepositoryFile and compacts the existing journal.
+     * @param journalPath The location of the journal file.
+     * @param compactionLines The number of appended lines after which the journal is compacted.
+     */
+    public BulkJobsRepositoryFile(@Value("${bulk.journal-path:data/bulk-jobs.journal}") String journalPath,
+                                  @Value("${bulk.journal-compaction-lines:100000}") long compactionLines) {
+        this.journal = new AppendOnlyJournal<>(Paths.get(journalPath), "bulk job", new BulkJobCodec(), compactionLines);
+    }
+
+    @Override
+    public void saveJob(BulkJob job) {
+        journal.append(Collections.singletonList(jobLine(job)));
+    }
+
+    @Override
+    public void saveCheckpoint(BulkJob job, int chunk) {
+        journal.append(Collections.singletonList(new String[] {CHECKPOINT,
+                AppendOnlyJournal.encode(job.getJobId()),
+                Integer.toString(chunk),
+                AppendOnlyJournal.encode(job.getChunkCursors()[chunk]),
+                job.getChunksCompleted()[chunk] ? "1" : "0",
+                Long.toString(job.getAccountsProcessed()),
+                Long.toString(job.getAccountsAdjusted()),
+                Long.toString(job.getAccountsSkipped()),
+                job.getNetAmount().toPlainString()}));
+    }
+
+    @Override
+    public Collection<BulkJob> loadAll() {
+        return journal.load().values();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private static String[] jobLine(BulkJob job) {
+        List<String> fields = new ArrayList<>();
+        fields.add(JOB);
+        fields.add(AppendOnlyJournal.encode(job.getJobId()));
+        fields.add(job.getType().name());
+        fields.add(job.getValue().toPlainString());
+        fields.add(AppendOnlyJournal.encode(job.getAccountIdPrefix()));
+        fields.add(Long.toString(job.getCreatedAt().toEpochMilli()));
+        fields.add(job.getState().name());
+        fields.add(job.getCompletedAt() == null ? NONE : Long.toString(job.getCompletedAt().toEpochMilli()));
+        fields.add(Long.toString(job.getAccountsProcessed()));
+        fields.add(Long.toString(job.getAccountsAdjusted()));
+        fields.add(Long.toString(job.getAccountsSkipped()));
+        fields.add(job.getNetAmount().toPlainString());
+        fields.add(Integer.toString(job.getChunkStarts().size()));
+        for (String chunkStart : job.getChunkStarts()) {
+            fields.add(AppendOnlyJournal.encode(chunkStart));
+        }
+        for (String chunkCursor : job.getChunkCursors()) {
+            fields.add(AppendOnlyJournal.encode(chunkCursor));
+        }
+        for (boolean completed : job.getChunksCompleted()) {
+            fields.add(completed ? "1" : "0");
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    private static BulkJob readJob(String[] fields) {
+        int chunks = Integer.parseInt(fields[12]);
+        if (fields.length != JOB_FIELDS + 3 * chunks) {
+            throw new IllegalArgumentException("Unexpected number of chunk fields");
+        }
+        List<String> chunkStarts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            chunkStarts.add(AppendOnlyJournal.decode(fields[JOB_FIELDS + i]));
+        }
+        BulkJob job = new BulkJob(AppendOnlyJournal.decode(fields[1]), BulkAdjustmentType.valueOf(fields[2]),
+                new BigDecimal(fields[3]), AppendOnlyJournal.decode(fields[4]),
+                Instant.ofEpochMilli(Long.parseLong(fields[5])), chunkStarts);
+        job.setState(BulkJobState.valueOf(fields[6]));
+        job.setCompletedAt(NONE.equals(fields[7]) ? null : Instant.ofEpochMilli(Long.parseLong(fields[7])));
+        job.setAccountsProcessed(Long.parseLong(fields[8]));
+        job.setAccountsAdjusted(Long.parseLong(fields[9]));
+        job.setAccountsSkipped(Long.parseLong(fields[10]));
+        job.setNetAmount(new BigDecimal(fields[11]));
+        for (int i = 0; i < chunks; i++) {
+            job.getChunkCursors()[i] = AppendOnlyJournal.decode(fields[JOB_FIELDS + chunks + i]);
+            job.getChunksCompleted()[i] = "1".equals(fields[JOB_FIELDS + 2 * chunks + i]);
+        }
+        return job;
+    }
+
+    /**
+     * BulkJobCodec class reading job lines and the checkpoints that follow them from the journal.
+     */
+    private static final class BulkJobCodec implements AppendOnlyJournal.Codec<BulkJob> {
+
+        @Override
+        public boolean replay(Map<String, BulkJob> entries, String[] fields) {
+            if (JOB.equals(fields[0]) && fields.length >= JOB_FIELDS) {
+                BulkJob job = readJob(fields);
+                entries.put(job.getJobId(), job);
+                return true;
+            } else if (CHECKPOINT.equals(fields[0]) && fields.length == 9
+                    && entries.containsKey(AppendOnlyJournal.decode(fields[1]))) {
+                BulkJob job = entries.get(AppendOnlyJournal.decode(fields[1]));
+                int chunk = Integer.parseInt(fields[2]);
+                job.getChunkCursors()[chunk] = AppendOnlyJournal.decode(fields[3]);
+                job.getChunksCompleted()[chunk] = "1".equals(fields[4]);
+                job.setAccountsProcessed(Long.parseLong(fields[5]));
+                job.setAccountsAdjusted(Long.parseLong(fields[6]));
+                job.setAccountsSkipped(Long.parseLong(fields[7]));
+                job.setNetAmount(new BigDecimal(fields[8]));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String[] snapshot(BulkJob job) {
+            return jobLine(job);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+
+import java.math.BigDecimal;
+
+/**
+ * CompactAccount class representing an account held by the AccountsRepositoryCompact.
+ * It is a lightweight view: the balance lives in the repository's primitive arrays, addressed by
+ * the account's handle, and every read or write goes straight to them.
+ */
+final class CompactAccount extends Account {
+
+    private final AccountsRepositoryCompact repository;
+    private final int handle;
+
+    CompactAccount(AccountsRepositoryCompact repository, String accountId, int handle) {
+        super(accountId, null);
+        this.repository = repository;
+        this.handle = handle;
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return repository.balanceOf(getAccountId(), handle);
+    }
+
+    @Override
+    public void setBalance(BigDecimal balance) {
+        repository.writeBalance(handle, balance);
+    }
+}
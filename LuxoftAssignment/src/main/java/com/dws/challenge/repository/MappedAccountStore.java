@@ -0,0 +1,270 @@
+package com.dws.challenge.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedAccountStore class keeping account balances in fixed-size records of a memory-mapped file.
+ * Records live in an open-addressing table hashed by account id, so the store needs no on-heap
+ * index. Records are never moved once inserted, which keeps slot numbers stable for the accounts
+ * referring to them and lets the slots be iterated while accounts are being added.
+ * Only inserting and clearing records is serialized. Lookups, scans and balance accesses run without
+ * locking: a record is published by writing its state last, behind a release fence, and readers
+ * fence after reading the state. A record's balance is not written atomically, so balance writes
+ * must hold the account's lock and unlocked balance reads must be validated against it.
+ */
+final class MappedAccountStore implements Closeable {
+
+    static final int RECORD_SIZE = 64;
+    static final int MAX_ID_BYTES = 48;
+
+    static final byte EMPTY = 0;
+    static final byte COLD = 1;
+    static final byte HOT = 2;
+
+    private static final int SEGMENT_BITS = 24;
+    private static final int STATE = 0;
+    private static final int ID_LENGTH = 1;
+    private static final int SCALE = 2;
+    private static final int HASH = 4;
+    private static final int UNSCALED = 8;
+    private static final int ID = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int capacity;
+    private final int hashShift;
+    private final int maxSize;
+    private volatile int size;
+
+    /**
+     * Creates an empty store in the given file, replacing its previous content.
+     * @param file The file backing the store.
+     * @param capacity The number of records, rounded up to a power of two.
+     *                 At most three quarters of them can be used.
+     * @throws IOException if the file cannot be created or mapped.
+     */
+    MappedAccountStore(Path file, int capacity) throws IOException {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid account store capacity: " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.hashShift = 64 - Integer.numberOfTrailingZeros(this.capacity);
+        this.maxSize = (int) (this.capacity * 3L / 4);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        int segmentRecords = Math.min(this.capacity, 1 << SEGMENT_BITS);
+        this.segments = new MappedByteBuffer[this.capacity / segmentRecords];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentRecords * RECORD_SIZE,
+                    (long) segmentRecords * RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Checks whether a balance can be kept in a record without losing precision.
+     * @param balance The balance to check.
+     * @return true if the balance fits a record.
+     */
+    static boolean canStore(BigDecimal balance) {
+        return balance != null && balance.scale() >= Short.MIN_VALUE && balance.scale() <= Short.MAX_VALUE
+                && balance.unscaledValue().bitLength() < 64;
+    }
+
+    /**
+     * Checks whether an account id fits a record.
+     * @param accountId The account id to check.
+     * @return true if the encoded id fits a record.
+     */
+    static boolean fitsId(String accountId) {
+        return accountId.length() <= MAX_ID_BYTES && encode(accountId).length <= MAX_ID_BYTES;
+    }
+
+    /**
+     * Adds a cold account record.
+     * @param accountId The ID of the account, which must fit a record.
+     * @param balance The balance of the account, which must fit a record.
+     * @return The slot of the new record, or -1 if the account is already stored.
+     * @throws IllegalStateException if the store is full.
+     */
+    synchronized int insert(String accountId, BigDecimal balance) {
+        byte[] id = encode(accountId);
+        int hash = accountId.hashCode();
+        int slot = probe(id, hash);
+        if (state(slot) != EMPTY) {
+            return -1;
+        }
+        if (size >= maxSize) {
+            throw new IllegalStateException("The account store is full (" + size + " accounts)");
+        }
+        MappedByteBuffer segment = segmentOf(slot);
+        int offset = offsetOf(slot);
+        segment.put(offset + ID_LENGTH, (byte) id.length);
+        segment.putInt(offset + HASH, hash);
+        for (int i = 0; i < id.length; i++) {
+            segment.put(offset + ID + i, id[i]);
+        }
+        writeBalance(slot, balance);
+        // Publish the record last so a concurrent lookup or scan never sees a half-written id
+        VarHandle.releaseFence();
+        segment.put(offset + STATE, COLD);
+        size++;
+        return slot;
+    }
+
+    /**
+     * Finds the record of an account.
+     * @param accountId The ID of the account.
+     * @return The slot of the account, or -1 if it is not stored.
+     */
+    int find(String accountId) {
+        if (!fitsId(accountId)) {
+            return -1;
+        }
+        int slot = probe(encode(accountId), accountId.hashCode());
+        return state(slot) == EMPTY ? -1 : slot;
+    }
+
+    /**
+     * Reads the balance of a cold record. Unless the account's lock is held, the result may mix two
+     * balances and must be validated by the caller.
+     * @param slot The slot of the record.
+     * @return The stored balance, or null if the record is not cold, so its stored balance is stale.
+     */
+    BigDecimal balanceAt(int slot) {
+        if (state(slot) != COLD) {
+            return null;
+        }
+        MappedByteBuffer segment = segmentOf(slot);
+        int offset = offsetOf(slot);
+        return BigDecimal.valueOf(segment.getLong(offset + UNSCALED), segment.getShort(offset + SCALE));
+    }
+
+    /**
+     * Overwrites the balance of a record. Must be called while holding the account's lock.
+     * @param slot The slot of the record.
+     * @param balance The balance, which must fit a record.
+     */
+    void writeBalance(int slot, BigDecimal balance) {
+        MappedByteBuffer segment = segmentOf(slot);
+        int offset = offsetOf(slot);
+        segment.putShort(offset + SCALE, (short) balance.scale());
+        segment.putLong(offset + UNSCALED, balance.unscaledValue().longValue());
+    }
+
+    /**
+     * Marks a record hot: its balance now lives on the heap and the stored one is stale.
+     * Must be called while holding the account's lock.
+     * @param slot The slot of the record.
+     */
+    void markHot(int slot) {
+        segmentOf(slot).put(offsetOf(slot) + STATE, HOT);
+    }
+
+    /**
+     * Stores the current balance of an account leaving the heap and marks its record cold.
+     * Must be called while holding the account's lock.
+     * @param slot The slot of the record.
+     * @param balance The balance, which must fit a record.
+     */
+    void setCold(int slot, BigDecimal balance) {
+        writeBalance(slot, balance);
+        segmentOf(slot).put(offsetOf(slot) + STATE, COLD);
+    }
+
+    /**
+     * Returns the account id stored in a slot.
+     * @param slot The slot to read.
+     * @return The account id, or null if the slot is empty.
+     */
+    String idAt(int slot) {
+        if (state(slot) == EMPTY) {
+            return null;
+        }
+        MappedByteBuffer segment = segmentOf(slot);
+        int offset = offsetOf(slot);
+        byte[] id = new byte[segment.get(offset + ID_LENGTH)];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = segment.get(offset + ID + i);
+        }
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every record.
+     */
+    synchronized void clear() {
+        for (int slot = 0; slot < capacity; slot++) {
+            segmentOf(slot).put(offsetOf(slot) + STATE, EMPTY);
+        }
+        size = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private int probe(byte[] id, int hash) {
+        int mask = capacity - 1;
+        int slot = (int) ((hash * 0x9E3779B97F4A7C15L) >>> hashShift);
+        while (state(slot) != EMPTY && !matches(slot, id, hash)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int slot, byte[] id, int hash) {
+        MappedByteBuffer segment = segmentOf(slot);
+        int offset = offsetOf(slot);
+        if (segment.getInt(offset + HASH) != hash || segment.get(offset + ID_LENGTH) != id.length) {
+            return false;
+        }
+        for (int i = 0; i < id.length; i++) {
+            if (segment.get(offset + ID + i) != id[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte state(int slot) {
+        byte state = segmentOf(slot).get(offsetOf(slot) + STATE);
+        // Pairs with the fence in insert: fields read after a published state are complete
+        VarHandle.acquireFence();
+        return state;
+    }
+
+    private MappedByteBuffer segmentOf(int slot) {
+        return segments[slot >>> SEGMENT_BITS];
+    }
+
+    private static int offsetOf(int slot) {
+        return (slot & ((1 << SEGMENT_BITS) - 1)) * RECORD_SIZE;
+    }
+
+    private static byte[] encode(String accountId) {
+        return accountId.getBytes(StandardCharsets.UTF_8);
+    }
+}
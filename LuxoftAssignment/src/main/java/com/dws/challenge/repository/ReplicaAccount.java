@@ -0,0 +1,35 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+
+import java.math.BigDecimal;
+
+/**
+ * ReplicaAccount class representing an account copied from the primary by the AccountsRepositoryReplica.
+ * Each change replaces the object, so readers never need a lock; writes are rejected because a
+ * replica's balances may only change through the primary's change stream.
+ */
+final class ReplicaAccount extends Account {
+
+    private final long version;
+
+    /**
+     * Constructs a replicated account.
+     * @param accountId The ID of the account.
+     * @param balance The balance of the account.
+     * @param version The sequence number of the primary's change this balance reflects.
+     */
+    ReplicaAccount(String accountId, BigDecimal balance, long version) {
+        super(accountId, balance);
+        this.version = version;
+    }
+
+    @Override
+    public void setBalance(BigDecimal balance) {
+        throw new UnsupportedOperationException("Replicas are read-only; send writes to the primary");
+    }
+
+    long version() {
+        return version;
+    }
+}
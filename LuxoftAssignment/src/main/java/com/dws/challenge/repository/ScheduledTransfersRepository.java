@@ -0,0 +1,14 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+
+import java.util.Collection;
+
+public interface ScheduledTransfersRepository {
+
+  void saveAll(Collection<ScheduledTransfer> scheduledTransfers);
+
+  void deleteAll(Collection<String> scheduleIds);
+
+  Collection<ScheduledTransfer> loadAll();
+}
@@ -0,0 +1,104 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScheduledTransfersRepositoryFile class persisting pending schedules in an append-only journal.
+ * Every save or delete appends one line per schedule; the journal is replayed and compacted
+ * when the repository is created, and compacted again as lines pile up while it runs, so only
+ * live schedules survive a restart and the journal does not grow with every firing.
+ */
+@Repository
+public class ScheduledTransfersRepositoryFile implements ScheduledTransfersRepository {
+
+    private static final String SAVE = "S";
+    private static final String DELETE = "D";
+
+    private final AppendOnlyJournal<ScheduledTransfer> journal;
+
+    /**
+     * Constructs a new ScheduledTransfersRepositoryFile and compacts the existing journal.
+     * @param journalPath The location of the journal file.
+     * @param compactionLines The number of appended lines after which the journal is compacted.
+     */
+    public ScheduledTransfersRepositoryFile(@Value("${transfers.schedule.journal-path:data/scheduled-transfers.journal}") String journalPath,
+                                            @Value("${transfers.schedule.journal-compaction-lines:100000}") long compactionLines) {
+        this.journal = new AppendOnlyJournal<>(Paths.get(journalPath), "schedule", new ScheduleCodec(), compactionLines);
+    }
+
+    @Override
+    public void saveAll(Collection<ScheduledTransfer> scheduledTransfers) {
+        List<String[]> lines = new ArrayList<>(scheduledTransfers.size());
+        for (ScheduledTransfer scheduledTransfer : scheduledTransfers) {
+            lines.add(saveLine(scheduledTransfer));
+        }
+        journal.append(lines);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> scheduleIds) {
+        List<String[]> lines = new ArrayList<>(scheduleIds.size());
+        for (String scheduleId : scheduleIds) {
+            lines.add(new String[] {DELETE, AppendOnlyJournal.encode(scheduleId)});
+        }
+        journal.append(lines);
+    }
+
+    @Override
+    public Collection<ScheduledTransfer> loadAll() {
+        return journal.load().values();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    private static String[] saveLine(ScheduledTransfer scheduledTransfer) {
+        return new String[] {SAVE,
+                AppendOnlyJournal.encode(scheduledTransfer.getScheduleId()),
+                AppendOnlyJournal.encode(scheduledTransfer.getAccountFromId()),
+                AppendOnlyJournal.encode(scheduledTransfer.getAccountToId()),
+                scheduledTransfer.getAmount().toPlainString(),
+                Long.toString(scheduledTransfer.getNextExecution().toEpochMilli()),
+                Long.toString(scheduledTransfer.getIntervalSeconds())};
+    }
+
+    /**
+     * ScheduleCodec class reading schedule saves and deletes from the journal.
+     */
+    private static final class ScheduleCodec implements AppendOnlyJournal.Codec<ScheduledTransfer> {
+
+        @Override
+        public boolean replay(Map<String, ScheduledTransfer> entries, String[] fields) {
+            if (SAVE.equals(fields[0]) && fields.length == 7) {
+                ScheduledTransfer scheduledTransfer = new ScheduledTransfer(AppendOnlyJournal.decode(fields[1]),
+                        AppendOnlyJournal.decode(fields[2]), AppendOnlyJournal.decode(fields[3]), new BigDecimal(fields[4]),
+                        Instant.ofEpochMilli(Long.parseLong(fields[5])), Long.parseLong(fields[6]));
+                entries.put(scheduledTransfer.getScheduleId(), scheduledTransfer);
+                return true;
+            } else if (DELETE.equals(fields[0]) && fields.length == 2) {
+                entries.remove(AppendOnlyJournal.decode(fields[1]));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String[] snapshot(ScheduledTransfer scheduledTransfer) {
+            return saveLine(scheduledTransfer);
+        }
+    }
+}
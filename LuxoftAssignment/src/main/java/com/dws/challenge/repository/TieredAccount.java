@@ -0,0 +1,89 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+
+import java.math.BigDecimal;
+
+/**
+ * TieredAccount class representing an account held by the AccountsRepositoryTiered.
+ * While resident, the balance lives in the object like any other account. Once demoted, or when
+ * the object is only a view of a cold record, balance reads and writes go through the repository,
+ * so a reference obtained before a demotion stays correct for whoever holds the account's lock.
+ */
+final class TieredAccount extends Account {
+
+    private final AccountsRepositoryTiered repository;
+    private final int slot;
+    private volatile boolean resident;
+    private volatile long lastAccessNanos;
+
+    /**
+     * Constructs a non-resident view of an account.
+     * @param repository The repository holding the account.
+     * @param accountId The ID of the account.
+     * @param slot The slot of the account in the store, or -1 if the account is never demoted.
+     */
+    TieredAccount(AccountsRepositoryTiered repository, String accountId, int slot) {
+        super(accountId, null);
+        this.repository = repository;
+        this.slot = slot;
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        // Read the heap balance first: an unlocked reader racing a demotion may otherwise see it cleared
+        BigDecimal balance = super.getBalance();
+        return resident && balance != null ? balance : repository.loadBalance(this);
+    }
+
+    @Override
+    public void setBalance(BigDecimal balance) {
+        if (resident) {
+            super.setBalance(balance);
+        } else {
+            repository.storeBalance(this, balance);
+        }
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    boolean isResident() {
+        return resident;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    /**
+     * Moves the balance onto the heap. Must be called while holding the account's lock.
+     * @param balance The current balance of the account.
+     */
+    void promote(BigDecimal balance) {
+        super.setBalance(balance);
+        resident = true;
+        touch();
+    }
+
+    /**
+     * Releases the heap balance once it has been stored. Must be called while holding the account's lock.
+     */
+    void demote() {
+        resident = false;
+        super.setBalance(null);
+    }
+
+    /**
+     * Returns the heap balance. Must be called while holding the account's lock.
+     * @return The balance of a resident account.
+     */
+    BigDecimal residentBalance() {
+        return super.getBalance();
+    }
+}
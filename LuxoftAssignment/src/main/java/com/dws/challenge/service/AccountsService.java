@@ -1,27 +1,59 @@
 package com.dws.challenge.service;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.repository.AccountLocks;
 import com.dws.challenge.repository.AccountsRepository;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.locks.Lock;
+
 @Service
 public class AccountsService {
 
   @Getter
   private final AccountsRepository accountsRepository;
 
+  private final ConservationLedger conservationLedger;
+
+  private final AccountLocks accountLocks;
+
+  private final BalanceChangeFeed balanceChangeFeed;
+
   @Autowired
-  public AccountsService(AccountsRepository accountsRepository) {
+  public AccountsService(AccountsRepository accountsRepository, ConservationLedger conservationLedger,
+    AccountLocks accountLocks, BalanceChangeFeed balanceChangeFeed) {
     this.accountsRepository = accountsRepository;
+    this.conservationLedger = conservationLedger;
+    this.accountLocks = accountLocks;
+    this.balanceChangeFeed = balanceChangeFeed;
   }
 
   public void createAccount(Account account) {
-    this.accountsRepository.createAccount(account);
+    this.conservationLedger.recordAccountCreated(account, () -> this.accountsRepository.createAccount(account));
+
+    Lock lock = this.accountLocks.lockFor(account.getAccountId());
+    lock.lock();
+    try {
+      // Publish the stored account, not the caller's object, which some repositories only copy
+      Account stored = this.accountsRepository.peekAccount(account.getAccountId());
+      if (stored != null) {
+        this.balanceChangeFeed.publish(stored);
+      }
+    } finally {
+      lock.unlock();
+    }
   }
 
   public Account getAccount(String accountId) {
     return this.accountsRepository.getAccount(accountId);
   }
+
+  /**
+   * Removes every account and resets the conservation checksum with them.
+   */
+  public void clearAccounts() {
+    this.conservationLedger.recordAccountsCleared(this.accountsRepository::clearAccounts);
+  }
 }
@@ -0,0 +1,10 @@
+package com.dws.challenge.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncTransferService {
+    CompletableFuture<Void> submitTransfer(String requestId, String accountFromId, String accountToId, BigDecimal amount);
+
+    boolean cancelTransfer(String requestId);
+}
@@ -0,0 +1,112 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.config.AsyncTransferConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncTransferServiceImpl class responsible for running transfer sagas off the calling thread.
+ * Each saga is queued on the transfer saga executor under a request ID and its outcome is delivered
+ * through a CompletableFuture. A saga can be cancelled until an executor thread picks it up; once
+ * it has started it runs to completion, since the money may already have moved.
+ * This class implements the AsyncTransferService interface.
+ */
+@Service
+@Slf4j
+public class AsyncTransferServiceImpl implements AsyncTransferService {
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int CANCELLED = 2;
+
+    private final TransferSagaService transferSagaService;
+    private final Executor executor;
+    private final Map<String, PendingTransfer> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new AsyncTransferServiceImpl with the specified dependencies.
+     * @param transferSagaService The service running the transfer saga.
+     * @param executor The executor running sagas.
+     */
+    @Autowired
+    public AsyncTransferServiceImpl(TransferSagaService transferSagaService,
+                                    @Qualifier(AsyncTransferConfig.TRANSFER_SAGA_EXECUTOR) Executor executor) {
+        this.transferSagaService = transferSagaService;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a transfer saga.
+     * @param requestId The ID under which the saga can be cancelled.
+     * @param accountFromId The ID of the account from which the transfer is initiated.
+     * @param accountToId The ID of the account to which the transfer is made.
+     * @param amount The amount of money to transfer.
+     * @return A future completed when the saga ends. It fails with the saga's exception, with a
+     *         RejectedExecutionException if the executor's queue is full, or with a
+     *         CancellationException if the request was cancelled. Cancelling the future itself
+     *         does not stop the saga; use cancelTransfer.
+     * @throws IllegalArgumentException if a saga with the same request ID is still in flight.
+     */
+    @Override
+    public CompletableFuture<Void> submitTransfer(String requestId, String accountFromId, String accountToId,
+                                                  BigDecimal amount) {
+        PendingTransfer pending = new PendingTransfer();
+        if (inFlight.putIfAbsent(requestId, pending) != null) {
+            throw new IllegalArgumentException("Transfer request " + requestId + " is already in flight");
+        }
+        pending.future.whenComplete((result, failure) -> inFlight.remove(requestId, pending));
+
+        try {
+            executor.execute(() -> {
+                if (!pending.state.compareAndSet(PENDING, RUNNING)) {
+                    return;
+                }
+                try {
+                    transferSagaService.initiateTransferSaga(accountFromId, accountToId, amount);
+                    pending.future.complete(null);
+                } catch (Exception e) {
+                    pending.future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected transfer request {}: the transfer saga queue is full", requestId);
+            pending.future.completeExceptionally(e);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Cancels a queued transfer saga.
+     * @param requestId The ID of the request.
+     * @return true if the saga was cancelled before it started, false if it is unknown, running or done.
+     */
+    @Override
+    public boolean cancelTransfer(String requestId) {
+        PendingTransfer pending = inFlight.get(requestId);
+        if (pending == null || !pending.state.compareAndSet(PENDING, CANCELLED)) {
+            return false;
+        }
+        pending.future.cancel(false);
+        log.info("Cancelled transfer request {} before it started", requestId);
+        return true;
+    }
+
+    /**
+     * PendingTransfer class holding the state and outcome of one queued saga.
+     */
+    private static final class PendingTransfer {
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,235 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.BalanceChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * BalanceChangeFeed class broadcasting committed balance changes to in-process subscribers.
+ * Publishing never blocks: each subscriber keeps only the latest pending change per account, and
+ * a delivery thread drains it in batches. A slow subscriber therefore sees rapid updates to the
+ * same account merged into one, instead of holding up the transfer that published them.
+ * Listeners, used for replication, instead receive every change synchronously and uncoalesced.
+ */
+@Component
+@Slf4j
+public class BalanceChangeFeed {
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+    @SuppressWarnings("unchecked")
+    private static final Consumer<BalanceChangeEvent>[] NO_LISTENERS = new Consumer[0];
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService deliveryExecutor;
+    private volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+    private volatile Consumer<BalanceChangeEvent>[] listeners = NO_LISTENERS;
+
+    /**
+     * Constructs a new BalanceChangeFeed.
+     * @param deliveryThreads The number of threads delivering pending changes to subscribers.
+     */
+    public BalanceChangeFeed(@Value("${transfers.feed.delivery-threads:2}") int deliveryThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "balance-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Publishes the current balance of an account.
+     * Must be called while holding the account's lock, right after its balance changed, so that
+     * sequence numbers follow the commit order of each account.
+     * @param account The account whose balance changed.
+     * @return The sequence number of the change.
+     */
+    public long publish(Account account) {
+        BalanceChangeEvent event = new BalanceChangeEvent(sequence.incrementAndGet(), account.getAccountId(), account.getBalance());
+        for (Consumer<BalanceChangeEvent> listener : listeners) {
+            listener.accept(event);
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event.getAccountId())) {
+                subscription.offer(event);
+            }
+        }
+        return event.getSequence();
+    }
+
+    /**
+     * Returns the sequence number of the most recently published change.
+     * @return The current sequence number.
+     */
+    public long currentSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Subscribes to changes of the given accounts and account id prefixes.
+     * @param accountIds The IDs of the accounts to follow.
+     * @param prefixes The account id prefixes to follow.
+     * @param sink The consumer receiving batches of changes ordered by sequence number.
+     *             It is never called concurrently for the same subscription.
+     * @return The subscription, which must be cancelled when no longer needed.
+     */
+    public Subscription subscribe(Collection<String> accountIds, Collection<String> prefixes,
+                                  Consumer<List<BalanceChangeEvent>> sink) {
+        Subscription subscription = new Subscription(accountIds, prefixes, sink);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscription;
+            subscriptions = updated;
+        }
+        return subscription;
+    }
+
+    /**
+     * Adds a listener receiving every change, in commit order per account, without coalescing.
+     * The listener is called on the publishing thread while it holds the account's lock, so it must
+     * not block. Every change numbered after the sequence returned here reaches the listener.
+     * @param listener The listener.
+     * @return The current sequence number once the listener is added.
+     */
+    public synchronized long addListener(Consumer<BalanceChangeEvent> listener) {
+        Consumer<BalanceChangeEvent>[] current = listeners;
+        Consumer<BalanceChangeEvent>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+        // Read after the listener is visible: any change numbered later sees it when publishing
+        return sequence.get();
+    }
+
+    /**
+     * Removes a listener added with addListener.
+     * @param listener The listener.
+     */
+    public synchronized void removeListener(Consumer<BalanceChangeEvent> listener) {
+        List<Consumer<BalanceChangeEvent>> remaining = new ArrayList<>(Arrays.asList(listeners));
+        if (remaining.remove(listener)) {
+            listeners = remaining.toArray(NO_LISTENERS);
+        }
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        List<Subscription> remaining = new ArrayList<>(Arrays.asList(current));
+        if (remaining.remove(subscription)) {
+            subscriptions = remaining.toArray(NO_SUBSCRIPTIONS);
+        }
+    }
+
+    /**
+     * Subscription class holding one subscriber's filter and its coalesced pending changes.
+     */
+    public final class Subscription {
+
+        private final Set<String> accountIds;
+        private final String[] prefixes;
+        private final Consumer<List<BalanceChangeEvent>> sink;
+        private final ConcurrentHashMap<String, BalanceChangeEvent> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final LongAdder coalesced = new LongAdder();
+        private volatile boolean cancelled;
+
+        private Subscription(Collection<String> accountIds, Collection<String> prefixes,
+                             Consumer<List<BalanceChangeEvent>> sink) {
+            this.accountIds = new HashSet<>(accountIds);
+            this.prefixes = prefixes.toArray(new String[0]);
+            this.sink = sink;
+        }
+
+        /**
+         * Stops delivery to this subscription and discards its pending changes.
+         */
+        public void cancel() {
+            cancelled = true;
+            unsubscribe(this);
+            pending.clear();
+        }
+
+        /**
+         * Returns the number of changes merged into a later change of the same account.
+         * @return The number of coalesced changes.
+         */
+        public long getCoalescedCount() {
+            return coalesced.sum();
+        }
+
+        private boolean matches(String accountId) {
+            if (accountIds.isEmpty() && prefixes.length == 0) {
+                return true;
+            }
+            if (accountIds.contains(accountId)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (accountId.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void offer(BalanceChangeEvent event) {
+            if (pending.put(event.getAccountId(), event) != null) {
+                coalesced.increment();
+            }
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (!cancelled) {
+                List<BalanceChangeEvent> batch = new ArrayList<>();
+                for (String accountId : pending.keySet()) {
+                    BalanceChangeEvent event = pending.remove(accountId);
+                    if (event != null) {
+                        batch.add(event);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    draining.set(false);
+                    // A change offered after the scan above saw draining still set; pick it up here
+                    if (pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.sort(Comparator.comparingLong(BalanceChangeEvent::getSequence));
+                try {
+                    sink.accept(batch);
+                } catch (RuntimeException e) {
+                    log.warn("Balance change subscriber failed, cancelling its subscription: {}", e.getMessage());
+                    cancel();
+                }
+            }
+        }
+    }
+}
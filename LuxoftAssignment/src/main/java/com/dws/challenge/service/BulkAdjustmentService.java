@@ -0,0 +1,19 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.BulkAdjustmentType;
+import com.dws.challenge.domain.BulkJobStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface BulkAdjustmentService {
+    BulkJobStatus startJob(BulkAdjustmentType type, BigDecimal value, String accountIdPrefix);
+
+    List<BulkJobStatus> getJobs();
+
+    BulkJobStatus getJob(String jobId);
+
+    BulkJobStatus pauseJob(String jobId);
+
+    BulkJobStatus resumeJob(String jobId);
+}
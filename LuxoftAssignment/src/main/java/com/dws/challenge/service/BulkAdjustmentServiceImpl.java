@@ -0,0 +1,519 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.BulkAdjustmentType;
+import com.dws.challenge.domain.BulkJob;
+import com.dws.challenge.domain.BulkJobState;
+import com.dws.challenge.domain.BulkJobStatus;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.BulkJobsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * BulkAdjustmentServiceImpl class responsible for applying fees, interest and corrections to many accounts.
+ * A job takes a sorted snapshot of the account ids it covers and splits it into chunks that a
+ * fork-join pool processes in parallel. Each chunk locks its accounts in small batches, in lock
+ * stripe order like any transfer, and sizes the batches so that no batch holds its locks longer
+ * than the configured ceiling; a live transfer therefore never waits longer than that for a job.
+ * Every batch is checkpointed, even one that fails part way, so a paused, failed or interrupted job
+ * resumes where each chunk left off without adjusting any account twice.
+ * This class implements the BulkAdjustmentService interface.
+ */
+@Service
+@Slf4j
+public class BulkAdjustmentServiceImpl implements BulkAdjustmentService {
+
+    private final AccountsRepository accountsRepository;
+    private final AccountLocks accountLocks;
+    private final ConservationLedger conservationLedger;
+    private final BalanceChangeFeed balanceChangeFeed;
+    private final FundHoldRegistry fundHoldRegistry;
+    private final BulkJobsRepository bulkJobsRepository;
+    private final int chunks;
+    private final int initialBatchSize;
+    private final int maxBatchSize;
+    private final long lockHoldCeilingNanos;
+    private final ForkJoinPool pool;
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+    // The current or most recent run of each job
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new BulkAdjustmentServiceImpl and loads the persisted jobs.
+     * Jobs that were running when the service stopped are reported as paused until resumed.
+     * @param accountsRepository The repository holding the accounts to adjust.
+     * @param accountLocks The locks guarding account balances.
+     * @param conservationLedger The ledger accounting for the money jobs add or remove.
+     * @param balanceChangeFeed The feed receiving committed balance changes.
+     * @param fundHoldRegistry The registry of funds reserved by open holds, which fees cannot take.
+     * @param bulkJobsRepository The repository persisting jobs and their checkpoints.
+     * @param parallelism The number of chunks processed in parallel, or zero for one per processor.
+     * @param chunks The number of chunks a job is split into.
+     * @param initialBatchSize The number of accounts locked together in the first batch of a job.
+     * @param maxBatchSize The largest number of accounts locked together.
+     * @param lockHoldCeilingMicros The longest time a batch may hold its account locks.
+     */
+    @Autowired
+    public BulkAdjustmentServiceImpl(AccountsRepository accountsRepository, AccountLocks accountLocks,
+                                     ConservationLedger conservationLedger, BalanceChangeFeed balanceChangeFeed,
+                                     FundHoldRegistry fundHoldRegistry, BulkJobsRepository bulkJobsRepository,
+                                     @Value("${bulk.parallelism:0}") int parallelism,
+                                     @Value("${bulk.chunks:64}") int chunks,
+                                     @Value("${bulk.initial-batch-size:64}") int initialBatchSize,
+                                     @Value("${bulk.max-batch-size:4096}") int maxBatchSize,
+                                     @Value("${bulk.lock-hold-ceiling-micros:200}") long lockHoldCeilingMicros) {
+        this.accountsRepository = accountsRepository;
+        this.accountLocks = accountLocks;
+        this.conservationLedger = conservationLedger;
+        this.balanceChangeFeed = balanceChangeFeed;
+        this.fundHoldRegistry = fundHoldRegistry;
+        this.bulkJobsRepository = bulkJobsRepository;
+        this.chunks = chunks;
+        this.initialBatchSize = initialBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.lockHoldCeilingNanos = TimeUnit.MICROSECONDS.toNanos(lockHoldCeilingMicros);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                forkJoinPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                    thread.setName("bulk-adjustment-" + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+
+        for (BulkJob job : bulkJobsRepository.loadAll()) {
+            if (job.getState() == BulkJobState.RUNNING) {
+                job.setState(BulkJobState.PAUSED);
+                bulkJobsRepository.saveJob(job);
+            }
+            jobs.put(job.getJobId(), job);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (Run run : runs.values()) {
+            run.pauseRequested = true;
+        }
+        pool.shutdown();
+        // Let running batches finish and record their checkpoints
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts a bulk adjustment of every account, or of the accounts whose id has the given prefix.
+     * @param type The kind of adjustment.
+     * @param value The fee amount, the interest rate in percent, or the signed correction amount.
+     * @param accountIdPrefix The prefix of the account ids to adjust, or null for all accounts.
+     * @return The status of the started job.
+     * @throws IllegalArgumentException if the job details are invalid.
+     */
+    @Override
+    public BulkJobStatus startJob(BulkAdjustmentType type, BigDecimal value, String accountIdPrefix) {
+        if (type == null || value == null) {
+            throw new IllegalArgumentException("Invalid bulk job details provided");
+        }
+        if (type != BulkAdjustmentType.CORRECTION && value.signum() <= 0) {
+            throw new IllegalArgumentException("The fee or interest rate must be a positive number");
+        }
+        if (type == BulkAdjustmentType.CORRECTION && value.signum() == 0) {
+            throw new IllegalArgumentException("The correction must not be zero");
+        }
+        String prefix = accountIdPrefix == null || accountIdPrefix.isEmpty() ? null : accountIdPrefix;
+
+        String[] accountIds = snapshotAccountIds(prefix);
+        int chunkCount = Math.min(chunks, accountIds.length);
+        List<String> chunkStarts = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunkStarts.add(accountIds[(int) ((long) i * accountIds.length / chunkCount)]);
+        }
+        BulkJob job = new BulkJob(UUID.randomUUID().toString(), type, value, prefix, Instant.now(), chunkStarts);
+        bulkJobsRepository.saveJob(job);
+        jobs.put(job.getJobId(), job);
+        log.info("Started bulk {} job {} over {} accounts in {} chunks", type, job.getJobId(), accountIds.length, chunkCount);
+        synchronized (job) {
+            start(job, accountIds);
+            return status(job);
+        }
+    }
+
+    @Override
+    public List<BulkJobStatus> getJobs() {
+        List<BulkJob> sorted = new ArrayList<>(jobs.values());
+        sorted.sort(Comparator.comparing(BulkJob::getCreatedAt));
+        List<BulkJobStatus> statuses = new ArrayList<>(sorted.size());
+        for (BulkJob job : sorted) {
+            statuses.add(status(job));
+        }
+        return statuses;
+    }
+
+    @Override
+    public BulkJobStatus getJob(String jobId) {
+        BulkJob job = jobs.get(jobId);
+        return job == null ? null : status(job);
+    }
+
+    /**
+     * Asks a running job to stop after its current batches. The job is reported as paused once they end.
+     * @param jobId The ID of the job.
+     * @return The status of the job, or null if it does not exist.
+     * @throws IllegalArgumentException if the job is not running.
+     */
+    @Override
+    public BulkJobStatus pauseJob(String jobId) {
+        BulkJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        Run run = runs.get(jobId);
+        if (run == null || !run.active) {
+            throw new IllegalArgumentException("Bulk job " + jobId + " is not running");
+        }
+        run.pauseRequested = true;
+        log.info("Pausing bulk job {}", jobId);
+        return status(job);
+    }
+
+    /**
+     * Resumes a paused or failed job from its checkpoints.
+     * @param jobId The ID of the job.
+     * @return The status of the job, or null if it does not exist.
+     * @throws IllegalArgumentException if the job is running or has completed.
+     */
+    @Override
+    public BulkJobStatus resumeJob(String jobId) {
+        BulkJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        String[] accountIds = snapshotAccountIds(job.getAccountIdPrefix());
+        synchronized (job) {
+            Run run = runs.get(jobId);
+            if ((run != null && run.active) || job.getState() == BulkJobState.COMPLETED) {
+                throw new IllegalArgumentException("Bulk job " + jobId + " is " + job.getState().name().toLowerCase());
+            }
+            job.setState(BulkJobState.RUNNING);
+            bulkJobsRepository.saveJob(job);
+            log.info("Resuming bulk job {} with {} of {} chunks done", jobId, job.getChunksDone(), job.getChunkStarts().size());
+            start(job, accountIds);
+            return status(job);
+        }
+    }
+
+    private void start(BulkJob job, String[] accountIds) {
+        Run run = new Run(job, accountIds, initialBatchSize);
+        runs.put(job.getJobId(), run);
+        pool.execute(() -> {
+            try {
+                new ChunkTask(run, 0, job.getChunkStarts().size()).invoke();
+                finish(run, run.failure);
+            } catch (RuntimeException e) {
+                finish(run, e);
+            }
+        });
+    }
+
+    private void finish(Run run, RuntimeException failure) {
+        BulkJob job = run.job;
+        synchronized (job) {
+            if (failure != null) {
+                job.setState(BulkJobState.FAILED);
+                log.error("Bulk job {} failed", job.getJobId(), failure);
+            } else if (job.getChunksDone() == job.getChunkStarts().size()) {
+                job.setState(BulkJobState.COMPLETED);
+                job.setCompletedAt(Instant.now());
+                log.info("Bulk job {} completed - {} accounts adjusted, {} skipped, net amount {}", job.getJobId(),
+                        job.getAccountsAdjusted(), job.getAccountsSkipped(), job.getNetAmount());
+            } else {
+                job.setState(BulkJobState.PAUSED);
+                log.info("Bulk job {} paused with {} of {} chunks done", job.getJobId(), job.getChunksDone(),
+                        job.getChunkStarts().size());
+            }
+            bulkJobsRepository.saveJob(job);
+            run.finishedNanos = System.nanoTime();
+            run.active = false;
+        }
+    }
+
+    private void processChunk(Run run, int chunk) {
+        BulkJob job = run.job;
+        String[] accountIds = run.accountIds;
+        List<String> chunkStarts = job.getChunkStarts();
+        String cursor;
+        synchronized (job) {
+            if (job.getChunksCompleted()[chunk]) {
+                return;
+            }
+            cursor = job.getChunkCursors()[chunk];
+        }
+        int from = cursor == null ? lowerBound(accountIds, chunkStarts.get(chunk)) : upperBound(accountIds, cursor);
+        int end = chunk + 1 < chunkStarts.size() ? lowerBound(accountIds, chunkStarts.get(chunk + 1)) : accountIds.length;
+        if (from >= end) {
+            checkpoint(run, chunk, cursor, true, null);
+            return;
+        }
+
+        while (from < end && !run.pauseRequested) {
+            int size = Math.min(run.batchSize, end - from);
+            Batch batch = new Batch();
+            try {
+                applyBatch(job.getType(), job.getValue(), accountIds, from, size, batch);
+            } catch (RuntimeException e) {
+                // Stop the other chunks at their next batch; the job fails once they have all checkpointed
+                if (run.failure == null) {
+                    run.failure = e;
+                }
+                run.pauseRequested = true;
+                if (batch.processed > 0) {
+                    // Keep the accounts already adjusted, so resuming the failed job does not adjust them again
+                    checkpoint(run, chunk, accountIds[from + batch.processed - 1], false, batch);
+                }
+                return;
+            }
+            from += size;
+            adaptBatchSize(run, batch.holdNanos, size);
+            checkpoint(run, chunk, accountIds[from - 1], from == end, batch);
+            // Let transfers queued on these stripes in before locking the next batch
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Applies the adjustment to one batch of accounts, holding all of their locks at once.
+     * If it fails part way, the batch holds the outcome for the accounts processed before the failure.
+     */
+    private void applyBatch(BulkAdjustmentType type, BigDecimal value, String[] accountIds, int from, int size,
+                            Batch batch) {
+        Account[] accounts = new Account[size];
+        int[] positions = new int[size];
+        int[] stripes = new int[size];
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            // Peek so a bulk pass does not pull every account into faster storage
+            Account account = accountsRepository.peekAccount(accountIds[from + i]);
+            if (account != null) {
+                accounts[found] = account;
+                positions[found] = i;
+                stripes[found] = accountLocks.stripeOf(account.getAccountId());
+                found++;
+            }
+        }
+        Arrays.sort(stripes, 0, found);
+        Lock[] locks = new Lock[found];
+        int lockCount = 0;
+        for (int i = 0; i < found; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                locks[lockCount++] = accountLocks.lockAt(stripes[i]);
+            }
+        }
+
+        int accountCount = found;
+        int stripeCount = lockCount;
+        // The ledger's epoch guard is taken before the account locks, in the same order as account creation
+        conservationLedger.recordAdjustments(adjustments -> {
+            int locked = 0;
+            long lockedAt = System.nanoTime();
+            try {
+                while (locked < stripeCount) {
+                    locks[locked].lock();
+                    locked++;
+                }
+                for (int i = 0; i < accountCount; i++) {
+                    // Skipped and missing accounts before this one are processed
+                    batch.processed = positions[i];
+                    BigDecimal delta = deltaFor(type, value, accounts[i].getBalance(),
+                            fundHoldRegistry.heldAmount(accounts[i].getAccountId()));
+                    if (delta == null) {
+                        continue;
+                    }
+                    adjustments.apply(accounts[i], delta);
+                    batch.adjusted++;
+                    batch.processed++;
+                    balanceChangeFeed.publish(accounts[i]);
+                }
+                batch.processed = size;
+            } finally {
+                for (int i = locked - 1; i >= 0; i--) {
+                    locks[i].unlock();
+                }
+                batch.skipped = batch.processed - batch.adjusted;
+                batch.holdNanos = System.nanoTime() - lockedAt;
+                batch.net = adjustments.getNet();
+            }
+        });
+    }
+
+    /**
+     * Computes the change an adjustment makes to a balance.
+     * Fees and negative corrections may only take funds not reserved by holds, so a later capture
+     * of the holds is still covered; interest is paid on the whole balance.
+     * @return The amount to add, or null if the account is skipped.
+     */
+    static BigDecimal deltaFor(BulkAdjustmentType type, BigDecimal value, BigDecimal balance, BigDecimal heldAmount) {
+        switch (type) {
+            case FEE:
+                return balance.subtract(heldAmount).compareTo(value) < 0 ? null : value.negate();
+            case INTEREST:
+                if (balance.signum() <= 0) {
+                    return null;
+                }
+                BigDecimal interest = balance.multiply(value).movePointLeft(2)
+                        .setScale(Math.max(balance.scale(), 2), RoundingMode.HALF_EVEN);
+                return interest.signum() == 0 ? null : interest;
+            case CORRECTION:
+                BigDecimal base = value.signum() < 0 ? balance.subtract(heldAmount) : balance;
+                return base.add(value).signum() < 0 ? null : value;
+            default:
+                throw new IllegalArgumentException("Unknown adjustment type " + type);
+        }
+    }
+
+    /**
+     * Halves the batch when it held its locks longer than the ceiling, and grows it gently while
+     * batches stay well below it. Chunks of a job share the size; racing updates only blur it.
+     */
+    private void adaptBatchSize(Run run, long holdNanos, int size) {
+        int current = run.batchSize;
+        if (holdNanos > lockHoldCeilingNanos) {
+            run.batchSize = Math.max(1, current / 2);
+        } else if (size == current && holdNanos < lockHoldCeilingNanos / 2) {
+            run.batchSize = Math.min(maxBatchSize, current + Math.max(1, current / 4));
+        }
+    }
+
+    private void checkpoint(Run run, int chunk, String cursor, boolean completed, Batch batch) {
+        BulkJob job = run.job;
+        synchronized (job) {
+            job.getChunkCursors()[chunk] = cursor;
+            job.getChunksCompleted()[chunk] = completed;
+            if (batch != null) {
+                job.setAccountsProcessed(job.getAccountsProcessed() + batch.processed);
+                job.setAccountsAdjusted(job.getAccountsAdjusted() + batch.adjusted);
+                job.setAccountsSkipped(job.getAccountsSkipped() + batch.skipped);
+                job.setNetAmount(job.getNetAmount().add(batch.net));
+                run.processed.add(batch.processed);
+            }
+            bulkJobsRepository.saveCheckpoint(job, chunk);
+        }
+    }
+
+    private BulkJobStatus status(BulkJob job) {
+        synchronized (job) {
+            Run run = runs.get(job.getJobId());
+            double accountsPerSecond = 0;
+            int batchSize = 0;
+            if (run != null) {
+                long elapsedNanos = (run.active ? System.nanoTime() : run.finishedNanos) - run.startedNanos;
+                accountsPerSecond = elapsedNanos > 0 ? run.processed.sum() * 1e9 / elapsedNanos : 0;
+                batchSize = run.batchSize;
+            }
+            return new BulkJobStatus(job.getJobId(), job.getType(), job.getValue(), job.getAccountIdPrefix(),
+                    job.getState(), job.getCreatedAt(), job.getCompletedAt(), job.getChunkStarts().size(),
+                    job.getChunksDone(), job.getAccountsProcessed(), job.getAccountsAdjusted(), job.getAccountsSkipped(),
+                    job.getNetAmount(), accountsPerSecond, batchSize);
+        }
+    }
+
+    private String[] snapshotAccountIds(String prefix) {
+        List<String> accountIds = new ArrayList<>();
+        for (String accountId : accountsRepository.getAccountIds()) {
+            if (prefix == null || accountId.startsWith(prefix)) {
+                accountIds.add(accountId);
+            }
+        }
+        String[] sorted = accountIds.toArray(new String[0]);
+        Arrays.parallelSort(sorted);
+        return sorted;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    private static int upperBound(String[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * Run class holding the state of one run of a job, from its start or resumption until it stops.
+     */
+    private static final class Run {
+
+        private final BulkJob job;
+        private final String[] accountIds;
+        private final long startedNanos = System.nanoTime();
+        private final LongAdder processed = new LongAdder();
+        private volatile int batchSize;
+        private volatile boolean pauseRequested;
+        private volatile RuntimeException failure;
+        private volatile boolean active = true;
+        private volatile long finishedNanos;
+
+        private Run(BulkJob job, String[] accountIds, int batchSize) {
+            this.job = job;
+            this.accountIds = accountIds;
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Batch class holding the outcome of one batch.
+     */
+    private static final class Batch {
+
+        private int processed;
+        private int adjusted;
+        private int skipped;
+        private BigDecimal net = BigDecimal.ZERO;
+        private long holdNanos;
+    }
+
+    /**
+     * ChunkTask class splitting a range of chunks until each task processes a single chunk.
+     */
+    private final class ChunkTask extends RecursiveAction {
+
+        private final Run run;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(Run run, int from, int to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(run, from, middle), new ChunkTask(run, middle, to));
+            } else if (to > from) {
+                processChunk(run, from);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AuditReport;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * ConservationAuditor class responsible for checking that no money is created or destroyed.
+ * Each pass opens an epoch on the ConservationLedger and scans the accounts one at a time,
+ * holding only the scanned account's lock, so transfers keep running while the audit proceeds.
+ * The scanned snapshot is compared against the ledger's checksum captured when the epoch began.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class ConservationAuditor {
+
+    private final AccountsRepository accountsRepository;
+    private final AccountLocks accountLocks;
+    private final ConservationLedger conservationLedger;
+    private final long intervalSeconds;
+    private final int batchSize;
+    private final Counter auditRuns;
+    private final Counter auditFailures;
+    private final Timer auditDuration;
+    private volatile AuditReport lastReport;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a new ConservationAuditor with the specified dependencies.
+     * @param accountsRepository The repository holding the accounts to scan.
+     * @param accountLocks The locks guarding account balances.
+     * @param conservationLedger The ledger holding the running checksum.
+     * @param meterRegistry The registry receiving audit metrics.
+     * @param intervalSeconds The delay between background audit passes.
+     * @param batchSize The number of accounts scanned before yielding to other threads.
+     */
+    @Autowired
+    public ConservationAuditor(AccountsRepository accountsRepository, AccountLocks accountLocks,
+                               ConservationLedger conservationLedger, MeterRegistry meterRegistry,
+                               @Value("${transfers.audit.interval-seconds:60}") long intervalSeconds,
+                               @Value("${transfers.audit.batch-size:1000}") int batchSize) {
+        this.accountsRepository = accountsRepository;
+        this.accountLocks = accountLocks;
+        this.conservationLedger = conservationLedger;
+        this.intervalSeconds = intervalSeconds;
+        this.batchSize = batchSize;
+        this.auditRuns = meterRegistry.counter("transfers.audit.runs");
+        this.auditFailures = meterRegistry.counter("transfers.audit.failures");
+        this.auditDuration = meterRegistry.timer("transfers.audit.duration");
+        Gauge.builder("transfers.audit.discrepancy", this,
+                auditor -> auditor.lastReport == null ? 0 : auditor.lastReport.getDiscrepancy().doubleValue())
+                .register(meterRegistry);
+        Gauge.builder("transfers.audit.accounts.scanned", this,
+                auditor -> auditor.lastReport == null ? 0 : auditor.lastReport.getAccountsScanned())
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "conservation-auditor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                audit();
+            } catch (RuntimeException e) {
+                log.error("Conservation audit failed", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one audit pass.
+     * @return The report of the pass.
+     */
+    public synchronized AuditReport audit() {
+        Instant startedAt = Instant.now();
+        ConservationLedger.Epoch epoch;
+        BigDecimal scannedTotal;
+        long accountsScanned;
+        do {
+            epoch = conservationLedger.beginEpoch();
+            scannedTotal = BigDecimal.ZERO;
+            accountsScanned = 0;
+            try {
+                for (String accountId : accountsRepository.getAccountIds()) {
+                    if (epoch.isCreatedDuringEpoch(accountId)) {
+                        continue;
+                    }
+                    Lock lock = accountLocks.lockFor(accountId);
+                    lock.lock();
+                    try {
+                        Account account = accountsRepository.peekAccount(accountId);
+                        if (account == null) {
+                            continue;
+                        }
+                        scannedTotal = scannedTotal.add(epoch.balanceAtStart(account));
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (++accountsScanned % batchSize == 0) {
+                        Thread.yield();
+                    }
+                }
+            } finally {
+                conservationLedger.endEpoch();
+            }
+            // Accounts cleared during the scan leave nothing to compare the snapshot with; scan again
+        } while (epoch.isCleared());
+
+        AuditReport report = new AuditReport(epoch.getNumber(), startedAt, Instant.now(), accountsScanned,
+                epoch.getExpectedTotal(), scannedTotal);
+        lastReport = report;
+        auditRuns.increment();
+        auditDuration.record(Duration.between(report.getStartedAt(), report.getCompletedAt()));
+        if (report.isConsistent()) {
+            log.info("Conservation audit {} passed - {} accounts, total {}", report.getEpoch(), accountsScanned, scannedTotal);
+        } else {
+            auditFailures.increment();
+            log.warn("Conservation audit {} found a discrepancy of {} - expected {}, scanned {}", report.getEpoch(),
+                    report.getDiscrepancy(), report.getExpectedTotal(), scannedTotal);
+        }
+        return report;
+    }
+
+    public AuditReport getLastReport() {
+        return lastReport;
+    }
+}
@@ -0,0 +1,228 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * ConservationLedger class keeping a running checksum of all money in the system.
+ * The checksum is the total balance, which only changes when money enters or leaves the system;
+ * the number of completed transfers is counted alongside but not audited. While an audit epoch is
+ * open, the first change to each account
+ * records the account's balance as of the start of the epoch, so an auditor can rebuild a
+ * consistent snapshot by scanning one account at a time while transfers carry on.
+ */
+@Component
+public class ConservationLedger {
+
+    private final ReadWriteLock epochLock = new ReentrantReadWriteLock();
+    private final AtomicReference<BigDecimal> totalBalance = new AtomicReference<>(BigDecimal.ZERO);
+    private final LongAdder transferCount = new LongAdder();
+    private volatile Epoch epoch;
+    private long epochNumber;
+
+    /**
+     * Creates an account and adds its opening balance to the checksum as one step with respect to
+     * audit epochs, so an account is either part of an epoch's snapshot or skipped by it.
+     * @param account The account being created.
+     * @param creation The action storing the account.
+     */
+    public void recordAccountCreated(Account account, Runnable creation) {
+        epochLock.readLock().lock();
+        try {
+            Epoch current = epoch;
+            boolean addedToEpoch = current != null && current.createdDuringEpoch.add(account.getAccountId());
+            try {
+                creation.run();
+            } catch (RuntimeException e) {
+                if (addedToEpoch) {
+                    current.createdDuringEpoch.remove(account.getAccountId());
+                }
+                throw e;
+            }
+            totalBalance.accumulateAndGet(account.getBalance(), BigDecimal::add);
+        } finally {
+            epochLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every account and resets the checksum to zero as one step with respect to audit epochs.
+     * An epoch open meanwhile is marked cleared, since its snapshot no longer matches any checksum.
+     * @param clearing The action removing the accounts.
+     */
+    public void recordAccountsCleared(Runnable clearing) {
+        epochLock.writeLock().lock();
+        try {
+            Epoch current = epoch;
+            if (current != null) {
+                current.cleared = true;
+            }
+            clearing.run();
+            totalBalance.set(BigDecimal.ZERO);
+        } finally {
+            epochLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a batch of adjustments that add money to or remove it from the system, such as fees or
+     * interest, as one step with respect to audit epochs. The batch must take the account locks it
+     * needs itself, after this method was entered, and apply each change through the given
+     * Adjustments while holding the account's lock.
+     * @param batch The batch of adjustments.
+     */
+    public void recordAdjustments(Consumer<Adjustments> batch) {
+        Adjustments adjustments = new Adjustments();
+        epochLock.readLock().lock();
+        try {
+            batch.accept(adjustments);
+        } finally {
+            totalBalance.accumulateAndGet(adjustments.net, BigDecimal::add);
+            epochLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the balance of an account before it is changed.
+     * Must be called while holding the account's lock.
+     * @param account The account whose balance is about to change.
+     */
+    public void beforeBalanceChange(Account account) {
+        Epoch current = epoch;
+        if (current != null) {
+            current.balancesAtStart.putIfAbsent(account.getAccountId(), account.getBalance());
+        }
+    }
+
+    /**
+     * Records the balances of all accounts changed by one transfer before they are changed.
+     * The epoch is read once, so an epoch opened part way through sees either every account of the
+     * transfer with its new balance or none of them, never the debit without the credit.
+     * Must be called while holding the locks of all the accounts.
+     * @param accounts The accounts whose balances are about to change.
+     */
+    public void beforeBalanceChanges(Account... accounts) {
+        Epoch current = epoch;
+        if (current != null) {
+            for (Account account : accounts) {
+                current.balancesAtStart.putIfAbsent(account.getAccountId(), account.getBalance());
+            }
+        }
+    }
+
+    /**
+     * Counts a completed transfer.
+     */
+    public void recordTransfer() {
+        transferCount.increment();
+    }
+
+    public BigDecimal getTotalBalance() {
+        return totalBalance.get();
+    }
+
+    public long getTransferCount() {
+        return transferCount.sum();
+    }
+
+    /**
+     * Opens an audit epoch, capturing the checksum at this instant.
+     * Only account creation waits for this; transfers are never blocked.
+     * @return The opened epoch.
+     */
+    Epoch beginEpoch() {
+        epochLock.writeLock().lock();
+        try {
+            Epoch opened = new Epoch(++epochNumber, totalBalance.get());
+            epoch = opened;
+            return opened;
+        } finally {
+            epochLock.writeLock().unlock();
+        }
+    }
+
+    void endEpoch() {
+        epoch = null;
+    }
+
+    /**
+     * Epoch class holding the state of one open audit epoch.
+     */
+    static final class Epoch {
+
+        private final long number;
+        private final BigDecimal expectedTotal;
+        private final Map<String, BigDecimal> balancesAtStart = new ConcurrentHashMap<>();
+        private final Set<String> createdDuringEpoch = ConcurrentHashMap.newKeySet();
+        private volatile boolean cleared;
+
+        private Epoch(long number, BigDecimal expectedTotal) {
+            this.number = number;
+            this.expectedTotal = expectedTotal;
+        }
+
+        long getNumber() {
+            return number;
+        }
+
+        BigDecimal getExpectedTotal() {
+            return expectedTotal;
+        }
+
+        boolean isCleared() {
+            return cleared;
+        }
+
+        boolean isCreatedDuringEpoch(String accountId) {
+            return createdDuringEpoch.contains(accountId);
+        }
+
+        /**
+         * Returns the balance the account had when the epoch began.
+         * Must be called while holding the account's lock.
+         * @param account The account to read.
+         * @return The balance as of the start of the epoch.
+         */
+        BigDecimal balanceAtStart(Account account) {
+            BigDecimal recorded = balancesAtStart.get(account.getAccountId());
+            return recorded != null ? recorded : account.getBalance();
+        }
+    }
+
+    /**
+     * Adjustments class applying the changes of one batch and summing the money they add.
+     */
+    public final class Adjustments {
+
+        private BigDecimal net = BigDecimal.ZERO;
+
+        private Adjustments() {
+        }
+
+        /**
+         * Adds a signed amount to an account's balance.
+         * Must be called while holding the account's lock.
+         * @param account The account to adjust.
+         * @param delta The amount to add; negative to remove money.
+         */
+        public void apply(Account account, BigDecimal delta) {
+            beforeBalanceChange(account);
+            account.setBalance(account.getBalance().add(delta));
+            net = net.add(delta);
+        }
+
+        public BigDecimal getNet() {
+            return net;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.ContentionReport;
+import com.dws.challenge.domain.HotAccount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ContentionProfiler class tracking which accounts transfers hit most and how long they wait for
+ * and hold the account locks. Only one transfer in sampleRate is measured. Each measurement goes
+ * into the current time window: a count-min sketch estimates per-account counts and lock times in
+ * fixed memory, and a small heap keeps the accounts with the highest estimates. A fixed ring of
+ * windows gives the recent history; old windows are replaced as time moves on.
+ * Unsampled transfers only pay for one random number. Recording never throws, since the transfer
+ * it measures has already committed.
+ */
+@Service
+@Slf4j
+public class ContentionProfiler {
+
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+            0xD6E8FEB86659FD93L};
+    private static final int DEPTH = SEEDS.length;
+
+    private final int sampleRate;
+    private final long windowNanos;
+    private final int topK;
+    private final int width;
+    private final long originNanos = System.nanoTime();
+    private final AtomicReferenceArray<Window> windows;
+
+    /**
+     * Constructs a new ContentionProfiler.
+     * @param sampleRate One transfer in this many is measured; zero disables profiling.
+     * @param windowSeconds The length of one time window.
+     * @param windowCount The number of windows kept.
+     * @param topK The number of hottest accounts tracked per window and reported.
+     * @param sketchWidth The number of counters per sketch row, rounded up to a power of two.
+     * @throws IllegalArgumentException if the window length, window count, top-k or sketch width is not positive.
+     */
+    @Autowired
+    public ContentionProfiler(@Value("${transfers.profiler.sample-rate:64}") int sampleRate,
+                              @Value("${transfers.profiler.window-seconds:10}") long windowSeconds,
+                              @Value("${transfers.profiler.windows:6}") int windowCount,
+                              @Value("${transfers.profiler.top-k:20}") int topK,
+                              @Value("${transfers.profiler.sketch-width:2048}") int sketchWidth) {
+        if (windowSeconds <= 0 || windowCount <= 0 || topK <= 0 || sketchWidth <= 0) {
+            throw new IllegalArgumentException("Invalid contention profiler settings: window-seconds " + windowSeconds
+                    + ", windows " + windowCount + ", top-k " + topK + ", sketch-width " + sketchWidth);
+        }
+        this.sampleRate = Math.max(0, sampleRate);
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.topK = topK;
+        this.width = Integer.highestOneBit(Math.max(1, sketchWidth - 1)) << 1;
+        this.windows = new AtomicReferenceArray<>(windowCount);
+    }
+
+    /**
+     * Returns a profiler that never samples.
+     * @return A disabled profiler.
+     */
+    public static ContentionProfiler disabled() {
+        return new ContentionProfiler(0, 10, 1, 1, 1);
+    }
+
+    /**
+     * Decides whether the calling transfer is measured.
+     * @return true for about one call in sampleRate.
+     */
+    public boolean shouldSample() {
+        return sampleRate > 0 && (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0);
+    }
+
+    /**
+     * Records a sampled transfer against both of its accounts. A failure is logged and the sample
+     * dropped, so a committed transfer is never reported as failed.
+     * @param accountFromId The ID of the debited account.
+     * @param accountToId The ID of the credited account.
+     * @param lockWaitNanos The time spent acquiring the account locks.
+     * @param lockHoldNanos The time the account locks were held.
+     */
+    public void record(String accountFromId, String accountToId, long lockWaitNanos, long lockHoldNanos) {
+        try {
+            record(accountFromId, accountToId, lockWaitNanos, lockHoldNanos, System.nanoTime());
+        } catch (RuntimeException e) {
+            log.warn("Dropped contention sample for accounts {} and {}", accountFromId, accountToId, e);
+        }
+    }
+
+    void record(String accountFromId, String accountToId, long lockWaitNanos, long lockHoldNanos, long nowNanos) {
+        Window window = windowAt(nowNanos);
+        window.samples.increment();
+        window.lockWaitNanos.add(lockWaitNanos);
+        window.lockHoldNanos.add(lockHoldNanos);
+        window.record(accountFromId, lockWaitNanos, lockHoldNanos);
+        if (!accountFromId.equals(accountToId)) {
+            window.record(accountToId, lockWaitNanos, lockHoldNanos);
+        }
+    }
+
+    /**
+     * Reports the hottest accounts over the most recent windows.
+     * @param windowCount The number of windows to cover, including the current one; clamped to those kept.
+     * @return The report.
+     */
+    public ContentionReport report(int windowCount) {
+        return report(windowCount, System.nanoTime());
+    }
+
+    ContentionReport report(int windowCount, long nowNanos) {
+        int covered = Math.max(1, Math.min(windowCount, windows.length()));
+        long currentEpoch = epochOf(nowNanos);
+        List<Window> live = new ArrayList<>(covered);
+        for (int i = 0; i < windows.length(); i++) {
+            Window window = windows.get(i);
+            if (window != null && window.epoch <= currentEpoch && window.epoch > currentEpoch - covered) {
+                live.add(window);
+            }
+        }
+
+        long samples = 0;
+        long lockWaitNanos = 0;
+        long lockHoldNanos = 0;
+        Set<String> candidates = new HashSet<>();
+        for (Window window : live) {
+            samples += window.samples.sum();
+            lockWaitNanos += window.lockWaitNanos.sum();
+            lockHoldNanos += window.lockHoldNanos.sum();
+            candidates.addAll(window.candidates());
+        }
+
+        List<HotAccount> hotAccounts = new ArrayList<>(candidates.size());
+        for (String accountId : candidates) {
+            long count = 0;
+            long waitNanos = 0;
+            long holdNanos = 0;
+            for (Window window : live) {
+                long[] estimate = window.estimate(accountId);
+                count += estimate[0];
+                waitNanos += estimate[1];
+                holdNanos += estimate[2];
+            }
+            if (count > 0) {
+                hotAccounts.add(new HotAccount(accountId, count, count * sampleRate, waitNanos / 1000.0 / count,
+                        holdNanos / 1000.0 / count, lockWaitNanos > 0 ? Math.min(1.0, (double) waitNanos / lockWaitNanos) : 0));
+            }
+        }
+        hotAccounts.sort(Comparator.comparingLong(HotAccount::getSampledTransfers).reversed());
+        if (hotAccounts.size() > topK) {
+            hotAccounts = new ArrayList<>(hotAccounts.subList(0, topK));
+        }
+
+        return new ContentionReport(Instant.now(), TimeUnit.NANOSECONDS.toSeconds(windowNanos * covered), sampleRate,
+                samples, samples > 0 ? lockWaitNanos / 1000.0 / samples : 0,
+                samples > 0 ? lockHoldNanos / 1000.0 / samples : 0, hotAccounts);
+    }
+
+    public int getWindowCount() {
+        return windows.length();
+    }
+
+    private long epochOf(long nowNanos) {
+        return (nowNanos - originNanos) / windowNanos;
+    }
+
+    /**
+     * Returns the window covering a point in time, replacing the expired window in its ring slot.
+     */
+    private Window windowAt(long nowNanos) {
+        long epoch = epochOf(nowNanos);
+        int slot = (int) (epoch % windows.length());
+        Window window = windows.get(slot);
+        while (window == null || window.epoch < epoch) {
+            Window fresh = new Window(epoch);
+            if (windows.compareAndSet(slot, window, fresh)) {
+                return fresh;
+            }
+            window = windows.get(slot);
+        }
+        return window;
+    }
+
+    /**
+     * Window class holding the sketches and top accounts of one time window.
+     */
+    private final class Window {
+
+        private final long epoch;
+        private final AtomicLongArray counts = new AtomicLongArray(DEPTH * width);
+        private final AtomicLongArray waits = new AtomicLongArray(DEPTH * width);
+        private final AtomicLongArray holds = new AtomicLongArray(DEPTH * width);
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder lockWaitNanos = new LongAdder();
+        private final LongAdder lockHoldNanos = new LongAdder();
+        // Guarded by this; the heap's root is the tracked account with the lowest count
+        private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong((Candidate c) -> c.count));
+        private final Map<String, Candidate> tracked = new HashMap<>();
+        // Lowest tracked count once the heap is full; lets most samples skip the lock
+        private volatile long admissionCount;
+
+        private Window(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private void record(String accountId, long waitNanos, long holdNanos) {
+            int hash = accountId.hashCode();
+            long count = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                int cell = cell(hash, row);
+                count = Math.min(count, counts.incrementAndGet(cell));
+                waits.addAndGet(cell, waitNanos);
+                holds.addAndGet(cell, holdNanos);
+            }
+            if (count > admissionCount) {
+                offer(accountId, count);
+            }
+        }
+
+        private synchronized void offer(String accountId, long count) {
+            Candidate candidate = tracked.get(accountId);
+            if (candidate != null) {
+                heap.remove(candidate);
+                candidate.count = count;
+                heap.add(candidate);
+            } else if (tracked.size() < topK) {
+                candidate = new Candidate(accountId, count);
+                tracked.put(accountId, candidate);
+                heap.add(candidate);
+            } else if (count > heap.peek().count) {
+                tracked.remove(heap.poll().accountId);
+                candidate = new Candidate(accountId, count);
+                tracked.put(accountId, candidate);
+                heap.add(candidate);
+            }
+            if (tracked.size() >= topK) {
+                admissionCount = heap.peek().count;
+            }
+        }
+
+        private synchronized Set<String> candidates() {
+            return new HashSet<>(tracked.keySet());
+        }
+
+        /**
+         * Estimates an account's count, wait and hold time from the row with the lowest count,
+         * the row least inflated by colliding accounts.
+         */
+        private long[] estimate(String accountId) {
+            int hash = accountId.hashCode();
+            long[] estimate = {Long.MAX_VALUE, 0, 0};
+            for (int row = 0; row < DEPTH; row++) {
+                int cell = cell(hash, row);
+                long count = counts.get(cell);
+                if (count < estimate[0]) {
+                    estimate[0] = count;
+                    estimate[1] = waits.get(cell);
+                    estimate[2] = holds.get(cell);
+                }
+            }
+            return estimate;
+        }
+
+        private int cell(int hash, int row) {
+            return row * width + ((int) ((hash * SEEDS[row]) >>> 32) & (width - 1));
+        }
+    }
+
+    /**
+     * Candidate class holding a tracked account and its count when last seen.
+     */
+    private static final class Candidate {
+
+        private final String accountId;
+        private long count;
+
+        private Candidate(String accountId, long count) {
+            this.accountId = accountId;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.FundHold;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FundHoldRegistry class keeping the open holds of every account and their total.
+ * The holds of an account are only changed while holding that account's lock, the lock transfers
+ * already take, so hold bookkeeping adds no locking of its own. Expiry is lazy: each account keeps
+ * its holds in expiry order, and expired holds are dropped whenever the account's holds are
+ * accessed or a sweep visits the account, so open holds need no timer each.
+ */
+@Component
+public class FundHoldRegistry {
+
+    private final Map<String, AccountHolds> byAccount = new ConcurrentHashMap<>();
+    private final Map<String, String> accountOfHold = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the amount held on an account, dropping expired holds first.
+     * Must be called while holding the account's lock.
+     * @param accountId The ID of the account.
+     * @return The total of the account's open holds.
+     */
+    public BigDecimal heldAmount(String accountId) {
+        AccountHolds holds = byAccount.get(accountId);
+        if (holds == null) {
+            return BigDecimal.ZERO;
+        }
+        expire(accountId, holds, System.currentTimeMillis());
+        return holds.total;
+    }
+
+    /**
+     * Returns the amount held on an account without locking, for an optimistic read validated by
+     * the caller. While an expired hold is still recorded the result is zero, so the available
+     * balance derived from it is never understated.
+     * @param accountId The ID of the account.
+     * @return The total of the account's open holds, or zero.
+     */
+    public BigDecimal peekHeldAmount(String accountId) {
+        AccountHolds holds = byAccount.get(accountId);
+        if (holds == null || holds.earliestExpiryMillis <= System.currentTimeMillis()) {
+            return BigDecimal.ZERO;
+        }
+        return holds.total;
+    }
+
+    /**
+     * Returns the ID of the account a hold was placed on.
+     * @param holdId The ID of the hold.
+     * @return The account ID, or null if the hold is not open.
+     */
+    public String accountOf(String holdId) {
+        return accountOfHold.get(holdId);
+    }
+
+    /**
+     * Records a new hold. Must be called while holding the account's lock.
+     * @param hold The hold.
+     */
+    public void add(FundHold hold) {
+        AccountHolds holds = byAccount.computeIfAbsent(hold.getAccountId(), accountId -> new AccountHolds());
+        holds.holds.put(hold.getHoldId(), hold);
+        holds.byExpiry.add(new Expiry(hold.getHoldId(), hold.getExpiresAt().toEpochMilli()));
+        holds.total = holds.total.add(hold.getHeldAmount());
+        holds.earliestExpiryMillis = holds.byExpiry.peek().expiresAtMillis;
+        accountOfHold.put(hold.getHoldId(), hold.getAccountId());
+    }
+
+    /**
+     * Returns an open hold. Must be called while holding the account's lock.
+     * @param accountId The ID of the account.
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it does not exist or has expired.
+     */
+    public FundHold find(String accountId, String holdId) {
+        AccountHolds holds = byAccount.get(accountId);
+        if (holds == null) {
+            return null;
+        }
+        expire(accountId, holds, System.currentTimeMillis());
+        return holds.holds.get(holdId);
+    }
+
+    /**
+     * Returns the open holds of an account. Must be called while holding the account's lock.
+     * @param accountId The ID of the account.
+     * @return The holds, soonest expiring first.
+     */
+    public List<FundHold> holdsOf(String accountId) {
+        AccountHolds holds = byAccount.get(accountId);
+        if (holds == null) {
+            return new ArrayList<>();
+        }
+        expire(accountId, holds, System.currentTimeMillis());
+        List<FundHold> open = new ArrayList<>(holds.holds.values());
+        open.sort(Comparator.comparing(FundHold::getExpiresAt));
+        return open;
+    }
+
+    /**
+     * Captures part or all of an open hold, closing it once nothing is left held.
+     * Must be called while holding the account's lock.
+     * @param hold The current state of the hold.
+     * @param amount The amount captured, at most the held amount.
+     * @return The new state of the hold.
+     */
+    public FundHold capture(FundHold hold, BigDecimal amount) {
+        FundHold captured = hold.captured(amount);
+        AccountHolds holds = byAccount.get(hold.getAccountId());
+        holds.total = holds.total.subtract(amount);
+        if (captured.getHeldAmount().signum() == 0) {
+            close(hold.getAccountId(), holds, hold.getHoldId());
+        } else {
+            holds.holds.put(hold.getHoldId(), captured);
+        }
+        return captured;
+    }
+
+    /**
+     * Releases an open hold. Must be called while holding the account's lock.
+     * @param hold The current state of the hold.
+     */
+    public void release(FundHold hold) {
+        AccountHolds holds = byAccount.get(hold.getAccountId());
+        holds.total = holds.total.subtract(hold.getHeldAmount());
+        close(hold.getAccountId(), holds, hold.getHoldId());
+    }
+
+    /**
+     * Lists the accounts that may have expired holds, for a sweep to visit under their locks.
+     * @param nowMillis The current time.
+     * @return The account IDs.
+     */
+    public List<String> accountsWithExpiredHolds(long nowMillis) {
+        List<String> accountIds = new ArrayList<>();
+        for (Map.Entry<String, AccountHolds> entry : byAccount.entrySet()) {
+            if (entry.getValue().earliestExpiryMillis <= nowMillis) {
+                accountIds.add(entry.getKey());
+            }
+        }
+        return accountIds;
+    }
+
+    /**
+     * Drops the expired holds of an account. Must be called while holding the account's lock.
+     * @param accountId The ID of the account.
+     * @param nowMillis The current time.
+     * @return The number of holds that expired.
+     */
+    public int expire(String accountId, long nowMillis) {
+        AccountHolds holds = byAccount.get(accountId);
+        return holds == null ? 0 : expire(accountId, holds, nowMillis);
+    }
+
+    public int size() {
+        return accountOfHold.size();
+    }
+
+    private int expire(String accountId, AccountHolds holds, long nowMillis) {
+        int expired = 0;
+        while (!holds.byExpiry.isEmpty() && holds.byExpiry.peek().expiresAtMillis <= nowMillis) {
+            // Entries of holds captured or released since are skipped here
+            FundHold hold = holds.holds.remove(holds.byExpiry.poll().holdId);
+            if (hold != null) {
+                holds.total = holds.total.subtract(hold.getHeldAmount());
+                accountOfHold.remove(hold.getHoldId());
+                expired++;
+            }
+        }
+        updateEarliestExpiry(accountId, holds);
+        return expired;
+    }
+
+    private void close(String accountId, AccountHolds holds, String holdId) {
+        holds.holds.remove(holdId);
+        accountOfHold.remove(holdId);
+        updateEarliestExpiry(accountId, holds);
+    }
+
+    private void updateEarliestExpiry(String accountId, AccountHolds holds) {
+        if (holds.holds.isEmpty()) {
+            // Drops the queue with any entries left by captured or released holds
+            byAccount.remove(accountId, holds);
+            holds.total = BigDecimal.ZERO;
+            holds.earliestExpiryMillis = Long.MAX_VALUE;
+        } else {
+            holds.earliestExpiryMillis = holds.byExpiry.peek().expiresAtMillis;
+        }
+    }
+
+    /**
+     * AccountHolds class holding the open holds of one account, guarded by the account's lock.
+     * The total and earliest expiry are volatile for optimistic readers.
+     */
+    private static final class AccountHolds {
+
+        private final Map<String, FundHold> holds = new HashMap<>();
+        private final PriorityQueue<Expiry> byExpiry = new PriorityQueue<>(Comparator.comparingLong((Expiry e) -> e.expiresAtMillis));
+        private volatile BigDecimal total = BigDecimal.ZERO;
+        private volatile long earliestExpiryMillis = Long.MAX_VALUE;
+    }
+
+    /**
+     * Expiry class holding the expiry time of one hold in an account's expiry queue.
+     */
+    private static final class Expiry {
+
+        private final String holdId;
+        private final long expiresAtMillis;
+
+        private Expiry(String holdId, long expiresAtMillis) {
+            this.holdId = holdId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.FundHold;
+import com.dws.challenge.domain.HeldBalance;
+import com.dws.challenge.exception.InsufficientFundsException;
+
+import java.math.BigDecimal;
+
+public interface FundHoldService {
+    FundHold authorize(String accountId, BigDecimal amount, Long ttlSeconds) throws InsufficientFundsException;
+
+    FundHold capture(String holdId, String accountToId, BigDecimal amount) throws InsufficientFundsException;
+
+    FundHold release(String holdId);
+
+    FundHold getHold(String holdId);
+
+    HeldBalance getHeldBalance(String accountId);
+}
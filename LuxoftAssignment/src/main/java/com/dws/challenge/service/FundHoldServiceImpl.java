@@ -0,0 +1,300 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.FundHold;
+import com.dws.challenge.domain.HeldBalance;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * FundHoldServiceImpl class responsible for reserving funds on an account and capturing or
+ * releasing them later. A hold lowers the account's available balance without moving money;
+ * capturing it transfers the captured part to another account. Every operation takes the same
+ * account locks a transfer takes, and expired holds are dropped lazily when an account's holds
+ * are accessed, with a background sweep catching accounts nobody touches.
+ * This class implements the FundHoldService interface.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class FundHoldServiceImpl implements FundHoldService {
+
+    private final AccountsRepository accountsRepository;
+    private final AccountLocks accountLocks;
+    private final ConservationLedger conservationLedger;
+    private final BalanceChangeFeed balanceChangeFeed;
+    private final FundHoldRegistry fundHoldRegistry;
+    private final long defaultTtlSeconds;
+    private final long sweepSeconds;
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Constructs a new FundHoldServiceImpl with the specified dependencies.
+     * @param accountsRepository The repository used to retrieve account information.
+     * @param accountLocks The locks guarding account balances.
+     * @param conservationLedger The ledger keeping the running money checksum.
+     * @param balanceChangeFeed The feed receiving committed balance changes.
+     * @param fundHoldRegistry The registry of open holds.
+     * @param defaultTtlSeconds The lifetime of a hold authorized without one.
+     * @param sweepSeconds The delay between background sweeps of expired holds; 0 disables the sweep.
+     */
+    @Autowired
+    public FundHoldServiceImpl(AccountsRepository accountsRepository, AccountLocks accountLocks,
+                               ConservationLedger conservationLedger, BalanceChangeFeed balanceChangeFeed,
+                               FundHoldRegistry fundHoldRegistry,
+                               @Value("${holds.default-ttl-seconds:604800}") long defaultTtlSeconds,
+                               @Value("${holds.sweep-seconds:60}") long sweepSeconds) {
+        this.accountsRepository = accountsRepository;
+        this.accountLocks = accountLocks;
+        this.conservationLedger = conservationLedger;
+        this.balanceChangeFeed = balanceChangeFeed;
+        this.fundHoldRegistry = fundHoldRegistry;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.sweepSeconds = sweepSeconds;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (sweepSeconds <= 0) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.error("Hold expiry sweep failed", e);
+            }
+        }, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserves funds on an account.
+     * @param accountId The ID of the account.
+     * @param amount The amount to reserve.
+     * @param ttlSeconds The lifetime of the hold; the default lifetime when null.
+     * @return The new hold.
+     * @throws InsufficientFundsException if the account's available balance cannot cover the amount.
+     * @throws IllegalArgumentException if the details are invalid or the account cannot be found.
+     */
+    @Override
+    public FundHold authorize(String accountId, BigDecimal amount, Long ttlSeconds) throws InsufficientFundsException {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("The amount to hold must be a positive number");
+        }
+        long ttl = ttlSeconds == null ? defaultTtlSeconds : ttlSeconds;
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("The hold lifetime must be a positive number of seconds");
+        }
+        Account account = loadAccount(accountId);
+
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            BigDecimal available = account.getBalance().subtract(fundHoldRegistry.heldAmount(accountId));
+            if (available.compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + accountId);
+            }
+            Instant now = Instant.now();
+            FundHold hold = new FundHold(UUID.randomUUID().toString(), accountId, amount, amount, BigDecimal.ZERO,
+                    now, now.plusSeconds(ttl));
+            fundHoldRegistry.add(hold);
+            log.info("Hold {} authorized - Amount: {} held on Account {}", hold.getHoldId(), amount, accountId);
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Captures part or all of a hold, transferring the captured amount to another account.
+     * The hold stays open with the remaining amount until it is fully captured, released or expires.
+     * @param holdId The ID of the hold.
+     * @param accountToId The ID of the account to credit.
+     * @param amount The amount to capture; the whole remaining hold when null.
+     * @return The new state of the hold, or null if the hold is not open.
+     * @throws InsufficientFundsException if the account's balance no longer covers the amount.
+     * @throws IllegalArgumentException if the amount exceeds the held amount or the details are invalid.
+     */
+    @Override
+    public FundHold capture(String holdId, String accountToId, BigDecimal amount) throws InsufficientFundsException {
+        if (amount != null && amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("The amount to capture must be a positive number");
+        }
+        String accountFromId = fundHoldRegistry.accountOf(holdId);
+        if (accountFromId == null) {
+            return null;
+        }
+        if (accountFromId.equals(accountToId)) {
+            throw new IllegalArgumentException("A hold cannot be captured into the account it is placed on");
+        }
+        Account accountFrom = loadAccount(accountFromId);
+        Account accountTo = loadAccount(accountToId);
+
+        // Same lock order as transfers
+        int stripeFrom = accountLocks.stripeOf(accountFromId);
+        int stripeTo = accountLocks.stripeOf(accountToId);
+        Lock lock1 = accountLocks.lockAt(Math.min(stripeFrom, stripeTo));
+        Lock lock2 = accountLocks.lockAt(Math.max(stripeFrom, stripeTo));
+        lock1.lock();
+        try {
+            lock2.lock();
+            try {
+                // The hold may have been captured, released or expired since it was looked up
+                FundHold hold = fundHoldRegistry.find(accountFromId, holdId);
+                if (hold == null) {
+                    return null;
+                }
+                BigDecimal captured = amount == null ? hold.getHeldAmount() : amount;
+                if (captured.compareTo(hold.getHeldAmount()) > 0) {
+                    throw new IllegalArgumentException("The amount to capture exceeds the held amount of " + hold.getHeldAmount());
+                }
+                // Holds reserve funds, but never let a capture take the balance below zero
+                if (accountFrom.getBalance().compareTo(captured) < 0) {
+                    throw new InsufficientFundsException("Insufficient funds in account: " + accountFromId);
+                }
+
+                FundHold updated = fundHoldRegistry.capture(hold, captured);
+                conservationLedger.beforeBalanceChanges(accountFrom, accountTo);
+                accountFrom.setBalance(accountFrom.getBalance().subtract(captured));
+                accountTo.setBalance(accountTo.getBalance().add(captured));
+                conservationLedger.recordTransfer();
+                balanceChangeFeed.publish(accountFrom);
+                balanceChangeFeed.publish(accountTo);
+
+                log.info("Hold {} captured - Amount: {} transferred from Account {} to Account {}", holdId, captured, accountFromId, accountToId);
+                return updated;
+            } finally {
+                lock2.unlock();
+            }
+        } finally {
+            lock1.unlock();
+        }
+    }
+
+    /**
+     * Releases a hold, making its remaining amount available again.
+     * @param holdId The ID of the hold.
+     * @return The released hold, or null if the hold is not open.
+     */
+    @Override
+    public FundHold release(String holdId) {
+        String accountId = fundHoldRegistry.accountOf(holdId);
+        if (accountId == null) {
+            return null;
+        }
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            FundHold hold = fundHoldRegistry.find(accountId, holdId);
+            if (hold == null) {
+                return null;
+            }
+            fundHoldRegistry.release(hold);
+            log.info("Hold {} released - Amount: {} available again on Account {}", holdId, hold.getHeldAmount(), accountId);
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves an open hold.
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it is not open.
+     */
+    @Override
+    public FundHold getHold(String holdId) {
+        String accountId = fundHoldRegistry.accountOf(holdId);
+        if (accountId == null) {
+            return null;
+        }
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            return fundHoldRegistry.find(accountId, holdId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the balance of an account split into held and available funds.
+     * @param accountId The ID of the account.
+     * @return The held balance, or null if the account cannot be found.
+     */
+    @Override
+    public HeldBalance getHeldBalance(String accountId) {
+        Account account = accountsRepository.getAccount(accountId);
+        if (account == null) {
+            return null;
+        }
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            List<FundHold> holds = fundHoldRegistry.holdsOf(accountId);
+            BigDecimal held = fundHoldRegistry.heldAmount(accountId);
+            return new HeldBalance(accountId, account.getBalance(), held, account.getBalance().subtract(held), holds);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops expired holds on every account that has one, locking one account at a time.
+     * @return The number of holds that expired.
+     */
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (String accountId : fundHoldRegistry.accountsWithExpiredHolds(now)) {
+            Lock lock = accountLocks.lockFor(accountId);
+            lock.lock();
+            try {
+                expired += fundHoldRegistry.expire(accountId, now);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (expired > 0) {
+            log.info("Hold expiry sweep dropped {} expired holds", expired);
+        }
+        return expired;
+    }
+
+    private Account loadAccount(String accountId) {
+        Account account = accountsRepository.getAccount(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException("Invalid account details provided");
+        }
+        return account;
+    }
+}
@@ -0,0 +1,222 @@
+package com.dws.challenge.service;
+
+import java.util.function.Consumer;
+
+/**
+ * HierarchicalTimingWheel class holding timeouts in a hierarchy of fixed-size wheels.
+ * Each level has 2^bits slots; a slot on level L spans 2^(bits*L) ticks. Scheduling and
+ * cancelling are O(1), and advancing the clock costs O(1) per tick plus the entries that
+ * are cascaded down to a finer level. Deadlines beyond the range of the top level are parked
+ * in its furthest slot and re-inserted as the wheel turns.
+ * This class is not thread-safe; callers must serialize access.
+ *
+ * @param <T> The type of the task carried by each timeout.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final Bucket<T>[][] levels;
+    private final Bucket<T> overdue = new Bucket<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Constructs a new HierarchicalTimingWheel.
+     * @param tickMillis The resolution of the wheel in milliseconds.
+     * @param bits The number of bits per level; each level has 2^bits slots.
+     * @param levelCount The number of levels in the hierarchy.
+     * @param startMillis The wall-clock time the wheel starts at.
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int bits, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || bits <= 0 || levelCount <= 0 || (long) bits * levelCount >= 62) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.levels = new Bucket[levelCount][1 << bits];
+        for (Bucket<T>[] level : levels) {
+            for (int slot = 0; slot < level.length; slot++) {
+                level[slot] = new Bucket<>();
+            }
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a task to expire at the given time.
+     * @param task The task to schedule.
+     * @param deadlineMillis The wall-clock time at which the task expires.
+     * @return The timeout handle, which can be used to cancel the task.
+     */
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        // Round up so that a task never fires before its deadline.
+        Timeout<T> timeout = new Timeout<>(task, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a previously scheduled timeout.
+     * @param timeout The timeout to cancel.
+     * @return true if the timeout was pending and is now cancelled, false otherwise.
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time, handing every expired task to the consumer.
+     * @param nowMillis The current wall-clock time.
+     * @param expired The consumer receiving the expired tasks, in deadline order per tick.
+     * @return The number of tasks that expired.
+     */
+    public int advanceTo(long nowMillis, Consumer<? super T> expired) {
+        int fired = drain(overdue, expired);
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            fired += drain(levels[0][(int) (currentTick & mask)], expired);
+            fired += drain(overdue, expired);
+        }
+        return fired;
+    }
+
+    /**
+     * Returns the number of pending timeouts.
+     * @return The number of pending timeouts.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void cascade() {
+        // Find the highest level whose lower digits all rolled over on this tick, then move its
+        // current slot down one level at a time so entries trickle towards level 0.
+        int highest = 0;
+        while (highest + 1 < levels.length && (currentTick & ((1L << (bits * (highest + 1))) - 1)) == 0) {
+            highest++;
+        }
+        for (int level = highest; level >= 1; level--) {
+            Bucket<T> bucket = levels[level][(int) ((currentTick >>> (bits * level)) & mask)];
+            Timeout<T> timeout = bucket.pollFirst();
+            while (timeout != null) {
+                place(timeout);
+                timeout = bucket.pollFirst();
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(timeout);
+            return;
+        }
+        int top = levels.length - 1;
+        for (int level = 0; level < top; level++) {
+            if (delta < (1L << (bits * (level + 1)))) {
+                levels[level][(int) ((timeout.deadlineTick >>> (bits * level)) & mask)].add(timeout);
+                return;
+            }
+        }
+        long parkedTick = Math.min(timeout.deadlineTick, currentTick + (1L << (bits * levels.length)) - 1);
+        levels[top][(int) ((parkedTick >>> (bits * top)) & mask)].add(timeout);
+    }
+
+    private int drain(Bucket<T> bucket, Consumer<? super T> expired) {
+        int fired = 0;
+        Timeout<T> timeout = bucket.pollFirst();
+        while (timeout != null) {
+            if (timeout.deadlineTick > currentTick) {
+                // Parked on the top level before its real deadline came into range.
+                place(timeout);
+            } else {
+                size--;
+                fired++;
+                expired.accept(timeout.task);
+            }
+            timeout = bucket.pollFirst();
+        }
+        return fired;
+    }
+
+    /**
+     * Timeout class representing one scheduled task and its position in the wheel.
+     *
+     * @param <T> The type of the task.
+     */
+    public static final class Timeout<T> {
+
+        private final T task;
+        private final long deadlineTick;
+        private Bucket<T> bucket;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        Timeout<T> pollFirst() {
+            Timeout<T> first = head;
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.ReplicationStatus;
+import com.dws.challenge.repository.AccountsRepositoryReplica;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.Socket;
+
+/**
+ * ReplicationFollower class responsible for keeping an AccountsRepositoryReplica up to date from a
+ * primary's ReplicationServer. It connects to the primary, applies the snapshot and then the change
+ * stream, and reconnects with a fresh snapshot whenever the connection breaks.
+ * Reads are served while the replica is within the staleness bound, or once it has reached the
+ * sequence number a client asks for, which gives read-your-writes on a replica.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+@ConditionalOnProperty(name = "accounts.repository.type", havingValue = "replica")
+public class ReplicationFollower {
+
+    private final AccountsRepositoryReplica replica;
+    private final String primaryHost;
+    private final int primaryPort;
+    private final long reconnectMillis;
+    private final long maxStalenessMillis;
+    private final long readTimeoutMillis;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private Thread follower;
+
+    /**
+     * Constructs a new ReplicationFollower with the specified dependencies.
+     * @param replica The repository receiving the replicated accounts.
+     * @param primaryHost The host of the primary.
+     * @param primaryPort The replication port of the primary.
+     * @param reconnectMillis The delay before reconnecting after the connection broke.
+     * @param maxStalenessMillis The staleness beyond which reads are refused.
+     * @param readTimeoutMillis The time a read waits for the replica to reach a requested sequence number.
+     */
+    @Autowired
+    public ReplicationFollower(AccountsRepositoryReplica replica,
+                               @Value("${replication.primary-host:localhost}") String primaryHost,
+                               @Value("${replication.primary-port:7070}") int primaryPort,
+                               @Value("${replication.reconnect-millis:1000}") long reconnectMillis,
+                               @Value("${replication.max-staleness-millis:5000}") long maxStalenessMillis,
+                               @Value("${replication.read-timeout-millis:1000}") long readTimeoutMillis) {
+        this.replica = replica;
+        this.primaryHost = primaryHost;
+        this.primaryPort = primaryPort;
+        this.reconnectMillis = reconnectMillis;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        follower = new Thread(this::follow, "replication-follower");
+        follower.setDaemon(true);
+        follower.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // Already closed or broken
+            }
+        }
+        if (follower != null) {
+            follower.interrupt();
+            follower.join(5_000);
+        }
+    }
+
+    /**
+     * Checks whether the replica is fresh enough to serve a read.
+     * @return true if its staleness is within the bound.
+     */
+    public boolean isWithinStalenessBound() {
+        return replica.getStalenessMillis() <= maxStalenessMillis;
+    }
+
+    /**
+     * Waits until the replica reflects every change up to a sequence number, for at most the read timeout.
+     * @param sequence The sequence number, as returned by the primary for a write.
+     * @return true if the replica reached it, false if the wait timed out.
+     */
+    public boolean awaitSequence(long sequence) {
+        try {
+            return replica.awaitWatermark(sequence, readTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public long getSequence() {
+        return replica.getWatermark();
+    }
+
+    public long getStalenessMillis() {
+        return replica.getStalenessMillis();
+    }
+
+    /**
+     * Returns the replication status of this follower.
+     * @return The status.
+     */
+    public ReplicationStatus getStatus() {
+        return new ReplicationStatus("replica", replica.getWatermark(), replica.getPrimarySequence(),
+                replica.getStalenessMillis(), connected, 0);
+    }
+
+    private void follow() {
+        while (running) {
+            try (Socket current = new Socket(primaryHost, primaryPort)) {
+                socket = current;
+                current.setTcpNoDelay(true);
+                connected = true;
+                log.info("Following primary {}:{}", primaryHost, primaryPort);
+                receive(new DataInputStream(new BufferedInputStream(current.getInputStream(), 64 * 1024)));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Replication from {}:{} interrupted: {}", primaryHost, primaryPort, e.getMessage());
+                }
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            try {
+                Thread.sleep(reconnectMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void receive(DataInputStream in) throws IOException {
+        while (running) {
+            int type = in.readUnsignedByte();
+            switch (type) {
+                case ReplicationProtocol.SNAPSHOT_BEGIN:
+                    replica.beginSnapshot(in.readLong());
+                    break;
+                case ReplicationProtocol.SNAPSHOT_ACCOUNT:
+                    String snapshotAccountId = in.readUTF();
+                    BigDecimal snapshotBalance = new BigDecimal(in.readUTF());
+                    replica.applySnapshot(snapshotAccountId, snapshotBalance, in.readLong());
+                    break;
+                case ReplicationProtocol.SNAPSHOT_END:
+                    long accounts = in.readLong();
+                    replica.endSnapshot();
+                    log.info("Loaded a snapshot of {} accounts at sequence {}", accounts, replica.getWatermark());
+                    break;
+                case ReplicationProtocol.CHANGE:
+                    long sequence = in.readLong();
+                    String accountId = in.readUTF();
+                    replica.apply(sequence, accountId, new BigDecimal(in.readUTF()));
+                    break;
+                case ReplicationProtocol.HEARTBEAT:
+                    long primarySequence = in.readLong();
+                    replica.heartbeat(primarySequence, in.readLong());
+                    break;
+                default:
+                    throw new IOException("Unknown replication message type " + type);
+            }
+        }
+    }
+}
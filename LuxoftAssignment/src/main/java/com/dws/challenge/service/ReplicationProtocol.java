@@ -0,0 +1,20 @@
+package com.dws.challenge.service;
+
+/**
+ * ReplicationProtocol class holding the message types sent from a primary to its followers.
+ * Every message is a type byte followed by its fields, written with DataOutputStream:
+ * SNAPSHOT_BEGIN(base sequence), SNAPSHOT_ACCOUNT(account id, balance, version),
+ * SNAPSHOT_END(account count), CHANGE(sequence, account id, balance) and
+ * HEARTBEAT(primary sequence, primary time in millis). Balances are sent as decimal strings.
+ */
+final class ReplicationProtocol {
+
+    static final int SNAPSHOT_BEGIN = 1;
+    static final int SNAPSHOT_ACCOUNT = 2;
+    static final int SNAPSHOT_END = 3;
+    static final int CHANGE = 4;
+    static final int HEARTBEAT = 5;
+
+    private ReplicationProtocol() {
+    }
+}
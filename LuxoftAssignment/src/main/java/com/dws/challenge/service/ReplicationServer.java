@@ -0,0 +1,273 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.BalanceChangeEvent;
+import com.dws.challenge.domain.ReplicationStatus;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * ReplicationServer class responsible for streaming committed balance changes to follower processes.
+ * It listens on a loopback port; each follower first receives a snapshot of every account, taken one
+ * account lock at a time and tagged with the sequence number it reflects, then every change numbered
+ * after the snapshot began, uncoalesced, and periodic heartbeats carrying the primary's sequence so
+ * followers can report how stale they are. Changes are queued per follower without locking; a
+ * follower whose queue overflows is disconnected and starts over with a fresh snapshot.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class ReplicationServer {
+
+    private final AccountsRepository accountsRepository;
+    private final AccountLocks accountLocks;
+    private final BalanceChangeFeed balanceChangeFeed;
+    private final int port;
+    private final int queueCapacity;
+    private final long heartbeatMillis;
+    private final Set<FollowerConnection> followers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionNumber = new AtomicInteger();
+    private volatile boolean running;
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * Constructs a new ReplicationServer with the specified dependencies.
+     * @param accountsRepository The repository holding the accounts to replicate.
+     * @param accountLocks The locks guarding account balances.
+     * @param balanceChangeFeed The feed publishing committed balance changes.
+     * @param port The loopback port followers connect to; 0 disables replication.
+     * @param queueCapacity The number of changes queued for a follower before it is disconnected.
+     * @param heartbeatMillis The interval between heartbeats sent to each follower.
+     */
+    @Autowired
+    public ReplicationServer(AccountsRepository accountsRepository, AccountLocks accountLocks,
+                             BalanceChangeFeed balanceChangeFeed,
+                             @Value("${replication.listen-port:0}") int port,
+                             @Value("${replication.queue-capacity:1000000}") int queueCapacity,
+                             @Value("${replication.heartbeat-millis:100}") long heartbeatMillis) {
+        this.accountsRepository = accountsRepository;
+        this.accountLocks = accountLocks;
+        this.balanceChangeFeed = balanceChangeFeed;
+        this.port = port;
+        this.queueCapacity = queueCapacity;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (port > 0) {
+            listen(port);
+        }
+    }
+
+    /**
+     * Starts accepting followers on a loopback port.
+     * @param listenPort The port, or 0 for any free port.
+     * @return The port listened on.
+     * @throws IOException if the port cannot be bound.
+     */
+    public int listen(int listenPort) throws IOException {
+        ServerSocket socket = new ServerSocket(listenPort, 50, InetAddress.getLoopbackAddress());
+        serverSocket = socket;
+        running = true;
+        Thread acceptor = new Thread(() -> accept(socket), "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Replicating balance changes to followers on port {}", socket.getLocalPort());
+        return socket.getLocalPort();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        ServerSocket socket = serverSocket;
+        if (socket != null) {
+            closeQuietly(socket);
+        }
+        for (FollowerConnection follower : followers) {
+            follower.close();
+        }
+    }
+
+    /**
+     * Returns the replication status of this primary.
+     * @return The status.
+     */
+    public ReplicationStatus getStatus() {
+        long sequence = balanceChangeFeed.currentSequence();
+        return new ReplicationStatus("primary", sequence, sequence, 0, running, followers.size());
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    private void accept(ServerSocket socket) {
+        while (running) {
+            try {
+                Socket connection = socket.accept();
+                connection.setTcpNoDelay(true);
+                FollowerConnection follower = new FollowerConnection(connection);
+                followers.add(follower);
+                Thread sender = new Thread(follower, "replication-sender-" + connectionNumber.incrementAndGet());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Accepting a follower failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Already closed or broken
+        }
+    }
+
+    /**
+     * FollowerConnection class streaming to one follower.
+     * Publishing threads queue changes lock-free and wake the sender only when its queue was empty.
+     */
+    private final class FollowerConnection implements Runnable, Consumer<BalanceChangeEvent> {
+
+        private final Socket socket;
+        private final Queue<BalanceChangeEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private volatile Thread sender;
+        private volatile boolean overflowed;
+
+        private FollowerConnection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void accept(BalanceChangeEvent event) {
+            if (overflowed) {
+                return;
+            }
+            int previous = queued.getAndIncrement();
+            if (previous >= queueCapacity) {
+                overflowed = true;
+                LockSupport.unpark(sender);
+                return;
+            }
+            queue.offer(event);
+            if (previous == 0) {
+                LockSupport.unpark(sender);
+            }
+        }
+
+        @Override
+        public void run() {
+            sender = Thread.currentThread();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024))) {
+                long baseSequence = balanceChangeFeed.addListener(this);
+                long accounts = writeSnapshot(out, baseSequence);
+                log.info("Sent a snapshot of {} accounts at sequence {} to follower {}", accounts, baseSequence,
+                        socket.getRemoteSocketAddress());
+
+                long nextHeartbeat = 0;
+                while (running && !overflowed) {
+                    BalanceChangeEvent event = queue.poll();
+                    if (event != null) {
+                        queued.decrementAndGet();
+                        out.writeByte(ReplicationProtocol.CHANGE);
+                        out.writeLong(event.getSequence());
+                        out.writeUTF(event.getAccountId());
+                        out.writeUTF(event.getBalance().toString());
+                    }
+                    long now = System.currentTimeMillis();
+                    if (now >= nextHeartbeat) {
+                        out.writeByte(ReplicationProtocol.HEARTBEAT);
+                        out.writeLong(balanceChangeFeed.currentSequence());
+                        out.writeLong(now);
+                        nextHeartbeat = now + heartbeatMillis;
+                    }
+                    if (event == null) {
+                        out.flush();
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(heartbeatMillis));
+                    }
+                }
+                if (overflowed) {
+                    log.warn("Follower {} fell more than {} changes behind, disconnecting it", socket.getRemoteSocketAddress(),
+                            queueCapacity);
+                }
+            } catch (IOException e) {
+                log.info("Follower {} disconnected: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            } finally {
+                balanceChangeFeed.removeListener(this);
+                followers.remove(this);
+                closeQuietly(socket);
+            }
+        }
+
+        /**
+         * Writes every account with the sequence number its balance reflects.
+         * The sequence is read under the account's lock, so changes to the account numbered up to it
+         * are included in the balance and changes numbered after it are not.
+         */
+        private long writeSnapshot(DataOutputStream out, long baseSequence) throws IOException {
+            out.writeByte(ReplicationProtocol.SNAPSHOT_BEGIN);
+            out.writeLong(baseSequence);
+            long count = 0;
+            for (String accountId : accountsRepository.getAccountIds()) {
+                BigDecimal balance;
+                long version;
+                Lock lock = accountLocks.lockFor(accountId);
+                lock.lock();
+                try {
+                    Account account = accountsRepository.peekAccount(accountId);
+                    if (account == null) {
+                        continue;
+                    }
+                    balance = account.getBalance();
+                    version = balanceChangeFeed.currentSequence();
+                } finally {
+                    lock.unlock();
+                }
+                out.writeByte(ReplicationProtocol.SNAPSHOT_ACCOUNT);
+                out.writeUTF(accountId);
+                out.writeUTF(balance.toString());
+                out.writeLong(version);
+                count++;
+            }
+            out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+            out.writeLong(count);
+            return count;
+        }
+
+        private void close() {
+            closeQuietly(socket);
+            LockSupport.unpark(sender);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public interface ScheduledTransferService {
+    ScheduledTransfer scheduleTransfer(String accountFromId, String accountToId, BigDecimal amount, Instant firstExecution, long intervalSeconds);
+
+    List<ScheduledTransfer> getScheduledTransfers();
+
+    boolean cancelScheduledTransfer(String scheduleId);
+}
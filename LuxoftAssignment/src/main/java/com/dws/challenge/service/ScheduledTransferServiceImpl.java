@@ -0,0 +1,242 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.config.AsyncTransferConfig;
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.ScheduledTransfersRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScheduledTransferServiceImpl class responsible for future-dated and recurring transfers.
+ * Pending schedules live in a hierarchical timing wheel, so creating, cancelling and firing a
+ * schedule is O(1) regardless of how many are pending. A single ticker thread advances the wheel
+ * and fires due schedules in batches: it records each firing in the journal first and then hands
+ * the sagas to the transfer saga executor, so a crash may skip an occurrence but never repeats it,
+ * and a slow saga does not hold up the other due schedules. Journal writes that follow a change to
+ * the pending schedules are made under the same lock, so the journal records the changes in the
+ * order they happened and a cancelled schedule is never written back by a firing.
+ * This class implements the ScheduledTransferService interface.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class ScheduledTransferServiceImpl implements ScheduledTransferService {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_LEVELS = 5;
+
+    private final TransferSagaService transferSagaService;
+    private final ScheduledTransfersRepository scheduledTransfersRepository;
+    private final Executor sagaExecutor;
+    private final long tickMillis;
+    private final int batchSize;
+    private final HierarchicalTimingWheel<ScheduledTransfer> wheel;
+    private final Map<String, HierarchicalTimingWheel.Timeout<ScheduledTransfer>> pending = new HashMap<>();
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Constructs a new ScheduledTransferServiceImpl and re-arms the persisted schedules.
+     * @param transferSagaService The service used to execute due transfers.
+     * @param scheduledTransfersRepository The repository persisting pending schedules.
+     * @param sagaExecutor The executor running the sagas of due transfers.
+     * @param tickMillis The resolution of the timing wheel in milliseconds.
+     * @param batchSize The maximum number of due transfers fired per batch.
+     */
+    @Autowired
+    public ScheduledTransferServiceImpl(TransferSagaService transferSagaService,
+                                        ScheduledTransfersRepository scheduledTransfersRepository,
+                                        @Qualifier(AsyncTransferConfig.TRANSFER_SAGA_EXECUTOR) Executor sagaExecutor,
+                                        @Value("${transfers.schedule.tick-millis:100}") long tickMillis,
+                                        @Value("${transfers.schedule.batch-size:500}") int batchSize) {
+        this.transferSagaService = transferSagaService;
+        this.scheduledTransfersRepository = scheduledTransfersRepository;
+        this.sagaExecutor = sagaExecutor;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+        synchronized (wheel) {
+            for (ScheduledTransfer scheduledTransfer : scheduledTransfersRepository.loadAll()) {
+                arm(scheduledTransfer);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transfer-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                log.error("Scheduled transfer tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules a transfer for a future time, optionally repeating it at a fixed interval.
+     * @param accountFromId The ID of the account to debit.
+     * @param accountToId The ID of the account to credit.
+     * @param amount The amount to transfer on each execution.
+     * @param firstExecution The time of the first execution.
+     * @param intervalSeconds The interval between executions, or zero for a one-shot transfer.
+     * @return The created schedule.
+     * @throws IllegalArgumentException if the schedule details are invalid.
+     */
+    @Override
+    public ScheduledTransfer scheduleTransfer(String accountFromId, String accountToId, BigDecimal amount,
+                                              Instant firstExecution, long intervalSeconds) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("The amount to transfer must be a positive number");
+        }
+        if (accountFromId == null || accountToId == null || firstExecution == null || intervalSeconds < 0) {
+            throw new IllegalArgumentException("Invalid schedule details provided");
+        }
+
+        ScheduledTransfer scheduledTransfer = new ScheduledTransfer(UUID.randomUUID().toString(),
+                accountFromId, accountToId, amount, firstExecution, intervalSeconds);
+        // Persist before arming so an acknowledged schedule always survives a restart
+        scheduledTransfersRepository.saveAll(Collections.singletonList(scheduledTransfer));
+        synchronized (wheel) {
+            arm(scheduledTransfer);
+        }
+        log.info("Scheduled transfer {} - Amount: {} from Account {} to Account {} at {}", scheduledTransfer.getScheduleId(),
+                amount, accountFromId, accountToId, firstExecution);
+        return scheduledTransfer;
+    }
+
+    @Override
+    public List<ScheduledTransfer> getScheduledTransfers() {
+        List<ScheduledTransfer> scheduledTransfers = new ArrayList<>();
+        synchronized (wheel) {
+            for (HierarchicalTimingWheel.Timeout<ScheduledTransfer> timeout : pending.values()) {
+                scheduledTransfers.add(timeout.getTask());
+            }
+        }
+        return scheduledTransfers;
+    }
+
+    @Override
+    public boolean cancelScheduledTransfer(String scheduleId) {
+        synchronized (wheel) {
+            HierarchicalTimingWheel.Timeout<ScheduledTransfer> timeout = pending.remove(scheduleId);
+            if (timeout == null) {
+                return false;
+            }
+            wheel.cancel(timeout);
+            scheduledTransfersRepository.deleteAll(Collections.singletonList(scheduleId));
+        }
+        log.info("Cancelled scheduled transfer {}", scheduleId);
+        return true;
+    }
+
+    /**
+     * Advances the timing wheel and fires every schedule that is due, in batches.
+     * @param nowMillis The current wall-clock time.
+     * @return The number of schedules fired.
+     */
+    int tick(long nowMillis) {
+        List<ScheduledTransfer> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advanceTo(nowMillis, due::add);
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            fireBatch(due.subList(from, Math.min(from + batchSize, due.size())), nowMillis);
+        }
+        return due.size();
+    }
+
+    private void fireBatch(List<ScheduledTransfer> batch, long nowMillis) {
+        List<ScheduledTransfer> firing = new ArrayList<>(batch.size());
+        List<ScheduledTransfer> rearmed = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        synchronized (wheel) {
+            for (ScheduledTransfer scheduledTransfer : batch) {
+                HierarchicalTimingWheel.Timeout<ScheduledTransfer> timeout = pending.get(scheduledTransfer.getScheduleId());
+                if (timeout == null || timeout.isPending()) {
+                    // Cancelled since the wheel handed it out
+                    continue;
+                }
+                firing.add(scheduledTransfer);
+                if (scheduledTransfer.isRecurring()) {
+                    scheduledTransfer.setNextExecution(nextExecution(scheduledTransfer, nowMillis));
+                    arm(scheduledTransfer);
+                    rearmed.add(scheduledTransfer);
+                } else {
+                    pending.remove(scheduledTransfer.getScheduleId());
+                    completed.add(scheduledTransfer.getScheduleId());
+                }
+            }
+            // Record the firings before running them, so a restart never fires the same occurrence twice
+            scheduledTransfersRepository.saveAll(rearmed);
+            scheduledTransfersRepository.deleteAll(completed);
+        }
+
+        for (ScheduledTransfer scheduledTransfer : firing) {
+            Runnable saga = () -> fire(scheduledTransfer);
+            try {
+                sagaExecutor.execute(saga);
+            } catch (RejectedExecutionException e) {
+                // The saga queue is full; run it here, which slows the ticker down to the pace of the sagas
+                saga.run();
+            }
+        }
+        log.info("Fired batch of {} scheduled transfers", firing.size());
+    }
+
+    private void fire(ScheduledTransfer scheduledTransfer) {
+        try {
+            transferSagaService.initiateTransferSaga(scheduledTransfer.getAccountFromId(),
+                    scheduledTransfer.getAccountToId(), scheduledTransfer.getAmount());
+        } catch (InsufficientFundsException | RuntimeException e) {
+            log.warn("Scheduled transfer {} failed: {}", scheduledTransfer.getScheduleId(), e.getMessage());
+        }
+    }
+
+    private void arm(ScheduledTransfer scheduledTransfer) {
+        pending.put(scheduledTransfer.getScheduleId(),
+                wheel.schedule(scheduledTransfer, scheduledTransfer.getNextExecution().toEpochMilli()));
+    }
+
+    private static Instant nextExecution(ScheduledTransfer scheduledTransfer, long nowMillis) {
+        // Standing orders missed while the service was down run once, then resume on their cadence
+        long intervalMillis = TimeUnit.SECONDS.toMillis(scheduledTransfer.getIntervalSeconds());
+        long next = scheduledTransfer.getNextExecution().toEpochMilli() + intervalMillis;
+        if (next <= nowMillis) {
+            next += ((nowMillis - next) / intervalMillis + 1) * intervalMillis;
+        }
+        return Instant.ofEpochMilli(next);
+    }
+}
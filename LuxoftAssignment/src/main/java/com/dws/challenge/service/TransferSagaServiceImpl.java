@@ -1,6 +1,7 @@
 package com.dws.challenge.service;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferLeg;
 import com.dws.challenge.exception.InsufficientFundsException;
 import com.dws.challenge.exception.TransferSagaException;
 import com.dws.challenge.repository.AccountsRepository;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * TransferSagaServiceImpl class responsible for managing the transfer saga.
@@ -57,4 +59,26 @@ public class TransferSagaServiceImpl implements TransferSagaService {
 
             log.info("Transfer saga completed - Amount: {} transferred from Account {} to Account {}", amount, accountFromId, accountToId);
         }
+
+    /**
+     * Initiates a multi-leg transfer saga, debiting one account and crediting every leg atomically.
+     * @param accountFromId The ID of the account debited for the total of all legs.
+     * @param legs The credits to apply.
+     * @throws InsufficientFundsException if the debited account cannot cover the total of all legs.
+     */
+    @Override
+    public void initiateMultiLegTransferSaga(String accountFromId, List<TransferLeg> legs) throws InsufficientFundsException {
+        // Perform transfer
+        transferService.transferMultiLeg(accountFromId, legs);
+
+        // Send notifications
+        BigDecimal total = BigDecimal.ZERO;
+        for (TransferLeg leg : legs) {
+            notificationService.notifyAboutTransfer(accountsRepository.getAccount(leg.getAccountToId()), "Transfer from " + accountFromId, leg.getAmount());
+            total = total.add(leg.getAmount());
+        }
+        notificationService.notifyAboutTransfer(accountsRepository.getAccount(accountFromId), "Transfer to " + legs.size() + " accounts", total);
+
+        log.info("Multi-leg transfer saga completed - Amount: {} transferred from Account {} in {} legs", total, accountFromId, legs.size());
+    }
 }
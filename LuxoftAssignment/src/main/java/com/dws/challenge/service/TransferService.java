@@ -1,10 +1,14 @@
 package com.dws.challenge.service;
 
+import com.dws.challenge.domain.TransferLeg;
 import com.dws.challenge.exception.InsufficientFundsException;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface TransferService {
     void transfer(String accountFromId, String accountToId, BigDecimal amount) throws InsufficientFundsException;
+
+    void transferMultiLeg(String accountFromId, List<TransferLeg> legs) throws InsufficientFundsException;
 }
 
@@ -1,19 +1,29 @@
 package com.dws.challenge.service;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferLeg;
 import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
 import com.dws.challenge.repository.AccountsRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 /**
  * TransferServiceImpl class responsible for transferring money between accounts.
+ * Transfers the debited account clearly cannot cover are rejected from an optimistic, lock-free
+ * read of its balance, so declined attempts do not contend for locks with successful ones;
+ * the locks are only taken to check and commit a transfer that may succeed. A sample of transfers
+ * reports its lock wait and hold times to the ContentionProfiler. Funds reserved by open holds
+ * cannot be transferred; they are checked under the same locks.
  * This class implements the TransferService interface.
  */
 @Service
@@ -21,14 +31,35 @@ import java.util.concurrent.ConcurrentHashMap;
 public class TransferServiceImpl implements TransferService {
 
     private final AccountsRepository accountsRepository;
-    private final Map<String, Object> accountLocks = new ConcurrentHashMap<>();
+    private final AccountLocks accountLocks;
+    private final ConservationLedger conservationLedger;
+    private final BalanceChangeFeed balanceChangeFeed;
+    private final boolean optimisticPrecheck;
+    private final ContentionProfiler contentionProfiler;
+    private final FundHoldRegistry fundHoldRegistry;
+
     /**
-     * Constructs a new TransferServiceImpl with the specified AccountsRepository.
+     * Constructs a new TransferServiceImpl with the specified dependencies.
      * @param accountsRepository The repository used to retrieve account information.
+     * @param accountLocks The locks guarding account balances.
+     * @param conservationLedger The ledger keeping the running money checksum.
+     * @param balanceChangeFeed The feed receiving committed balance changes.
+     * @param optimisticPrecheck Whether to reject clearly insufficient transfers before locking.
+     * @param contentionProfiler The profiler sampling lock wait and hold times per account.
+     * @param fundHoldRegistry The registry of funds reserved by open holds.
      */
     @Autowired
-    public TransferServiceImpl(AccountsRepository accountsRepository) {
+    public TransferServiceImpl(AccountsRepository accountsRepository, AccountLocks accountLocks,
+                               ConservationLedger conservationLedger, BalanceChangeFeed balanceChangeFeed,
+                               @Value("${transfers.optimistic-precheck:true}") boolean optimisticPrecheck,
+                               ContentionProfiler contentionProfiler, FundHoldRegistry fundHoldRegistry) {
         this.accountsRepository = accountsRepository;
+        this.accountLocks = accountLocks;
+        this.conservationLedger = conservationLedger;
+        this.balanceChangeFeed = balanceChangeFeed;
+        this.optimisticPrecheck = optimisticPrecheck;
+        this.contentionProfiler = contentionProfiler;
+        this.fundHoldRegistry = fundHoldRegistry;
     }
 
     /**
@@ -56,6 +87,140 @@ public class TransferServiceImpl implements TransferService {
         performTransfer(accountFrom, accountTo, amount);
     }
 
+    /**
+     * Performs a multi-leg transfer, debiting one account once and crediting every leg atomically.
+     * Legs to the same account are merged, all involved accounts are locked once in lock stripe order,
+     * and either every leg is applied or none is.
+     * @param accountFromId The ID of the account to debit for the total of all legs.
+     * @param legs The credits to apply.
+     * @throws InsufficientFundsException if the debited account cannot cover the total of all legs.
+     * @throws IllegalArgumentException if a leg is invalid or an account cannot be found.
+     */
+    @Override
+    @Transactional
+    public void transferMultiLeg(String accountFromId, List<TransferLeg> legs) throws InsufficientFundsException {
+        if (legs == null || legs.isEmpty()) {
+            throw new IllegalArgumentException("A multi-leg transfer needs at least one leg");
+        }
+
+        // Sort the legs by destination so legs to the same account are adjacent
+        TransferLeg[] sortedLegs = legs.toArray(new TransferLeg[0]);
+        for (TransferLeg leg : sortedLegs) {
+            if (leg == null || leg.getAccountToId() == null || leg.getAmount() == null) {
+                throw new IllegalArgumentException("Invalid account details provided");
+            }
+            if (leg.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("The amount to transfer must be a positive number");
+            }
+            if (leg.getAccountToId().equals(accountFromId)) {
+                throw new IllegalArgumentException("A multi-leg transfer cannot credit the account it debits");
+            }
+        }
+        Arrays.sort(sortedLegs, Comparator.comparing(TransferLeg::getAccountToId));
+
+        // Merge legs to the same account
+        Account[] creditedAccounts = new Account[sortedLegs.length];
+        BigDecimal[] credits = new BigDecimal[sortedLegs.length];
+        int credited = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (TransferLeg leg : sortedLegs) {
+            if (credited > 0 && creditedAccounts[credited - 1].getAccountId().equals(leg.getAccountToId())) {
+                credits[credited - 1] = credits[credited - 1].add(leg.getAmount());
+            } else {
+                creditedAccounts[credited] = loadAccount(leg.getAccountToId());
+                credits[credited] = leg.getAmount();
+                credited++;
+            }
+            total = total.add(leg.getAmount());
+        }
+        Account accountFrom = loadAccount(accountFromId);
+
+        performMultiLegTransfer(accountFrom, creditedAccounts, credits, credited, total);
+    }
+
+    private void performMultiLegTransfer(Account accountFrom, Account[] creditedAccounts, BigDecimal[] credits,
+                                         int credited, BigDecimal total) throws InsufficientFundsException {
+        if (clearlyInsufficient(accountFrom, total)) {
+            throw new InsufficientFundsException("Insufficient funds in account: " + accountFrom.getAccountId());
+        }
+
+        // Lock every stripe involved once, in ascending stripe order
+        int[] stripes = new int[credited + 1];
+        stripes[0] = accountLocks.stripeOf(accountFrom.getAccountId());
+        for (int i = 0; i < credited; i++) {
+            stripes[i + 1] = accountLocks.stripeOf(creditedAccounts[i].getAccountId());
+        }
+        Arrays.sort(stripes);
+        Lock[] locks = new Lock[stripes.length];
+        int lockCount = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                locks[lockCount++] = accountLocks.lockAt(stripes[i]);
+            }
+        }
+
+        int locked = 0;
+        try {
+            while (locked < lockCount) {
+                locks[locked].lock();
+                locked++;
+            }
+
+            if (availableBalance(accountFrom).compareTo(total) < 0) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + accountFrom.getAccountId());
+            }
+
+            Account[] changed = Arrays.copyOf(creditedAccounts, credited + 1);
+            changed[credited] = accountFrom;
+            conservationLedger.beforeBalanceChanges(changed);
+            accountFrom.setBalance(accountFrom.getBalance().subtract(total));
+            for (int i = 0; i < credited; i++) {
+                creditedAccounts[i].setBalance(creditedAccounts[i].getBalance().add(credits[i]));
+            }
+            conservationLedger.recordTransfer();
+            balanceChangeFeed.publish(accountFrom);
+            for (int i = 0; i < credited; i++) {
+                balanceChangeFeed.publish(creditedAccounts[i]);
+            }
+
+            log.info("Multi-leg transfer completed - Amount: {} transferred from Account {} to {} accounts", total, accountFrom.getAccountId(), credited);
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Checks without locking whether an account cannot cover an amount.
+     * The balance is only trusted if no lock holder touched the account's stripe while it was read,
+     * which makes a rejection here as valid as one made under the lock. Held funds are read in the
+     * same window; a hold that has expired but is still recorded counts as nothing held.
+     * @param account The account to debit.
+     * @param amount The amount to debit.
+     * @return true if the transfer is certain to fail, false if it must be checked under the lock.
+     */
+    private boolean clearlyInsufficient(Account account, BigDecimal amount) {
+        if (!optimisticPrecheck) {
+            return false;
+        }
+        int stripe = accountLocks.stripeOf(account.getAccountId());
+        long stamp = accountLocks.tryOptimisticRead(stripe);
+        if (stamp == 0) {
+            return false;
+        }
+        BigDecimal balance = account.getBalance().subtract(fundHoldRegistry.peekHeldAmount(account.getAccountId()));
+        return accountLocks.validate(stripe, stamp) && balance.compareTo(amount) < 0;
+    }
+
+    /**
+     * Returns the part of an account's balance not reserved by open holds.
+     * Must be called while holding the account's lock.
+     */
+    private BigDecimal availableBalance(Account account) {
+        return account.getBalance().subtract(fundHoldRegistry.heldAmount(account.getAccountId()));
+    }
+
     private Account loadAccount(String accountId) {
         Account account = accountsRepository.getAccount(accountId);
         if (account == null) {
@@ -74,25 +239,50 @@ public class TransferServiceImpl implements TransferService {
      * @throws IllegalArgumentException if the provided account IDs are invalid or if the accounts cannot be found.
      */
     private void performTransfer(Account accountFrom, Account accountTo, BigDecimal amount) throws InsufficientFundsException {
+        if (clearlyInsufficient(accountFrom, amount)) {
+            throw new InsufficientFundsException("Insufficient funds in account: " + accountFrom.getAccountId());
+        }
+
         // Ensure consistent lock acquisition order to prevent deadlocks
-        String lockKey1 = accountFrom.getAccountId().compareTo(accountTo.getAccountId()) < 0 ? accountFrom.getAccountId() : accountTo.getAccountId();
-        String lockKey2 = accountFrom.getAccountId().compareTo(accountTo.getAccountId()) < 0 ? accountTo.getAccountId() : accountFrom.getAccountId();
+        int stripeFrom = accountLocks.stripeOf(accountFrom.getAccountId());
+        int stripeTo = accountLocks.stripeOf(accountTo.getAccountId());
 
-        Object lock1 = accountLocks.computeIfAbsent(lockKey1, k -> new Object());
-        Object lock2 = accountLocks.computeIfAbsent(lockKey2, k -> new Object());
+        Lock lock1 = accountLocks.lockAt(Math.min(stripeFrom, stripeTo));
+        Lock lock2 = accountLocks.lockAt(Math.max(stripeFrom, stripeTo));
 
-        synchronized (lock1) {
-            synchronized (lock2) {
-                if (accountFrom.getBalance().compareTo(amount) < 0) {
+        // Only sampled transfers read the clock
+        boolean sampled = contentionProfiler.shouldSample();
+        long requestedNanos = sampled ? System.nanoTime() : 0;
+        long acquiredNanos = 0;
+        lock1.lock();
+        try {
+            lock2.lock();
+            if (sampled) {
+                acquiredNanos = System.nanoTime();
+            }
+            try {
+                if (availableBalance(accountFrom).compareTo(amount) < 0) {
                     throw new InsufficientFundsException("Insufficient funds in account: " + accountFrom.getAccountId());
                 }
 
                 // Perform transfer
+                conservationLedger.beforeBalanceChanges(accountFrom, accountTo);
                 accountFrom.setBalance(accountFrom.getBalance().subtract(amount));
                 accountTo.setBalance(accountTo.getBalance().add(amount));
+                conservationLedger.recordTransfer();
+                balanceChangeFeed.publish(accountFrom);
+                balanceChangeFeed.publish(accountTo);
 
                 // Log transfer details
                 log.info("Transfer completed - Amount: {} transferred from Account {} to Account {}", amount, accountFrom.getAccountId(), accountTo.getAccountId());
+            } finally {
+                lock2.unlock();
+            }
+        } finally {
+            lock1.unlock();
+            if (acquiredNanos != 0) {
+                contentionProfiler.record(accountFrom.getAccountId(), accountTo.getAccountId(),
+                        acquiredNanos - requestedNanos, System.nanoTime() - acquiredNanos);
             }
         }
     }
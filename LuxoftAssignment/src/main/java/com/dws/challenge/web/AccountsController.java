@@ -3,6 +3,8 @@ package com.dws.challenge.web;
 import com.dws.challenge.domain.Account;
 import com.dws.challenge.exception.DuplicateAccountIdException;
 import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ReplicationFollower;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,35 +14,55 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.util.Optional;
 
 /**
  * AccountsController class responsible for handling requests related to accounts.
  * This class provides endpoints for creating and retrieving accounts.
+ * On a read replica, reads report the sequence number and staleness they reflect, and a client can
+ * ask for at least the sequence number a write on the primary returned to read its own writes.
  */
 @RestController
 @RequestMapping("/v1/accounts")
 @Slf4j
 public class AccountsController {
 
+  static final String SEQUENCE_HEADER = "X-Sequence";
+
+  static final String MIN_SEQUENCE_HEADER = "X-Min-Sequence";
+
+  static final String STALENESS_HEADER = "X-Staleness-Millis";
+
   private final AccountsService accountsService;
 
+  private final BalanceChangeFeed balanceChangeFeed;
+
+  private final Optional<ReplicationFollower> replicationFollower;
+
   /**
    * Constructs a new AccountsController with the specified AccountsService.
    * @param accountsService The service used to manage accounts.
+   * @param balanceChangeFeed The feed numbering committed balance changes.
+   * @param replicationFollower The follower keeping the accounts up to date, present on a read replica.
    */
   @Autowired
-  public AccountsController(AccountsService accountsService) {
+  public AccountsController(AccountsService accountsService, BalanceChangeFeed balanceChangeFeed,
+    Optional<ReplicationFollower> replicationFollower) {
     this.accountsService = accountsService;
+    this.balanceChangeFeed = balanceChangeFeed;
+    this.replicationFollower = replicationFollower;
   }
 
   /**
    * Handles the creation of a new account.
    * @param account The account to be created, provided in the request body.
-   * @return ResponseEntity containing the HTTP status code and response body.
+   * @return ResponseEntity containing the HTTP status code and response body. The X-Sequence header
+   *         carries the sequence number a replica must reach to reflect the new account.
    */
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<Object> createAccount(@RequestBody @Valid Account account) {
@@ -52,18 +74,41 @@ public class AccountsController {
       return new ResponseEntity<>(daie.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
-    return new ResponseEntity<>(HttpStatus.CREATED);
+    return ResponseEntity.status(HttpStatus.CREATED)
+      .header(SEQUENCE_HEADER, String.valueOf(this.balanceChangeFeed.currentSequence())).build();
   }
 
   /**
    * Retrieves the account with the specified ID.
    * @param accountId The ID of the account to retrieve, provided as a path variable.
-   * @return The account with the specified ID.
+   * @param minSequence On a replica, the sequence number the read must reflect at least.
+   * @return ResponseEntity with the account with the specified ID. The X-Sequence header carries the
+   *         sequence number the read reflects; on a replica, X-Staleness-Millis tells how far it is
+   *         behind the primary. A replica answers 503 when it cannot reach the requested sequence
+   *         number in time, or, without one, when it is staler than its bound.
    */
   @GetMapping(path = "/{accountId}")
-  public Account getAccount(@PathVariable String accountId) {
+  public ResponseEntity<Account> getAccount(@PathVariable String accountId,
+    @RequestHeader(name = MIN_SEQUENCE_HEADER, required = false) Long minSequence) {
     log.info("Retrieving account for id {}", accountId);
-    return this.accountsService.getAccount(accountId);
+
+    if (this.replicationFollower.isEmpty()) {
+      long sequence = this.balanceChangeFeed.currentSequence();
+      return ResponseEntity.ok().header(SEQUENCE_HEADER, String.valueOf(sequence))
+        .body(this.accountsService.getAccount(accountId));
+    }
+
+    ReplicationFollower follower = this.replicationFollower.get();
+    boolean readable = minSequence != null ? follower.awaitSequence(minSequence) : follower.isWithinStalenessBound();
+    // Read the sequence first: the account reflects at least every change up to it
+    long sequence = follower.getSequence();
+    String staleness = String.valueOf(follower.getStalenessMillis());
+    if (!readable) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(SEQUENCE_HEADER, String.valueOf(sequence))
+        .header(STALENESS_HEADER, staleness).build();
+    }
+    return ResponseEntity.ok().header(SEQUENCE_HEADER, String.valueOf(sequence)).header(STALENESS_HEADER, staleness)
+      .body(this.accountsService.getAccount(accountId));
   }
 
 }
@@ -0,0 +1,138 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.service.AsyncTransferService;
+import com.dws.challenge.service.BalanceChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AsyncTransferController class for initiating money transfers without holding a servlet thread.
+ * The saga runs on the transfer saga executor and the response is written when it completes,
+ * so the number of transfers in flight is not capped by the servlet thread pool.
+ */
+@RestController
+@RequestMapping("/api/transfers/async")
+public class AsyncTransferController {
+
+    static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    static final String SEQUENCE_HEADER = "X-Sequence";
+
+    private final AsyncTransferService asyncTransferService;
+    private final BalanceChangeFeed balanceChangeFeed;
+    private final long timeoutMillis;
+
+    /**
+     * Constructs a new AsyncTransferController with the specified AsyncTransferService.
+     * @param asyncTransferService The service running transfer sagas asynchronously.
+     * @param balanceChangeFeed The feed numbering committed balance changes.
+     * @param timeoutMillis The time after which a request is answered even if its saga has not finished.
+     */
+    @Autowired
+    public AsyncTransferController(AsyncTransferService asyncTransferService, BalanceChangeFeed balanceChangeFeed,
+                                   @Value("${transfers.async.timeout-millis:30000}") long timeoutMillis) {
+        this.asyncTransferService = asyncTransferService;
+        this.balanceChangeFeed = balanceChangeFeed;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Initiates a money transfer from one account to another and answers once the saga completes.
+     * If the request times out before its saga started, the saga is cancelled and the transfer is not
+     * applied; if the saga is already running, it completes in the background.
+     * @param accountFromId The ID of the account from which the transfer is initiated.
+     * @param accountToId The ID of the account to which the transfer is made.
+     * @param amount The amount of money to transfer.
+     * @param requestId An ID to cancel the request with; generated when absent.
+     * @return DeferredResult with a success message, or an error message if the transfer fails,
+     *         is cancelled, times out or cannot be queued. The X-Request-Id header carries the request ID;
+     *         on success, the X-Sequence header carries the sequence number a replica must reach to
+     *         reflect the transfer.
+     */
+    @PostMapping("/initiate")
+    public DeferredResult<ResponseEntity<String>> initiateTransfer(@RequestParam String accountFromId,
+                                                                   @RequestParam String accountToId,
+                                                                   @RequestParam BigDecimal amount,
+                                                                   @RequestParam(required = false) String requestId) {
+        String id = requestId == null || requestId.isEmpty() ? UUID.randomUUID().toString() : requestId;
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>(timeoutMillis);
+
+        CompletableFuture<Void> saga;
+        try {
+            saga = asyncTransferService.submitTransfer(id, accountFromId, accountToId, amount);
+        } catch (IllegalArgumentException e) {
+            result.setResult(respond(id, HttpStatus.BAD_REQUEST, e.getMessage()));
+            return result;
+        }
+
+        AtomicBoolean timedOut = new AtomicBoolean();
+        result.onTimeout(() -> {
+            timedOut.set(true);
+            // A cancelled saga completes its future right away, which answers the request
+            if (!asyncTransferService.cancelTransfer(id)) {
+                result.setResult(respond(id, HttpStatus.ACCEPTED, "Transfer is still in progress"));
+            }
+        });
+        // The client went away; drop the saga if it has not started yet
+        result.onError(error -> asyncTransferService.cancelTransfer(id));
+        saga.whenComplete((ignored, failure) -> result.setResult(toResponse(id, failure, timedOut.get())));
+        return result;
+    }
+
+    /**
+     * Cancels a transfer request whose saga has not started yet.
+     * @param requestId The ID of the request.
+     * @return ResponseEntity with no content if the request was cancelled, or a conflict if it is
+     *         unknown, already running or done.
+     */
+    @DeleteMapping(path = "/{requestId}")
+    public ResponseEntity<String> cancelTransfer(@PathVariable String requestId) {
+        if (asyncTransferService.cancelTransfer(requestId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Transfer request " + requestId + " is not waiting to start");
+    }
+
+    private ResponseEntity<String> toResponse(String requestId, Throwable failure, boolean timedOut) {
+        if (failure == null) {
+            // Read right after the saga completed, so it covers the transfer's balance changes
+            return ResponseEntity.ok().header(REQUEST_ID_HEADER, requestId)
+                    .header(SEQUENCE_HEADER, String.valueOf(balanceChangeFeed.currentSequence()))
+                    .body("Transfer initiated successfully");
+        }
+        if (failure instanceof InsufficientFundsException || failure instanceof IllegalArgumentException) {
+            return respond(requestId, HttpStatus.BAD_REQUEST, failure.getMessage());
+        }
+        if (failure instanceof CancellationException && timedOut) {
+            return respond(requestId, HttpStatus.SERVICE_UNAVAILABLE, "Transfer timed out before it started and was not applied");
+        }
+        if (failure instanceof CancellationException) {
+            return respond(requestId, HttpStatus.CONFLICT, "Transfer request " + requestId + " was cancelled");
+        }
+        if (failure instanceof RejectedExecutionException) {
+            return respond(requestId, HttpStatus.SERVICE_UNAVAILABLE, "Too many transfers in progress, try again later");
+        }
+        return respond(requestId, HttpStatus.INTERNAL_SERVER_ERROR, "Transfer failed: " + failure.getMessage());
+    }
+
+    private static ResponseEntity<String> respond(String requestId, HttpStatus status, String body) {
+        return ResponseEntity.status(status).header(REQUEST_ID_HEADER, requestId).body(body);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.AuditReport;
+import com.dws.challenge.service.ConservationAuditor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * AuditController class exposing the money-conservation audit.
+ * This controller provides endpoints for reading the latest audit report and running an audit on demand.
+ */
+@RestController
+@RequestMapping("/v1/audit")
+public class AuditController {
+
+    private final ConservationAuditor conservationAuditor;
+
+    /**
+     * Constructs a new AuditController with the specified ConservationAuditor.
+     * @param conservationAuditor The auditor checking money conservation.
+     */
+    @Autowired
+    public AuditController(ConservationAuditor conservationAuditor) {
+        this.conservationAuditor = conservationAuditor;
+    }
+
+    /**
+     * Returns the report of the most recent audit pass.
+     * @return ResponseEntity with the latest report, or no content if no audit has run yet.
+     */
+    @GetMapping
+    public ResponseEntity<AuditReport> getLastReport() {
+        AuditReport report = conservationAuditor.getLastReport();
+        if (report == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Runs an audit pass immediately.
+     * @return ResponseEntity with the report of the pass.
+     */
+    @PostMapping("/run")
+    public ResponseEntity<AuditReport> runAudit() {
+        return ResponseEntity.ok(conservationAuditor.audit());
+    }
+}
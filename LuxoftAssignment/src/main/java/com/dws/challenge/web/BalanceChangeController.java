@@ -0,0 +1,125 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.BalanceChangeEvent;
+import com.dws.challenge.service.BalanceChangeFeed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BalanceChangeController class streaming balance changes to clients over Server-Sent Events.
+ * Rapid changes to the same account are merged for slow clients, so the stream never pushes
+ * back on transfers. Writes to a client run on their own threads and are bounded by a timeout;
+ * a client that stops reading is disconnected instead of holding up the feed's delivery threads,
+ * which every stream shares.
+ */
+@RestController
+@RequestMapping("/v1/balance-changes")
+@Slf4j
+public class BalanceChangeController {
+
+    private final BalanceChangeFeed balanceChangeFeed;
+    private final long streamTimeoutMillis;
+    private final long sendTimeoutMillis;
+    private final ExecutorService sender;
+
+    /**
+     * Constructs a new BalanceChangeController with the specified BalanceChangeFeed.
+     * @param balanceChangeFeed The feed publishing committed balance changes.
+     * @param streamTimeoutMillis The time after which a stream is closed and the client must reconnect.
+     * @param sendTimeoutMillis The time a client may take to accept a batch of changes before it is disconnected.
+     */
+    @Autowired
+    public BalanceChangeController(BalanceChangeFeed balanceChangeFeed,
+                                   @Value("${transfers.feed.stream-timeout-millis:1800000}") long streamTimeoutMillis,
+                                   @Value("${transfers.feed.send-timeout-millis:5000}") long sendTimeoutMillis) {
+        this.balanceChangeFeed = balanceChangeFeed;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "balance-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Streams balance changes of the selected accounts.
+     * Without any accountId or prefix, changes of every account are streamed.
+     * @param accountIds The IDs of the accounts to follow.
+     * @param prefixes The account id prefixes to follow.
+     * @return The event stream; each event carries the change's sequence number as its id.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalanceChanges(@RequestParam(name = "accountId", required = false) List<String> accountIds,
+                                           @RequestParam(name = "prefix", required = false) List<String> prefixes) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        BalanceChangeFeed.Subscription subscription = balanceChangeFeed.subscribe(
+                accountIds == null ? Collections.emptyList() : accountIds,
+                prefixes == null ? Collections.emptyList() : prefixes,
+                batch -> send(emitter, batch));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        log.info("Balance change stream opened for accounts {} and prefixes {}", accountIds, prefixes);
+        return emitter;
+    }
+
+    /**
+     * Sends a batch to a client, waiting at most the send timeout. A failure or timeout ends the
+     * stream, and the exception thrown here cancels the subscription.
+     */
+    private void send(SseEmitter emitter, List<BalanceChangeEvent> batch) {
+        Future<?> sending = sender.submit(() -> {
+            for (BalanceChangeEvent event : batch) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.getSequence()))
+                        .name("balance")
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+            return null;
+        });
+        try {
+            sending.get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            sending.cancel(true);
+            emitter.completeWithError(e);
+            throw new IllegalStateException("Client did not accept balance changes within " + sendTimeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            emitter.completeWithError(e.getCause());
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            sending.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending balance changes");
+        }
+    }
+}
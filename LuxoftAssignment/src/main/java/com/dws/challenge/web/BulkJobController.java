@@ -0,0 +1,105 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.BulkAdjustmentType;
+import com.dws.challenge.domain.BulkJobStatus;
+import com.dws.challenge.service.BulkAdjustmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * BulkJobController class for running fees, interest and corrections over many accounts.
+ * This controller provides endpoints for starting, monitoring, pausing and resuming bulk jobs.
+ */
+@RestController
+@RequestMapping("/api/bulk-jobs")
+public class BulkJobController {
+
+    private final BulkAdjustmentService bulkAdjustmentService;
+
+    /**
+     * Constructs a new BulkJobController with the specified BulkAdjustmentService.
+     * @param bulkAdjustmentService The service running bulk jobs.
+     */
+    @Autowired
+    public BulkJobController(BulkAdjustmentService bulkAdjustmentService) {
+        this.bulkAdjustmentService = bulkAdjustmentService;
+    }
+
+    /**
+     * Starts a bulk job.
+     * @param type The kind of adjustment: FEE, INTEREST or CORRECTION.
+     * @param value The fee amount, the interest rate in percent, or the signed correction amount.
+     * @param accountIdPrefix The prefix of the account ids to adjust; absent for all accounts.
+     * @return ResponseEntity with the status of the started job, or an error message if the details are invalid.
+     */
+    @PostMapping
+    public ResponseEntity<Object> startJob(@RequestParam BulkAdjustmentType type,
+                                           @RequestParam BigDecimal value,
+                                           @RequestParam(required = false) String accountIdPrefix) {
+        try {
+            return new ResponseEntity<>(bulkAdjustmentService.startJob(type, value, accountIdPrefix), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Lists all bulk jobs, oldest first.
+     * @return The status of each job.
+     */
+    @GetMapping
+    public List<BulkJobStatus> getJobs() {
+        return bulkAdjustmentService.getJobs();
+    }
+
+    /**
+     * Retrieves the progress of a bulk job.
+     * @param jobId The ID of the job.
+     * @return ResponseEntity with the status of the job, or not found.
+     */
+    @GetMapping(path = "/{jobId}")
+    public ResponseEntity<BulkJobStatus> getJob(@PathVariable String jobId) {
+        BulkJobStatus status = bulkAdjustmentService.getJob(jobId);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    /**
+     * Pauses a running bulk job after its current batches.
+     * @param jobId The ID of the job.
+     * @return ResponseEntity with the status of the job, or an error message if it is not running.
+     */
+    @PostMapping(path = "/{jobId}/pause")
+    public ResponseEntity<Object> pauseJob(@PathVariable String jobId) {
+        try {
+            BulkJobStatus status = bulkAdjustmentService.pauseJob(jobId);
+            return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Resumes a paused or failed bulk job from its checkpoints.
+     * @param jobId The ID of the job.
+     * @return ResponseEntity with the status of the job, or an error message if it cannot be resumed.
+     */
+    @PostMapping(path = "/{jobId}/resume")
+    public ResponseEntity<Object> resumeJob(@PathVariable String jobId) {
+        try {
+            BulkJobStatus status = bulkAdjustmentService.resumeJob(jobId);
+            return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
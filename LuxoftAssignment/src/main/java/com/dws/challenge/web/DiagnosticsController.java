@@ -0,0 +1,39 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.ContentionReport;
+import com.dws.challenge.service.ContentionProfiler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * DiagnosticsController class exposing runtime diagnostics.
+ * This controller provides an endpoint listing the accounts transfers contend on most.
+ */
+@RestController
+@RequestMapping("/v1/diagnostics")
+public class DiagnosticsController {
+
+    private final ContentionProfiler contentionProfiler;
+
+    /**
+     * Constructs a new DiagnosticsController with the specified ContentionProfiler.
+     * @param contentionProfiler The profiler sampling transfer lock contention.
+     */
+    @Autowired
+    public DiagnosticsController(ContentionProfiler contentionProfiler) {
+        this.contentionProfiler = contentionProfiler;
+    }
+
+    /**
+     * Lists the hottest accounts and their lock contention.
+     * @param windows The number of most recent profiling windows to cover; all kept windows when absent.
+     * @return The contention report.
+     */
+    @GetMapping("/hot-accounts")
+    public ContentionReport getHotAccounts(@RequestParam(required = false) Integer windows) {
+        return contentionProfiler.report(windows == null ? contentionProfiler.getWindowCount() : windows);
+    }
+}
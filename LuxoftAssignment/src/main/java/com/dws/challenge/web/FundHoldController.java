@@ -0,0 +1,109 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.FundHold;
+import com.dws.challenge.domain.HeldBalance;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.service.FundHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+
+/**
+ * FundHoldController class for reserving funds now and capturing or releasing them later.
+ * This controller provides endpoints for authorizing, capturing, releasing and inspecting holds.
+ */
+@RestController
+@RequestMapping("/api/holds")
+public class FundHoldController {
+
+    private final FundHoldService fundHoldService;
+
+    /**
+     * Constructs a new FundHoldController with the specified FundHoldService.
+     * @param fundHoldService The service managing holds.
+     */
+    @Autowired
+    public FundHoldController(FundHoldService fundHoldService) {
+        this.fundHoldService = fundHoldService;
+    }
+
+    /**
+     * Authorizes a hold on an account.
+     * @param accountId The ID of the account to hold funds on.
+     * @param amount The amount to hold.
+     * @param ttlSeconds The lifetime of the hold; the default lifetime when absent.
+     * @return ResponseEntity with the new hold, or an error message if the funds are insufficient
+     *         or the details are invalid.
+     */
+    @PostMapping
+    public ResponseEntity<Object> authorize(@RequestParam String accountId,
+                                            @RequestParam BigDecimal amount,
+                                            @RequestParam(required = false) Long ttlSeconds) {
+        try {
+            return new ResponseEntity<>(fundHoldService.authorize(accountId, amount, ttlSeconds), HttpStatus.CREATED);
+        } catch (InsufficientFundsException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves an open hold.
+     * @param holdId The ID of the hold.
+     * @return ResponseEntity with the hold, or not found if it is not open.
+     */
+    @GetMapping(path = "/{holdId}")
+    public ResponseEntity<FundHold> getHold(@PathVariable String holdId) {
+        FundHold hold = fundHoldService.getHold(holdId);
+        return hold == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(hold);
+    }
+
+    /**
+     * Captures part or all of a hold into another account.
+     * @param holdId The ID of the hold.
+     * @param accountToId The ID of the account to credit.
+     * @param amount The amount to capture; the whole remaining hold when absent.
+     * @return ResponseEntity with the new state of the hold, not found if it is not open, or an
+     *         error message if the funds are insufficient or the details are invalid.
+     */
+    @PostMapping(path = "/{holdId}/capture")
+    public ResponseEntity<Object> capture(@PathVariable String holdId,
+                                          @RequestParam String accountToId,
+                                          @RequestParam(required = false) BigDecimal amount) {
+        try {
+            FundHold hold = fundHoldService.capture(holdId, accountToId, amount);
+            return hold == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(hold);
+        } catch (InsufficientFundsException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Releases a hold.
+     * @param holdId The ID of the hold.
+     * @return ResponseEntity with the released hold, or not found if it is not open.
+     */
+    @PostMapping(path = "/{holdId}/release")
+    public ResponseEntity<FundHold> release(@PathVariable String holdId) {
+        FundHold hold = fundHoldService.release(holdId);
+        return hold == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(hold);
+    }
+
+    /**
+     * Retrieves the balance of an account split into held and available funds.
+     * @param accountId The ID of the account.
+     * @return ResponseEntity with the held balance and open holds, or not found.
+     */
+    @GetMapping
+    public ResponseEntity<HeldBalance> getHeldBalance(@RequestParam String accountId) {
+        HeldBalance heldBalance = fundHoldService.getHeldBalance(accountId);
+        return heldBalance == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(heldBalance);
+    }
+}
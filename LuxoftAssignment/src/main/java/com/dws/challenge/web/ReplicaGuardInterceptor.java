@@ -0,0 +1,46 @@
+package com.dws.challenge.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ReplicaGuardInterceptor class rejecting requests a read replica cannot serve with 405, before
+ * they reach a controller. A replica only holds a copy of the accounts streamed from the primary,
+ * so anything that would change state, or read state that is not replicated, belongs on the primary.
+ */
+public class ReplicaGuardInterceptor implements HandlerInterceptor {
+
+    public static final String READ_ONLY_MESSAGE = "Replicas are read-only; send writes to the primary";
+
+    private final boolean allowReads;
+    private final String message;
+
+    /**
+     * Constructs a new ReplicaGuardInterceptor.
+     * @param allowReads true to let GET, HEAD and OPTIONS requests through; false to reject every request.
+     * @param message The body of the 405 response.
+     */
+    public ReplicaGuardInterceptor(boolean allowReads, String message) {
+        this.allowReads = allowReads;
+        this.message = message;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        String method = request.getMethod();
+        if (allowReads && ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method))) {
+            return true;
+        }
+        response.setStatus(HttpStatus.METHOD_NOT_ALLOWED.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+        return false;
+    }
+}
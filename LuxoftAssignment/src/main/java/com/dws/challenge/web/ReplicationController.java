@@ -0,0 +1,44 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.ReplicationStatus;
+import com.dws.challenge.service.ReplicationFollower;
+import com.dws.challenge.service.ReplicationServer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+/**
+ * ReplicationController class exposing the replication state of this node.
+ * This controller provides an endpoint reporting how far a read replica is behind its primary.
+ */
+@RestController
+@RequestMapping("/v1/replication")
+public class ReplicationController {
+
+    private final ReplicationServer replicationServer;
+    private final Optional<ReplicationFollower> replicationFollower;
+
+    /**
+     * Constructs a new ReplicationController with the specified replication services.
+     * @param replicationServer The server streaming changes to followers.
+     * @param replicationFollower The follower keeping the accounts up to date, present on a read replica.
+     */
+    @Autowired
+    public ReplicationController(ReplicationServer replicationServer, Optional<ReplicationFollower> replicationFollower) {
+        this.replicationServer = replicationServer;
+        this.replicationFollower = replicationFollower;
+    }
+
+    /**
+     * Retrieves the replication status: the sequence number this node reflects and, on a replica,
+     * the primary's latest sequence number and the staleness of its reads.
+     * @return The replication status.
+     */
+    @GetMapping
+    public ReplicationStatus getStatus() {
+        return replicationFollower.map(ReplicationFollower::getStatus).orElseGet(replicationServer::getStatus);
+    }
+}
@@ -0,0 +1,84 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.service.ScheduledTransferService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * ScheduledTransferController class for managing future-dated and recurring transfers.
+ * This controller provides endpoints for creating, listing and cancelling transfer schedules.
+ */
+@RestController
+@RequestMapping("/api/transfers/schedules")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+
+    /**
+     * Constructs a new ScheduledTransferController with the specified ScheduledTransferService.
+     * @param scheduledTransferService The service responsible for scheduling transfers.
+     */
+    @Autowired
+    public ScheduledTransferController(ScheduledTransferService scheduledTransferService) {
+        this.scheduledTransferService = scheduledTransferService;
+    }
+
+    /**
+     * Creates a transfer schedule.
+     * @param accountFromId The ID of the account to debit.
+     * @param accountToId The ID of the account to credit.
+     * @param amount The amount to transfer on each execution.
+     * @param executeAt The ISO-8601 instant of the first execution.
+     * @param intervalSeconds The interval between executions; zero or absent for a one-shot transfer.
+     * @return ResponseEntity with the created schedule, or an error message if the details are invalid.
+     */
+    @PostMapping
+    public ResponseEntity<Object> scheduleTransfer(@RequestParam String accountFromId,
+                                                   @RequestParam String accountToId,
+                                                   @RequestParam BigDecimal amount,
+                                                   @RequestParam Instant executeAt,
+                                                   @RequestParam(defaultValue = "0") long intervalSeconds) {
+        try {
+            ScheduledTransfer scheduledTransfer = scheduledTransferService.scheduleTransfer(accountFromId, accountToId,
+                    amount, executeAt, intervalSeconds);
+            return new ResponseEntity<>(scheduledTransfer, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Lists all pending transfer schedules.
+     * @return The pending schedules.
+     */
+    @GetMapping
+    public List<ScheduledTransfer> getScheduledTransfers() {
+        return scheduledTransferService.getScheduledTransfers();
+    }
+
+    /**
+     * Cancels a pending transfer schedule.
+     * @param scheduleId The ID of the schedule to cancel.
+     * @return ResponseEntity with no content if the schedule was cancelled, or not found otherwise.
+     */
+    @DeleteMapping(path = "/{scheduleId}")
+    public ResponseEntity<Void> cancelScheduledTransfer(@PathVariable String scheduleId) {
+        if (scheduledTransferService.cancelScheduledTransfer(scheduleId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
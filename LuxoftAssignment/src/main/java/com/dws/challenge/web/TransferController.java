@@ -1,34 +1,46 @@
 package com.dws.challenge.web;
 
+import com.dws.challenge.domain.MultiLegTransfer;
 import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.service.BalanceChangeFeed;
 import com.dws.challenge.service.TransferSagaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.validation.Valid;
 import java.math.BigDecimal;
 
 /**
  * TransferController class for managing money transfer operations.
  * This controller provides endpoints for initiating money transfers between accounts.
+ * Successful transfers carry the X-Sequence header, which a read replica can be asked to reach
+ * before answering, so a client reads its own writes.
  */
 @RestController
 @RequestMapping("/api/transfers")
 public class TransferController {
 
+    static final String SEQUENCE_HEADER = "X-Sequence";
+
     private final TransferSagaService transferSagaService;
+    private final BalanceChangeFeed balanceChangeFeed;
 
     /**
      * Constructs a new TransferController with the specified TransferSagaService.
      * @param transferSagaService The TransferSagaService responsible for handling money transfer operations.
+     * @param balanceChangeFeed The feed numbering committed balance changes.
      */
     @Autowired
-    public TransferController(TransferSagaService transferSagaService) {
+    public TransferController(TransferSagaService transferSagaService, BalanceChangeFeed balanceChangeFeed) {
         this.transferSagaService = transferSagaService;
+        this.balanceChangeFeed = balanceChangeFeed;
     }
 
     /**
@@ -45,11 +57,36 @@ public class TransferController {
                                                    @RequestParam BigDecimal amount) {
         try {
             transferSagaService.initiateTransferSaga(accountFromId, accountToId, amount);
-            return ResponseEntity.ok("Transfer initiated successfully");
+            return ResponseEntity.ok().header(SEQUENCE_HEADER, currentSequence()).body("Transfer initiated successfully");
         } catch (InsufficientFundsException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Transfer failed: " + e.getMessage());
         }
     }
+
+    /**
+     * Initiates a multi-leg transfer debiting one account and crediting many, applied atomically.
+     * @param multiLegTransfer The debited account and the credits to apply, provided in the request body.
+     * @return ResponseEntity with a success message if every leg was applied,
+     *         or an error message if the transfer fails due to insufficient funds or invalid legs.
+     */
+    @PostMapping(path = "/multi-leg", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> initiateMultiLegTransfer(@RequestBody @Valid MultiLegTransfer multiLegTransfer) {
+        try {
+            transferSagaService.initiateMultiLegTransferSaga(multiLegTransfer.getAccountFromId(), multiLegTransfer.getLegs());
+            return ResponseEntity.ok().header(SEQUENCE_HEADER, currentSequence()).body("Multi-leg transfer completed successfully");
+        } catch (InsufficientFundsException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Transfer failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the latest sequence number, which covers the balance changes of a transfer that just completed.
+     */
+    private String currentSequence() {
+        return String.valueOf(balanceChangeFeed.currentSequence());
+    }
 }
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,6 +25,7 @@ import org.springframework.web.context.WebApplicationContext;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
+@ActiveProfiles("test")
 @WebAppConfiguration
 class AccountsControllerTest {
 
@@ -40,7 +42,7 @@ class AccountsControllerTest {
     this.mockMvc = webAppContextSetup(this.webApplicationContext).build();
 
     // Reset the existing accounts before each test.
-    accountsService.getAccountsRepository().clearAccounts();
+    accountsService.clearAccounts();
   }
 
   @Test
@@ -0,0 +1,183 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.ChallengeApplication;
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.NotificationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the blocking and the asynchronous transfer endpoints under many concurrent connections
+ * when the notifier is slow. Tomcat gets a small thread pool, so the blocking endpoint is capped by
+ * it while the asynchronous one is only capped by the transfer saga executor.
+ */
+@Tag("benchmark")
+public class AsyncTransferBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int CONNECTIONS = 400;
+    private static final int SERVLET_THREADS = 50;
+    private static final int SAGA_THREADS = 400;
+    private static final long NOTIFIER_DELAY_MILLIS = 20;
+    private static final long PHASE_MILLIS = 10_000;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void throughputAndTailLatencyWithSlowNotifier() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ChallengeApplication.class)
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext).registerBean(
+                        "slowNotifier", NotificationService.class, () -> (account, description, amount) -> sleep(),
+                        definition -> definition.setPrimary(true)))
+                .properties("server.port=0",
+                        "server.tomcat.threads.max=" + SERVLET_THREADS,
+                        "transfers.async.threads=" + SAGA_THREADS,
+                        "transfers.schedule.journal-path=" + workDir.resolve("scheduled-transfers.journal"),
+                        "bulk.journal-path=" + workDir.resolve("bulk-jobs.journal"),
+                        "logging.level.root=WARN")
+                .run();
+        try {
+            AccountsService accountsService = context.getBean(AccountsService.class);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accountsService.createAccount(new Account("Id-" + i, new BigDecimal("1000000000")));
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            // Warm up both endpoints
+            runLoad(port, "/api/transfers/initiate", PHASE_MILLIS / 4);
+            runLoad(port, "/api/transfers/async/initiate", PHASE_MILLIS / 4);
+
+            Result blocking = runLoad(port, "/api/transfers/initiate", PHASE_MILLIS);
+            Result async = runLoad(port, "/api/transfers/async/initiate", PHASE_MILLIS);
+
+            System.out.printf("Transfer endpoints (%d connections, %d servlet threads, %d saga threads, %d ms per notification)%n",
+                    CONNECTIONS, SERVLET_THREADS, SAGA_THREADS, NOTIFIER_DELAY_MILLIS);
+            blocking.print("blocking");
+            async.print("async   ");
+            assertTrue(async.perSecond > blocking.perSecond, "the async endpoint should not be capped by the servlet pool");
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(NOTIFIER_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Keeps CONNECTIONS requests in flight against an endpoint for a while.
+     */
+    private static Result runLoad(int port, String path, long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long[][] latencies = new long[CONNECTIONS][];
+        int[] counts = new int[CONNECTIONS];
+        LongAdder failures = new LongAdder();
+        Thread[] clients = new Thread[CONNECTIONS];
+        for (int c = 0; c < CONNECTIONS; c++) {
+            int client = c;
+            clients[c] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] samples = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    String query = "?accountFromId=Id-" + random.nextInt(ACCOUNTS) + "&accountToId=Id-"
+                            + random.nextInt(ACCOUNTS) + "&amount=1";
+                    long started = System.nanoTime();
+                    if (!post("http://localhost:" + port + path + query)) {
+                        failures.increment();
+                        continue;
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - started;
+                }
+                latencies[client] = samples;
+                counts[client] = count;
+            });
+            clients[c].start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (int c = 0; c < CONNECTIONS; c++) {
+            System.arraycopy(latencies[c], 0, all, position, counts[c]);
+            position += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(all, total * 1000.0 / millis, failures.sum());
+    }
+
+    private static boolean post(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(5_000);
+            connection.setReadTimeout(60_000);
+            int status = connection.getResponseCode();
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (body != null) {
+                    body.readAllBytes();
+                }
+            }
+            return status == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Result class holding the sorted latencies and throughput of one load phase.
+     */
+    private static final class Result {
+
+        private final long[] latencies;
+        private final double perSecond;
+        private final long failures;
+
+        private Result(long[] latencies, double perSecond, long failures) {
+            this.latencies = latencies;
+            this.perSecond = perSecond;
+            this.failures = failures;
+        }
+
+        private void print(String label) {
+            System.out.printf("  %s: %,8.0f transfers/s, p50 %,6.1f ms, p99 %,7.1f ms, p99.9 %,7.1f ms, %d failed%n",
+                    label, perSecond, millis(0.5), millis(0.99), millis(0.999), failures);
+        }
+
+        private double millis(double quantile) {
+            return latencies.length == 0 ? 0 : latencies[(int) (latencies.length * quantile)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.BulkAdjustmentType;
+import com.dws.challenge.domain.BulkJobState;
+import com.dws.challenge.domain.BulkJobStatus;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.repository.BulkJobsRepositoryFile;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.BulkAdjustmentServiceImpl;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures transfer latency with and without a bulk interest job running over every account,
+ * and the throughput of the job itself.
+ */
+@Tag("benchmark")
+public class BulkAdjustmentBenchmark {
+
+    private static final int ACCOUNTS = 1_000_000;
+    private static final int TRANSFER_THREADS = 2;
+    private static final int SAMPLES_PER_THREAD = 200_000;
+
+    @Test
+    void transferLatencyDuringBulkJob() throws IOException, InterruptedException {
+        Path journalDir = Files.createTempDirectory("bulk-benchmark");
+        Path journal = journalDir.resolve("bulk-jobs.journal");
+        AccountsRepository accountsRepository = new AccountsRepositoryInMemory();
+        AccountLocks accountLocks = new AccountLocks();
+        ConservationLedger conservationLedger = new ConservationLedger();
+        BalanceChangeFeed balanceChangeFeed = new BalanceChangeFeed(1);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("Id-" + i, new BigDecimal("1000.00"));
+            conservationLedger.recordAccountCreated(account, () -> accountsRepository.createAccount(account));
+        }
+        FundHoldRegistry fundHoldRegistry = new FundHoldRegistry();
+        TransferServiceImpl transferService = new TransferServiceImpl(accountsRepository, accountLocks,
+                conservationLedger, balanceChangeFeed, true, ContentionProfiler.disabled(), fundHoldRegistry);
+        BulkJobsRepositoryFile bulkJobsRepository = new BulkJobsRepositoryFile(journal.toString(), 100_000);
+        BulkAdjustmentServiceImpl bulkAdjustmentService = new BulkAdjustmentServiceImpl(accountsRepository,
+                accountLocks, conservationLedger, balanceChangeFeed, fundHoldRegistry, bulkJobsRepository, 0, 64, 64, 4096,
+                200);
+        try {
+            // Warm up
+            measureTransfers(transferService, SAMPLES_PER_THREAD / 4);
+
+            long[] idle = measureTransfers(transferService, SAMPLES_PER_THREAD);
+
+            String jobId = bulkAdjustmentService.startJob(BulkAdjustmentType.INTEREST, new BigDecimal("0.5"), null)
+                    .getJobId();
+            long[] duringJob = measureTransfers(transferService, SAMPLES_PER_THREAD);
+            BulkJobStatus status = bulkAdjustmentService.getJob(jobId);
+            while (status.getState() == BulkJobState.RUNNING) {
+                Thread.sleep(10);
+                status = bulkAdjustmentService.getJob(jobId);
+            }
+
+            System.out.printf("Bulk adjustment job (%,d accounts, %d transfer threads)%n", ACCOUNTS, TRANSFER_THREADS);
+            print("transfers, no job      ", idle);
+            print("transfers, job running ", duringJob);
+            System.out.printf("  job throughput          : %,.0f accounts/s, final batch size %d%n",
+                    status.getAccountsPerSecond(), status.getBatchSize());
+            assertEquals(BulkJobState.COMPLETED, status.getState());
+            assertEquals(ACCOUNTS, status.getAccountsAdjusted());
+        } finally {
+            bulkAdjustmentService.stop();
+            bulkJobsRepository.close();
+            balanceChangeFeed.stop();
+            Files.deleteIfExists(journal);
+            Files.deleteIfExists(journalDir);
+        }
+    }
+
+    private static void print(String label, long[] latencies) {
+        System.out.printf("  %s: p50 %,6d ns, p99 %,8d ns, p99.9 %,9d ns, max %,10d ns%n", label,
+                latencies[latencies.length / 2], latencies[(int) (latencies.length * 0.99)],
+                latencies[(int) (latencies.length * 0.999)], latencies[latencies.length - 1]);
+    }
+
+    /**
+     * Runs random transfers on a few threads and returns their sorted latencies.
+     */
+    private static long[] measureTransfers(TransferServiceImpl transferService, int samplesPerThread)
+            throws InterruptedException {
+        long[] latencies = new long[samplesPerThread * TRANSFER_THREADS];
+        Thread[] workers = new Thread[TRANSFER_THREADS];
+        for (int w = 0; w < TRANSFER_THREADS; w++) {
+            int offset = w * samplesPerThread;
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < samplesPerThread; i++) {
+                    long started = System.nanoTime();
+                    try {
+                        transferService.transfer("Id-" + random.nextInt(ACCOUNTS), "Id-" + random.nextInt(ACCOUNTS),
+                                BigDecimal.ONE);
+                    } catch (InsufficientFundsException e) {
+                        // Not expected with these balances, but not part of the measurement either
+                    }
+                    latencies[offset + i] = System.nanoTime() - started;
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+}
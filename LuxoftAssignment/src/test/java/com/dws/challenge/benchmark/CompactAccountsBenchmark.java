@@ -0,0 +1,81 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryCompact;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the heap cost per account and the lookup latency of the compact and in-memory repositories.
+ */
+@Tag("benchmark")
+public class CompactAccountsBenchmark {
+
+    private static final int ACCOUNTS = 2_000_000;
+    private static final int LOOKUPS = 5_000_000;
+
+    @Test
+    void heapPerAccountAndLookupLatency() {
+        String[] accountIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds[i] = "Id-" + i;
+        }
+
+        long before = usedHeap();
+        AccountsRepository inMemory = new AccountsRepositoryInMemory();
+        populate(inMemory);
+        double inMemoryBytes = (usedHeap() - before) / (double) ACCOUNTS;
+        double inMemoryNanos = lookupNanos(inMemory, accountIds);
+        inMemory.clearAccounts();
+
+        before = usedHeap();
+        AccountsRepository compact = new AccountsRepositoryCompact(new AccountLocks());
+        populate(compact);
+        double compactBytes = (usedHeap() - before) / (double) ACCOUNTS;
+        double compactNanos = lookupNanos(compact, accountIds);
+
+        System.out.printf("Compact account storage (%,d accounts)%n", ACCOUNTS);
+        System.out.printf("  in-memory heap per account : %,.0f bytes%n", inMemoryBytes);
+        System.out.printf("  compact heap per account   : %,.0f bytes%n", compactBytes);
+        System.out.printf("  in-memory lookup + balance : %,.0f ns%n", inMemoryNanos);
+        System.out.printf("  compact lookup + balance   : %,.0f ns%n", compactNanos);
+        assertTrue(compactBytes < inMemoryBytes / 2, "compact accounts should take less than half the heap");
+    }
+
+    private static void populate(AccountsRepository accountsRepository) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountsRepository.createAccount(new Account("Id-" + i, new BigDecimal("1000.00")));
+        }
+    }
+
+    private static double lookupNanos(AccountsRepository accountsRepository, String[] accountIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BigDecimal total = BigDecimal.ZERO;
+        // One pass to warm up, one measured
+        long started = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            started = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                total = total.add(accountsRepository.getAccount(accountIds[random.nextInt(ACCOUNTS)]).getBalance());
+            }
+        }
+        assertTrue(total.signum() > 0);
+        return (System.nanoTime() - started) / (double) LOOKUPS;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
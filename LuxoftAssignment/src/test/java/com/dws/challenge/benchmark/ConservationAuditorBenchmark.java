@@ -0,0 +1,100 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AuditReport;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.service.ConservationAuditor;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the transfer throughput cost of running the conservation auditor back to back.
+ */
+@Tag("benchmark")
+public class ConservationAuditorBenchmark {
+
+    private static final int ACCOUNTS = 100_000;
+    private static final long PHASE_MILLIS = 5_000;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    void transferThroughputWithAndWithoutAuditor() throws InterruptedException {
+        AccountsRepository accountsRepository = new AccountsRepositoryInMemory();
+        AccountLocks accountLocks = new AccountLocks();
+        ConservationLedger conservationLedger = new ConservationLedger();
+        TransferServiceImpl transferService = new TransferServiceImpl(accountsRepository, accountLocks, conservationLedger,
+                new BalanceChangeFeed(1), true, ContentionProfiler.disabled(), new FundHoldRegistry());
+        ConservationAuditor conservationAuditor = new ConservationAuditor(accountsRepository, accountLocks,
+                conservationLedger, new SimpleMeterRegistry(), 0, 1000);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("Id-" + i, BigDecimal.valueOf(1000));
+            conservationLedger.recordAccountCreated(account, () -> accountsRepository.createAccount(account));
+        }
+
+        // Warm up the transfer path before measuring
+        runTransfers(transferService, PHASE_MILLIS / 2);
+        double baseline = runTransfers(transferService, PHASE_MILLIS);
+
+        AtomicBoolean auditing = new AtomicBoolean(true);
+        LongAdder audits = new LongAdder();
+        AtomicBoolean allConsistent = new AtomicBoolean(true);
+        Thread auditor = new Thread(() -> {
+            while (auditing.get()) {
+                AuditReport report = conservationAuditor.audit();
+                allConsistent.compareAndSet(true, report.isConsistent());
+                audits.increment();
+            }
+        });
+        auditor.start();
+        double withAuditor = runTransfers(transferService, PHASE_MILLIS);
+        auditing.set(false);
+        auditor.join();
+
+        System.out.printf("Conservation auditor overhead (%d accounts, %d threads)%n", ACCOUNTS, THREADS);
+        System.out.printf("  transfers/s without auditor: %,.0f%n", baseline);
+        System.out.printf("  transfers/s with auditor   : %,.0f (%d back-to-back audits)%n", withAuditor, audits.sum());
+        System.out.printf("  overhead                   : %.1f%%%n", (baseline - withAuditor) * 100 / baseline);
+        assertTrue(allConsistent.get(), "an audit found a discrepancy");
+    }
+
+    private static double runTransfers(TransferServiceImpl transferService, long millis) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        Thread[] workers = new Thread[THREADS];
+        for (int w = 0; w < THREADS; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    try {
+                        transferService.transfer("Id-" + random.nextInt(ACCOUNTS), "Id-" + random.nextInt(ACCOUNTS),
+                                BigDecimal.ONE);
+                    } catch (InsufficientFundsException e) {
+                        // Counted like any other attempt
+                    }
+                    completed.increment();
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return completed.sum() * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,90 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the transfer throughput cost of the contention profiler at several sample rates,
+ * on a skewed workload where a few accounts take most of the transfers.
+ */
+@Tag("benchmark")
+public class ContentionProfilerBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int HOT_ACCOUNTS = 16;
+    private static final long PHASE_MILLIS = 3_000;
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    @Test
+    void throughputAtSampleRates() throws InterruptedException {
+        System.out.printf("Contention profiler (%,d accounts, %d hot, %d threads)%n", ACCOUNTS, HOT_ACCOUNTS, THREADS);
+        // Warm up
+        runTransfers(newTransferService(ContentionProfiler.disabled()), PHASE_MILLIS / 2);
+        runTransfers(newTransferService(new ContentionProfiler(1, 10, 6, 20, 2048)), PHASE_MILLIS / 2);
+
+        double baseline = runTransfers(newTransferService(ContentionProfiler.disabled()), PHASE_MILLIS);
+        System.out.printf("  disabled        : %,10.0f transfers/s%n", baseline);
+        for (int sampleRate : new int[] {1024, 64, 1}) {
+            ContentionProfiler contentionProfiler = new ContentionProfiler(sampleRate, 10, 6, 20, 2048);
+            double throughput = runTransfers(newTransferService(contentionProfiler), PHASE_MILLIS);
+
+            long started = System.nanoTime();
+            int found = contentionProfiler.report(6).getHotAccounts().size();
+            double reportMicros = (System.nanoTime() - started) / 1000.0;
+            System.out.printf("  1 in %-10d : %,10.0f transfers/s (%+.1f%%), report of %d accounts in %,.0f us%n",
+                    sampleRate, throughput, (throughput / baseline - 1) * 100, found, reportMicros);
+        }
+    }
+
+    private static TransferServiceImpl newTransferService(ContentionProfiler contentionProfiler) {
+        AccountsRepository accountsRepository = new AccountsRepositoryInMemory();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountsRepository.createAccount(new Account("Id-" + i, new BigDecimal("1000000000")));
+        }
+        return new TransferServiceImpl(accountsRepository, new AccountLocks(), new ConservationLedger(),
+                new BalanceChangeFeed(1), true, contentionProfiler, new FundHoldRegistry());
+    }
+
+    /**
+     * Runs transfers where half of the debits hit one of the hot accounts.
+     * @return The number of transfers per second.
+     */
+    private static double runTransfers(TransferServiceImpl transferService, long millis) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        Thread[] workers = new Thread[THREADS];
+        for (int w = 0; w < THREADS; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int from = random.nextBoolean() ? random.nextInt(HOT_ACCOUNTS) : random.nextInt(ACCOUNTS);
+                    try {
+                        transferService.transfer("Id-" + from, "Id-" + random.nextInt(ACCOUNTS), BigDecimal.ONE);
+                        completed.increment();
+                    } catch (InsufficientFundsException e) {
+                        // Not expected with these balances
+                    }
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return completed.sum() * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,94 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares transfer throughput with and without the optimistic insufficient-funds precheck
+ * on a small, contended set of accounts at several decline rates.
+ */
+@Tag("benchmark")
+public class DeclinePrecheckBenchmark {
+
+    private static final int ACCOUNTS = 32;
+    private static final long PHASE_MILLIS = 3_000;
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000");
+    private static final BigDecimal DOOMED_AMOUNT = new BigDecimal("1000000000000");
+
+    @Test
+    void throughputAtDeclineRates() throws InterruptedException {
+        System.out.printf("Optimistic decline precheck (%d accounts, %d threads)%n", ACCOUNTS, THREADS);
+        for (int declinePercent : new int[] {10, 50, 90}) {
+            // Warm up both paths
+            runTransfers(newTransferService(true), declinePercent, PHASE_MILLIS / 2);
+            runTransfers(newTransferService(false), declinePercent, PHASE_MILLIS / 2);
+
+            long[] withPrecheck = runTransfers(newTransferService(true), declinePercent, PHASE_MILLIS);
+            long[] withoutPrecheck = runTransfers(newTransferService(false), declinePercent, PHASE_MILLIS);
+
+            System.out.printf("  %d%% declined%n", declinePercent);
+            print("with precheck   ", withPrecheck);
+            print("without precheck", withoutPrecheck);
+        }
+    }
+
+    private static void print(String label, long[] counts) {
+        System.out.printf("    %s: %,10.0f attempts/s, %,10.0f completed/s%n", label,
+                (counts[0] + counts[1]) * 1000.0 / PHASE_MILLIS, counts[0] * 1000.0 / PHASE_MILLIS);
+    }
+
+    private static TransferServiceImpl newTransferService(boolean optimisticPrecheck) {
+        AccountsRepository accountsRepository = new AccountsRepositoryInMemory();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountsRepository.createAccount(new Account("Id-" + i, OPENING_BALANCE));
+        }
+        return new TransferServiceImpl(accountsRepository, new AccountLocks(), new ConservationLedger(),
+                new BalanceChangeFeed(1), optimisticPrecheck, ContentionProfiler.disabled(), new FundHoldRegistry());
+    }
+
+    /**
+     * Runs random transfers, a given share of which the debited account cannot cover.
+     * @return The number of completed and declined transfers.
+     */
+    private static long[] runTransfers(TransferServiceImpl transferService, int declinePercent, long millis)
+            throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        LongAdder declined = new LongAdder();
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        Thread[] workers = new Thread[THREADS];
+        for (int w = 0; w < THREADS; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    BigDecimal amount = random.nextInt(100) < declinePercent ? DOOMED_AMOUNT : BigDecimal.ONE;
+                    try {
+                        transferService.transfer("Id-" + random.nextInt(ACCOUNTS), "Id-" + random.nextInt(ACCOUNTS), amount);
+                        completed.increment();
+                    } catch (InsufficientFundsException e) {
+                        declined.increment();
+                    }
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return new long[] {completed.sum(), declined.sum()};
+    }
+}
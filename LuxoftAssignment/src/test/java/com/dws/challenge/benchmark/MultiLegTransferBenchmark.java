@@ -0,0 +1,96 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferLeg;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares paying a payroll as one multi-leg transfer against one transfer per employee,
+ * with several payroll accounts paying overlapping employees concurrently.
+ */
+@Tag("benchmark")
+public class MultiLegTransferBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+    private static final int PAYROLL_ACCOUNTS = 4;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void multiLegAgainstSequentialTransfers() throws InterruptedException {
+        for (int legs : new int[] {10, 100, 1_000}) {
+            TransferServiceImpl transferService = newTransferService();
+            // Warm up both paths
+            runPayrolls(transferService, legs, true);
+            runPayrolls(transferService, legs, false);
+
+            long multiLegNanos = runPayrolls(transferService, legs, true);
+            long sequentialNanos = runPayrolls(transferService, legs, false);
+
+            long payrolls = (long) ROUNDS * PAYROLL_ACCOUNTS;
+            System.out.printf("Payroll of %,d legs, %d concurrent payroll accounts%n", legs, PAYROLL_ACCOUNTS);
+            System.out.printf("  multi-leg : %,8.1f us per payroll%n", multiLegNanos / 1_000.0 / payrolls);
+            System.out.printf("  sequential: %,8.1f us per payroll%n", sequentialNanos / 1_000.0 / payrolls);
+            System.out.printf("  speed-up  : %.2fx%n", (double) sequentialNanos / multiLegNanos);
+        }
+    }
+
+    private static TransferServiceImpl newTransferService() {
+        AccountsRepository accountsRepository = new AccountsRepositoryInMemory();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            accountsRepository.createAccount(new Account("Employee-" + i, BigDecimal.ZERO));
+        }
+        for (int p = 0; p < PAYROLL_ACCOUNTS; p++) {
+            accountsRepository.createAccount(new Account("Payroll-" + p, new BigDecimal("1000000000000")));
+        }
+        return new TransferServiceImpl(accountsRepository, new AccountLocks(), new ConservationLedger(), new BalanceChangeFeed(1),
+                true, ContentionProfiler.disabled(), new FundHoldRegistry());
+    }
+
+    private static long runPayrolls(TransferServiceImpl transferService, int legs, boolean multiLeg) throws InterruptedException {
+        Thread[] payers = new Thread[PAYROLL_ACCOUNTS];
+        long started = System.nanoTime();
+        for (int p = 0; p < PAYROLL_ACCOUNTS; p++) {
+            String payrollId = "Payroll-" + p;
+            payers[p] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int round = 0; round < ROUNDS; round++) {
+                    List<TransferLeg> payroll = new ArrayList<>(legs);
+                    for (int l = 0; l < legs; l++) {
+                        payroll.add(new TransferLeg("Employee-" + random.nextInt(EMPLOYEES), BigDecimal.TEN));
+                    }
+                    try {
+                        if (multiLeg) {
+                            transferService.transferMultiLeg(payrollId, payroll);
+                        } else {
+                            for (TransferLeg leg : payroll) {
+                                transferService.transfer(payrollId, leg.getAccountToId(), leg.getAmount());
+                            }
+                        }
+                    } catch (InsufficientFundsException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            payers[p].start();
+        }
+        for (Thread payer : payers) {
+            payer.join();
+        }
+        return System.nanoTime() - started;
+    }
+}
@@ -0,0 +1,189 @@
+package com.dws.challenge.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts application nodes, each in its own JVM, and talks to them over HTTP. The application
+ * classpath comes from the app.classpath system property, which the Gradle test tasks set, or
+ * from this JVM's classpath. Closing the launcher stops every node it started.
+ */
+public class NodeLauncher implements AutoCloseable {
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 60_000;
+
+    private final Path workDir;
+    private final List<Process> processes = new ArrayList<>();
+
+    /**
+     * Constructs a new NodeLauncher.
+     * @param workDir The directory receiving the journals and logs of the nodes.
+     */
+    public NodeLauncher(Path workDir) {
+        this.workDir = workDir;
+    }
+
+    /**
+     * Starts a node and waits until it answers account reads.
+     * @param name The name of the node, used for its journals and log.
+     * @param arguments Extra application arguments.
+     * @return The HTTP port of the node.
+     * @throws IllegalStateException if the node exits or does not answer in time.
+     */
+    public int start(String name, String... arguments) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("app.classpath", System.getProperty("java.class.path")));
+        command.add("com.dws.challenge.ChallengeApplication");
+        command.add("--server.port=" + port);
+        command.add("--transfers.schedule.journal-path=" + workDir.resolve(name + "-scheduled-transfers.journal"));
+        command.add("--bulk.journal-path=" + workDir.resolve(name + "-bulk-jobs.journal"));
+        command.add("--logging.level.root=WARN");
+        command.addAll(List.of(arguments));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(name + ".log").toFile())
+                .start();
+        processes.add(process);
+
+        long started = System.nanoTime();
+        while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < STARTUP_TIMEOUT_MILLIS) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue());
+            }
+            // A replica answers reads once it has loaded its snapshot and caught up
+            if (get(port, "/v1/accounts/startup-probe", -1).getStatus() == 200) {
+                return port;
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException(name + " did not answer within " + STARTUP_TIMEOUT_MILLIS + " ms");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (Process process : processes) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        processes.clear();
+    }
+
+    /**
+     * Sends a GET request.
+     * @param port The HTTP port of the node.
+     * @param path The path and query of the request.
+     * @param minSequence The X-Min-Sequence to ask for, or -1 for none.
+     * @return The response; a status of -1 if the request failed.
+     */
+    public static Response get(int port, String path, long minSequence) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+            connection.setConnectTimeout(1_000);
+            connection.setReadTimeout(10_000);
+            if (minSequence >= 0) {
+                connection.setRequestProperty("X-Min-Sequence", String.valueOf(minSequence));
+            }
+            return Response.of(connection);
+        } catch (IOException e) {
+            return Response.FAILED;
+        }
+    }
+
+    /**
+     * Sends a POST request.
+     * @param port The HTTP port of the node.
+     * @param path The path and query of the request.
+     * @param json The JSON body, or null for none.
+     * @return The response; a status of -1 if the request failed.
+     */
+    public static Response post(int port, String path, String json) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(1_000);
+            connection.setReadTimeout(10_000);
+            if (json != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream body = connection.getOutputStream()) {
+                    body.write(json.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return Response.of(connection);
+        } catch (IOException e) {
+            return Response.FAILED;
+        }
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Response class holding the status, body and replication headers of one request.
+     */
+    public static final class Response {
+
+        private static final Response FAILED = new Response(-1, "", -1, 0);
+
+        private final int status;
+        private final String body;
+        private final long sequence;
+        private final long stalenessMillis;
+
+        private Response(int status, String body, long sequence, long stalenessMillis) {
+            this.status = status;
+            this.body = body;
+            this.sequence = sequence;
+            this.stalenessMillis = stalenessMillis;
+        }
+
+        private static Response of(HttpURLConnection connection) throws IOException {
+            int status = connection.getResponseCode();
+            String body = "";
+            // Read the body fully so the connection is kept alive for the next request
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (in != null) {
+                    body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+            String sequence = connection.getHeaderField("X-Sequence");
+            String staleness = connection.getHeaderField("X-Staleness-Millis");
+            return new Response(status, body, sequence == null ? -1 : Long.parseLong(sequence),
+                    staleness == null ? 0 : Long.parseLong(staleness));
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getStalenessMillis() {
+            return stalenessMillis;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.dws.challenge.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures account read throughput served by a primary alone and spread over 1, 2 and 4 read
+ * replicas, each running in its own JVM and following the primary over a loopback socket, while
+ * transfers keep running on the primary. Also checks read-your-writes through X-Min-Sequence and
+ * reports the highest staleness replicas answered with.
+ */
+@Tag("benchmark")
+public class ReplicaReadBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int READERS = 64;
+    private static final int WRITERS = 4;
+    private static final int[] REPLICAS = {1, 2, 4};
+    private static final long PHASE_MILLIS = 10_000;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void readThroughputScalesWithReplicas() throws Exception {
+        int replicationPort = NodeLauncher.freePort();
+        try (NodeLauncher nodes = new NodeLauncher(workDir)) {
+            int primary = nodes.start("primary", "--replication.listen-port=" + replicationPort);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                NodeLauncher.post(primary, "/v1/accounts", "{\"accountId\":\"Id-" + i + "\",\"balance\":1000000}");
+            }
+            List<Integer> replicas = new ArrayList<>();
+            for (int i = 0; i < REPLICAS[REPLICAS.length - 1]; i++) {
+                replicas.add(nodes.start("replica-" + i, "--spring.profiles.active=replica",
+                        "--replication.primary-port=" + replicationPort));
+            }
+
+            AtomicBoolean writing = new AtomicBoolean(true);
+            LongAdder readYourWritesFailures = new LongAdder();
+            List<Thread> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (writing.get()) {
+                        String from = "Id-" + random.nextInt(ACCOUNTS);
+                        String to = "Id-" + random.nextInt(ACCOUNTS);
+                        NodeLauncher.Response transfer = NodeLauncher.post(primary, "/api/transfers/initiate?accountFromId=" + from
+                                + "&accountToId=" + to + "&amount=1", null);
+                        if (transfer.getStatus() != 200 || transfer.getSequence() < 0) {
+                            continue;
+                        }
+                        // Read the write back from a replica, asking for at least its sequence number
+                        NodeLauncher.Response read = NodeLauncher.get(replicas.get(writer % replicas.size()),
+                                "/v1/accounts/" + from, transfer.getSequence());
+                        if (read.getStatus() != 200 || read.getSequence() < transfer.getSequence()) {
+                            readYourWritesFailures.increment();
+                        }
+                    }
+                }));
+            }
+            writers.forEach(Thread::start);
+
+            try {
+                Result primaryOnly = runReads(List.of(primary));
+                System.out.printf("Account reads (%d readers, %d transfer writers on the primary, %d accounts)%n",
+                        READERS, WRITERS, ACCOUNTS);
+                primaryOnly.print("primary only");
+                for (int count : REPLICAS) {
+                    runReads(replicas.subList(0, count)).print(count + " replica(s)");
+                }
+            } finally {
+                writing.set(false);
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+            }
+            System.out.printf("  read-your-writes misses: %d%n", readYourWritesFailures.sum());
+            assertEquals(0, readYourWritesFailures.sum(), "replica reads must reflect the sequence number they were asked for");
+        }
+    }
+
+    private Result runReads(List<Integer> ports) throws InterruptedException {
+        // Warm up, then measure
+        readLoad(ports, PHASE_MILLIS / 4);
+        return readLoad(ports, PHASE_MILLIS);
+    }
+
+    private Result readLoad(List<Integer> ports, long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        LongAdder reads = new LongAdder();
+        LongAdder failures = new LongAdder();
+        LongAccumulator maxStaleness = new LongAccumulator(Math::max, 0);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            int port = ports.get(r % ports.size());
+            readers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    NodeLauncher.Response read = NodeLauncher.get(port, "/v1/accounts/Id-" + random.nextInt(ACCOUNTS), -1);
+                    if (read.getStatus() == 200) {
+                        reads.increment();
+                        maxStaleness.accumulate(read.getStalenessMillis());
+                    } else {
+                        failures.increment();
+                    }
+                }
+            }));
+        }
+        readers.forEach(Thread::start);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertTrue(reads.sum() > 0, "no read succeeded");
+        return new Result(reads.sum() * 1000.0 / millis, failures.sum(), maxStaleness.get());
+    }
+
+    /**
+     * Result class holding the throughput of one read phase.
+     */
+    private static final class Result {
+
+        private final double perSecond;
+        private final long failures;
+        private final long maxStalenessMillis;
+
+        private Result(double perSecond, long failures, long maxStalenessMillis) {
+            this.perSecond = perSecond;
+            this.failures = failures;
+            this.maxStalenessMillis = maxStalenessMillis;
+        }
+
+        private void print(String label) {
+            System.out.printf("  %-12s: %,9.0f reads/s, %d failed, max staleness %d ms%n",
+                    label, perSecond, failures, maxStalenessMillis);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.dws.challenge.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the time from launching the JVM to the first successful /v1/accounts response, and
+ * fails when the fast-startup mode is slower than the default profile measured in the same run by
+ * more than the fraction given by startup.tolerance. On JDK 13 or newer, with the application jar
+ * on benchmark.cds.classpath, it also trains a class-data-sharing archive in a separate dump run and
+ * times fast startup with and without it on that same classpath, since an archive only maps classes
+ * loaded from jars; the archive is held to the run without it the same way.
+ */
+@Tag("benchmark")
+public class StartupBenchmark {
+
+    private static final int RUNS = 3;
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void timeToFirstAccountsResponse() throws Exception {
+        double tolerance = Double.parseDouble(System.getProperty("startup.tolerance", "0.10"));
+        String classpath = System.getProperty("app.classpath", System.getProperty("java.class.path"));
+        String cdsClasspath = System.getProperty("benchmark.cds.classpath");
+
+        long defaultMillis = bestOf(classpath, false, Collections.emptyList());
+        long fastMillis = bestOf(classpath, true, Collections.emptyList());
+
+        System.out.printf("Time to first /v1/accounts response (best of %d)%n", RUNS);
+        System.out.printf("  default profile          : %d ms%n", defaultMillis);
+        System.out.printf("  fast profile             : %d ms%n", fastMillis);
+        if (cdsClasspath != null && Runtime.version().feature() >= 13) {
+            Path archive = dumpArchive(cdsClasspath);
+            long jarMillis = bestOf(cdsClasspath, true, Collections.emptyList());
+            long sharedMillis = bestOf(cdsClasspath, true, List.of("-XX:SharedArchiveFile=" + archive));
+            System.out.printf("  fast profile, jar        : %d ms%n", jarMillis);
+            System.out.printf("  fast profile, jar and CDS: %d ms (%d KiB archive)%n", sharedMillis, Files.size(archive) / 1024);
+            assertWithin(sharedMillis, jarMillis, tolerance, "Fast startup with the archive", "without it");
+        } else {
+            System.out.println("  class-data-sharing skipped: needs JDK 13+ and benchmark.cds.classpath");
+        }
+        assertWithin(fastMillis, defaultMillis, tolerance, "Fast startup", "the default profile");
+    }
+
+    /**
+     * Fails when a configuration is slower than its baseline from the same run by more than the
+     * tolerance, which absorbs the run-to-run noise of timing JVM startups.
+     */
+    private static void assertWithin(long millis, long baselineMillis, double tolerance, String label, String baseline) {
+        long limitMillis = (long) (baselineMillis * (1 + tolerance));
+        assertTrue(millis <= limitMillis, label + " took " + millis + " ms, over " + limitMillis + " ms ("
+                + baseline + " took " + baselineMillis + " ms, tolerance " + Math.round(tolerance * 100) + "%)");
+    }
+
+    /**
+     * Starts the application once in fast mode and lets it exit when ready, so the JVM dumps the
+     * classes it loaded into a dynamic archive, like the cdsArchive build task.
+     */
+    private Path dumpArchive(String cdsClasspath) throws Exception {
+        Path archive = workDir.resolve("app.jsa");
+        Process process = start(cdsClasspath, true,
+                List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dapp.exit-on-ready=true"), freePort());
+        try {
+            if (!process.waitFor(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Archive dump run did not exit within " + TIMEOUT_MILLIS + " ms");
+            }
+        } finally {
+            stop(process);
+        }
+        if (process.exitValue() != 0 || !Files.exists(archive)) {
+            throw new IllegalStateException("Archive dump run exited with code " + process.exitValue() + " and no archive");
+        }
+        return archive;
+    }
+
+    private long bestOf(String classpath, boolean fast, List<String> jvmArgs) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            best = Math.min(best, timeToFirstResponse(classpath, fast, jvmArgs));
+        }
+        return best;
+    }
+
+    private long timeToFirstResponse(String classpath, boolean fast, List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        long started = System.nanoTime();
+        Process process = start(classpath, fast, jvmArgs, port);
+        try {
+            URL probe = new URL("http://localhost:" + port + "/v1/accounts/startup-probe");
+            while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < TIMEOUT_MILLIS) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue());
+                }
+                if (respondsOk(probe)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Application did not answer within " + TIMEOUT_MILLIS + " ms");
+        } finally {
+            stop(process);
+        }
+    }
+
+    private Process start(String classpath, boolean fast, List<String> jvmArgs, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if (fast) {
+            command.add("-XX:TieredStopAtLevel=1");
+        }
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classpath);
+        command.add("com.dws.challenge.ChallengeApplication");
+        command.add("--server.port=" + port);
+        command.add("--transfers.schedule.journal-path=" + workDir.resolve("scheduled-transfers.journal"));
+        command.add("--bulk.journal-path=" + workDir.resolve("bulk-jobs.journal"));
+        if (fast) {
+            command.add("--spring.profiles.active=fast");
+        }
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("startup-" + port + ".log").toFile())
+                .start();
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static boolean respondsOk(URL probe) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) probe.openConnection();
+            connection.setConnectTimeout(100);
+            connection.setReadTimeout(1_000);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.dws.challenge.benchmark;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.repository.AccountsRepositoryTiered;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the heap cost per account and the lookup latency of the tiered and in-memory repositories.
+ */
+@Tag("benchmark")
+public class TieredAccountsBenchmark {
+
+    private static final int ACCOUNTS = 1_000_000;
+    private static final int HOT_ACCOUNTS = 10_000;
+    private static final int LOOKUPS = 2_000_000;
+
+    @Test
+    void heapPerAccountAndLookupLatency() throws IOException {
+        Path storeDir = Files.createTempDirectory("tiered-benchmark");
+        Path storeFile = storeDir.resolve("accounts.store");
+        try {
+            long before = usedHeap();
+            AccountsRepository inMemory = new AccountsRepositoryInMemory();
+            populate(inMemory);
+            double inMemoryBytes = (usedHeap() - before) / (double) ACCOUNTS;
+            double inMemoryNanos = lookupNanos(inMemory, ACCOUNTS);
+            inMemory.clearAccounts();
+            inMemory = null;
+
+            before = usedHeap();
+            AccountsRepositoryTiered tiered = new AccountsRepositoryTiered(new AccountLocks(), storeFile.toString(),
+                    ACCOUNTS * 2, 3600, 0);
+            populate(tiered);
+            double coldBytes = (usedHeap() - before) / (double) ACCOUNTS;
+
+            // First access to each account pays for the promotion
+            long started = System.nanoTime();
+            for (int i = 0; i < HOT_ACCOUNTS; i++) {
+                tiered.getAccount("Id-" + i).getBalance();
+            }
+            double promotionNanos = (System.nanoTime() - started) / (double) HOT_ACCOUNTS;
+            double hotNanos = lookupNanos(tiered, HOT_ACCOUNTS);
+
+            started = System.nanoTime();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < LOOKUPS; i++) {
+                tiered.peekAccount("Id-" + random.nextInt(HOT_ACCOUNTS, ACCOUNTS)).getBalance();
+            }
+            double coldReadNanos = (System.nanoTime() - started) / (double) LOOKUPS;
+            tiered.stop();
+
+            System.out.printf("Tiered account storage (%,d accounts)%n", ACCOUNTS);
+            System.out.printf("  in-memory heap per account   : %,.0f bytes%n", inMemoryBytes);
+            System.out.printf("  tiered heap per cold account : %,.1f bytes (+%d bytes off-heap)%n", coldBytes, 64);
+            System.out.printf("  in-memory lookup             : %,.0f ns%n", inMemoryNanos);
+            System.out.printf("  tiered hot lookup            : %,.0f ns%n", hotNanos);
+            System.out.printf("  tiered cold read             : %,.0f ns%n", coldReadNanos);
+            System.out.printf("  tiered promotion             : %,.0f ns%n", promotionNanos);
+            assertTrue(coldBytes < inMemoryBytes / 4, "cold accounts should cost far less heap than in-memory ones");
+        } finally {
+            Files.deleteIfExists(storeFile);
+            Files.deleteIfExists(storeDir);
+        }
+    }
+
+    private static void populate(AccountsRepository accountsRepository) {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountsRepository.createAccount(new Account("Id-" + i, new BigDecimal("1000.00")));
+        }
+    }
+
+    private static double lookupNanos(AccountsRepository accountsRepository, int accounts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long started = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            accountsRepository.getAccount("Id-" + random.nextInt(accounts)).getBalance();
+        }
+        return (System.nanoTime() - started) / (double) LOOKUPS;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
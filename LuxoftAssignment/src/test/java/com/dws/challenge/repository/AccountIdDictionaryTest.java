@@ -0,0 +1,97 @@
+package com.dws.challenge.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountIdDictionaryTest {
+
+    @Test
+    void testIntern_AssignsDenseHandles() {
+        // Arrange
+        AccountIdDictionary dictionary = new AccountIdDictionary();
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, dictionary.intern("Id-" + i));
+        }
+
+        // Assert
+        assertEquals(100_000, dictionary.size());
+        assertEquals(42, dictionary.intern("Id-42"));
+        assertEquals(99_999, dictionary.handleOf("Id-99999"));
+        assertEquals("Id-12345", dictionary.idOf(12_345));
+        assertEquals(-1, dictionary.handleOf("Id-100000"));
+    }
+
+    @Test
+    void testIntern_IdsSpanningArenaChunks() {
+        // Arrange
+        AccountIdDictionary dictionary = new AccountIdDictionary();
+        String longId = "x".repeat(700_000);
+
+        // Act
+        int first = dictionary.intern(longId);
+        int second = dictionary.intern(longId + "y");
+
+        // Assert
+        assertEquals(longId, dictionary.idOf(first));
+        assertEquals(longId + "y", dictionary.idOf(second));
+        assertEquals(first, dictionary.handleOf(longId));
+    }
+
+    @Test
+    void testClear() {
+        // Arrange
+        AccountIdDictionary dictionary = new AccountIdDictionary();
+        dictionary.intern("Id-1");
+
+        // Act
+        dictionary.clear();
+
+        // Assert
+        assertEquals(0, dictionary.size());
+        assertEquals(-1, dictionary.handleOf("Id-1"));
+        assertEquals(0, dictionary.intern("Id-2"));
+    }
+
+    @Test
+    void testIntern_Concurrent() throws InterruptedException {
+        // Arrange
+        AccountIdDictionary dictionary = new AccountIdDictionary();
+        Map<String, Integer> handles = new ConcurrentHashMap<>();
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread[] workers = new Thread[4];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 50_000; i++) {
+                    String accountId = "Id-" + random.nextInt(100_000);
+                    int handle = dictionary.intern(accountId);
+                    Integer previous = handles.putIfAbsent(accountId, handle);
+                    if ((previous != null && previous != handle) || dictionary.handleOf(accountId) != handle) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        // Act
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Assert
+        assertEquals(0, mismatches.get());
+        assertEquals(handles.size(), dictionary.size());
+        handles.forEach((accountId, handle) -> assertEquals(accountId, dictionary.idOf(handle)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.exception.DuplicateAccountIdException;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountsRepositoryCompactTest {
+
+    private AccountLocks accountLocks;
+    private AccountsRepositoryCompact accountsRepository;
+
+    @BeforeEach
+    void setUp() {
+        accountLocks = new AccountLocks();
+        accountsRepository = new AccountsRepositoryCompact(accountLocks);
+    }
+
+    @Test
+    void testCreateAndGetAccount() {
+        // Arrange
+        accountsRepository.createAccount(new Account("Id-1", new BigDecimal("100.50")));
+
+        // Act
+        Account account = accountsRepository.getAccount("Id-1");
+
+        // Assert
+        assertEquals(new Account("Id-1", new BigDecimal("100.50")), account);
+        assertNull(accountsRepository.getAccount("Id-2"));
+        assertThrows(DuplicateAccountIdException.class,
+                () -> accountsRepository.createAccount(new Account("Id-1", BigDecimal.ONE)));
+    }
+
+    @Test
+    void testSetBalance_WritesThrough() {
+        // Arrange
+        accountsRepository.createAccount(new Account("Id-1", BigDecimal.valueOf(100)));
+        Account account = accountsRepository.getAccount("Id-1");
+
+        // Act
+        account.setBalance(new BigDecimal("1E-40000"));
+        BigDecimal wide = accountsRepository.getAccount("Id-1").getBalance();
+        account.setBalance(new BigDecimal("12.345"));
+
+        // Assert
+        assertEquals(new BigDecimal("1E-40000"), wide);
+        assertEquals(new BigDecimal("12.345"), accountsRepository.getAccount("Id-1").getBalance());
+    }
+
+    @Test
+    void testGetAccountIds() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            accountsRepository.createAccount(new Account("Id-" + i, BigDecimal.ONE));
+        }
+
+        // Act
+        Set<String> accountIds = new HashSet<>(accountsRepository.getAccountIds());
+        accountsRepository.clearAccounts();
+
+        // Assert
+        assertEquals(Set.of("Id-0", "Id-1", "Id-2"), accountIds);
+        assertTrue(accountsRepository.getAccountIds().isEmpty());
+        assertNull(accountsRepository.getAccount("Id-0"));
+    }
+
+    @Test
+    void testTransfer() throws InsufficientFundsException {
+        // Arrange
+        TransferServiceImpl transferService = new TransferServiceImpl(accountsRepository, accountLocks,
+                new ConservationLedger(), new BalanceChangeFeed(1), true, ContentionProfiler.disabled(), new FundHoldRegistry());
+        accountsRepository.createAccount(new Account("Id-1", BigDecimal.valueOf(100)));
+        accountsRepository.createAccount(new Account("Id-2", BigDecimal.valueOf(50)));
+
+        // Act
+        transferService.transfer("Id-1", "Id-2", new BigDecimal("30.25"));
+
+        // Assert
+        assertEquals(new BigDecimal("69.75"), accountsRepository.getAccount("Id-1").getBalance());
+        assertEquals(new BigDecimal("80.25"), accountsRepository.getAccount("Id-2").getBalance());
+        assertThrows(InsufficientFundsException.class,
+                () -> transferService.transfer("Id-1", "Id-2", BigDecimal.valueOf(70)));
+    }
+}
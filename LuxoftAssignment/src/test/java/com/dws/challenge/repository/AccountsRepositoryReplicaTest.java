@@ -0,0 +1,106 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountsRepositoryReplicaTest {
+
+    private AccountsRepositoryReplica accountsRepository;
+
+    @BeforeEach
+    void setUp() {
+        accountsRepository = new AccountsRepositoryReplica();
+        accountsRepository.beginSnapshot(10);
+        accountsRepository.applySnapshot("Id-1", BigDecimal.valueOf(100), 10);
+        accountsRepository.applySnapshot("Id-2", BigDecimal.valueOf(200), 12);
+        accountsRepository.endSnapshot();
+    }
+
+    @Test
+    void testSnapshot_IsReadOnly() {
+        // Act
+        Account account = accountsRepository.getAccount("Id-1");
+
+        // Assert
+        assertEquals(new Account("Id-1", BigDecimal.valueOf(100)), account);
+        assertEquals(10, accountsRepository.getWatermark());
+        assertEquals(2, accountsRepository.getAccountIds().size());
+        assertThrows(UnsupportedOperationException.class, () -> account.setBalance(BigDecimal.ONE));
+        assertThrows(UnsupportedOperationException.class,
+                () -> accountsRepository.createAccount(new Account("Id-3", BigDecimal.ONE)));
+    }
+
+    @Test
+    void testApply_WatermarkOnlyAdvancesOverContiguousChanges() {
+        // Act
+        accountsRepository.apply(12, "Id-1", BigDecimal.valueOf(90));
+        long beforeGapFilled = accountsRepository.getWatermark();
+        accountsRepository.apply(11, "Id-1", BigDecimal.valueOf(95));
+        accountsRepository.apply(13, "Id-3", BigDecimal.valueOf(5));
+
+        // Assert
+        assertEquals(10, beforeGapFilled);
+        assertEquals(13, accountsRepository.getWatermark());
+        // The change numbered 11 arrived after 12 and is older, so it is skipped
+        assertEquals(BigDecimal.valueOf(90), accountsRepository.getAccount("Id-1").getBalance());
+        assertEquals(BigDecimal.valueOf(5), accountsRepository.getAccount("Id-3").getBalance());
+    }
+
+    @Test
+    void testApply_SkipsChangesCoveredBySnapshot() {
+        // Act
+        accountsRepository.apply(11, "Id-2", BigDecimal.valueOf(150));
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(200), accountsRepository.getAccount("Id-2").getBalance());
+        assertEquals(11, accountsRepository.getWatermark());
+    }
+
+    @Test
+    void testHeartbeat_StalenessFollowsWatermark() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        assertEquals(Long.MAX_VALUE, accountsRepository.getStalenessMillis());
+
+        // Act
+        accountsRepository.heartbeat(10, now - 50);
+        long caughtUp = accountsRepository.getStalenessMillis();
+        accountsRepository.heartbeat(11, now);
+        long behind = accountsRepository.getStalenessMillis();
+        accountsRepository.apply(11, "Id-1", BigDecimal.valueOf(90));
+
+        // Assert
+        assertTrue(caughtUp >= 50 && caughtUp < 5_000);
+        assertTrue(behind >= caughtUp);
+        assertTrue(accountsRepository.getStalenessMillis() < caughtUp);
+        assertEquals(11, accountsRepository.getPrimarySequence());
+    }
+
+    @Test
+    void testAwaitWatermark() throws Exception {
+        // Arrange
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return accountsRepository.awaitWatermark(11, 5_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Act
+        Thread.sleep(50);
+        accountsRepository.apply(11, "Id-1", BigDecimal.valueOf(90));
+
+        // Assert
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        assertTrue(accountsRepository.awaitWatermark(10, 0));
+        assertFalse(accountsRepository.awaitWatermark(12, 20));
+    }
+}
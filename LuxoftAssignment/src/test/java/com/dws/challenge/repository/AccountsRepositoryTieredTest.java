@@ -0,0 +1,215 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.exception.DuplicateAccountIdException;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountsRepositoryTieredTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AccountLocks accountLocks;
+    private AccountsRepositoryTiered accountsRepository;
+
+    @BeforeEach
+    void setUp() {
+        accountLocks = new AccountLocks();
+        accountsRepository = new AccountsRepositoryTiered(accountLocks, tempDir.resolve("accounts.store").toString(),
+                1024, 0, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        accountsRepository.stop();
+    }
+
+    @Test
+    void testGetAccount_PromotesColdAccount() {
+        // Arrange
+        accountsRepository.createAccount(new Account("Id-1", new BigDecimal("100.50")));
+
+        // Act
+        Account account = accountsRepository.getAccount("Id-1");
+
+        // Assert
+        assertEquals(new Account("Id-1", new BigDecimal("100.50")), account);
+        assertEquals(1, accountsRepository.hotCount());
+        assertSame(account, accountsRepository.getAccount("Id-1"));
+        assertNull(accountsRepository.getAccount("Id-2"));
+    }
+
+    @Test
+    void testPeekAccount_DoesNotPromote() {
+        // Arrange
+        accountsRepository.createAccount(new Account("Id-1", new BigDecimal("100.50")));
+
+        // Act
+        Account account = accountsRepository.peekAccount("Id-1");
+
+        // Assert
+        assertEquals(0, new BigDecimal("100.50").compareTo(account.getBalance()));
+        assertEquals(0, accountsRepository.hotCount());
+    }
+
+    @Test
+    void testDemoteIdle_KeepsBalanceOfStaleReferences() {
+        // Arrange
+        accountsRepository.createAccount(new Account("Id-1", BigDecimal.valueOf(100)));
+        Account stale = accountsRepository.getAccount("Id-1");
+        stale.setBalance(BigDecimal.valueOf(70));
+
+        // Act
+        int demoted = accountsRepository.demoteIdle(System.nanoTime());
+        stale.setBalance(stale.getBalance().add(BigDecimal.TEN));
+        Account promoted = accountsRepository.getAccount("Id-1");
+        stale.setBalance(stale.getBalance().add(BigDecimal.ONE));
+
+        // Assert
+        assertEquals(1, demoted);
+        assertNotSame(stale, promoted);
+        assertEquals(BigDecimal.valueOf(81), promoted.getBalance());
+        assertEquals(BigDecimal.valueOf(81), stale.getBalance());
+    }
+
+    @Test
+    void testGetBalance_UnlockedReadsSurviveTierMoves() throws InterruptedException {
+        // Arrange
+        accountsRepository.createAccount(new Account("Id-1", BigDecimal.valueOf(100)));
+        Account view = accountsRepository.peekAccount("Id-1");
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread mover = new Thread(() -> {
+            while (running.get()) {
+                accountsRepository.getAccount("Id-1");
+                accountsRepository.demoteIdle(System.nanoTime());
+            }
+        });
+
+        // Act
+        mover.start();
+        try {
+            for (int i = 0; i < 100_000 && failure.get() == null; i++) {
+                try {
+                    assertEquals(BigDecimal.valueOf(100), view.getBalance());
+                    assertEquals(BigDecimal.valueOf(100), accountsRepository.peekAccount("Id-1").getBalance());
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }
+        } finally {
+            running.set(false);
+            mover.join();
+        }
+        accountsRepository.clearAccounts();
+
+        // Assert
+        assertNull(failure.get());
+        assertEquals(BigDecimal.ZERO, view.getBalance());
+    }
+
+    @Test
+    void testCreateAccount_Duplicate() {
+        // Arrange
+        accountsRepository.createAccount(new Account("Id-1", BigDecimal.ONE));
+        accountsRepository.getAccount("Id-1");
+
+        // Act & Assert
+        assertThrows(DuplicateAccountIdException.class,
+                () -> accountsRepository.createAccount(new Account("Id-1", BigDecimal.ONE)));
+        accountsRepository.demoteIdle(System.nanoTime());
+        assertThrows(DuplicateAccountIdException.class,
+                () -> accountsRepository.createAccount(new Account("Id-1", BigDecimal.ONE)));
+    }
+
+    @Test
+    void testGetAccountIds_IncludesAccountsWithoutRecord() {
+        // Arrange
+        String longId = "Id-" + "x".repeat(MappedAccountStore.MAX_ID_BYTES);
+        accountsRepository.createAccount(new Account("Id-1", BigDecimal.ONE));
+        accountsRepository.createAccount(new Account(longId, BigDecimal.ONE));
+        accountsRepository.createAccount(new Account("Id-2", new BigDecimal("1E-40000")));
+
+        // Act
+        Set<String> accountIds = new HashSet<>(accountsRepository.getAccountIds());
+        accountsRepository.demoteIdle(System.nanoTime());
+
+        // Assert
+        assertEquals(Set.of("Id-1", longId, "Id-2"), accountIds);
+        assertEquals(3, accountsRepository.getAccountIds().size());
+        assertEquals(2, accountsRepository.hotCount());
+        assertEquals(new BigDecimal("1E-40000"), accountsRepository.getAccount("Id-2").getBalance());
+    }
+
+    @Test
+    void testTransfers_ConserveMoneyWhileDemoting() throws InterruptedException {
+        // Arrange
+        int accounts = 100;
+        ConservationLedger conservationLedger = new ConservationLedger();
+        TransferServiceImpl transferService = new TransferServiceImpl(accountsRepository, accountLocks,
+                conservationLedger, new BalanceChangeFeed(1), true, ContentionProfiler.disabled(), new FundHoldRegistry());
+        for (int i = 0; i < accounts; i++) {
+            accountsRepository.createAccount(new Account("Id-" + i, BigDecimal.valueOf(1000)));
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sweeper = new Thread(() -> {
+            while (running.get()) {
+                accountsRepository.demoteIdle(System.nanoTime());
+            }
+        });
+        Thread[] workers = new Thread[4];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 5_000; i++) {
+                    try {
+                        transferService.transfer("Id-" + random.nextInt(accounts), "Id-" + random.nextInt(accounts),
+                                BigDecimal.valueOf(random.nextInt(1, 50)));
+                    } catch (InsufficientFundsException e) {
+                        // Expected now and then
+                    }
+                }
+            });
+        }
+
+        // Act
+        sweeper.start();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        running.set(false);
+        sweeper.join();
+
+        // Assert
+        BigDecimal total = BigDecimal.ZERO;
+        for (String accountId : accountsRepository.getAccountIds()) {
+            BigDecimal balance = accountsRepository.peekAccount(accountId).getBalance();
+            assertTrue(balance.signum() >= 0);
+            total = total.add(balance);
+        }
+        assertEquals(BigDecimal.valueOf(1000L * accounts), total);
+    }
+}
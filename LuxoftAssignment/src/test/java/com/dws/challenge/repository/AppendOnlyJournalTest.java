@@ -0,0 +1,82 @@
+package com.dws.challenge.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppendOnlyJournalTest {
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void testAppend_CompactsOnceThresholdIsReached() throws IOException {
+        // Arrange
+        Path path = workDir.resolve("values.journal");
+        AppendOnlyJournal<String[]> journal = new AppendOnlyJournal<>(path, "value", new ValueCodec(), 10);
+
+        // Act
+        for (int i = 0; i < 95; i++) {
+            // Keep overwriting three entries
+            journal.append(Collections.singletonList(new String[] {"P", "key-" + (i % 3), Integer.toString(i)}));
+        }
+
+        // Assert
+        assertEquals(5, journal.getLinesSinceCompaction());
+        assertTrue(Files.readAllLines(path).size() <= 3 + 10);
+        Map<String, String[]> entries = journal.load();
+        assertEquals(3, entries.size());
+        assertEquals("93", entries.get("key-0")[1]);
+        assertEquals("94", entries.get("key-1")[1]);
+        assertEquals("92", entries.get("key-2")[1]);
+        journal.close();
+    }
+
+    @Test
+    void testOpen_ReplaysRemovalsAndSkipsTornLine() throws IOException {
+        // Arrange
+        Path path = workDir.resolve("values.journal");
+        Files.write(path, "P\tkey-1\tone\nP\tkey-2\ttwo\nR\tkey-1\nP\tkey-3".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        AppendOnlyJournal<String[]> journal = new AppendOnlyJournal<>(path, "value", new ValueCodec(), 0);
+
+        // Assert
+        Map<String, String[]> entries = journal.load();
+        assertEquals(Collections.singleton("key-2"), entries.keySet());
+        assertEquals("two", entries.get("key-2")[1]);
+        assertEquals(Collections.singletonList("P\tkey-2\ttwo"), Files.readAllLines(path));
+        journal.close();
+    }
+
+    /**
+     * ValueCodec class storing key and value pairs with put and remove lines.
+     */
+    private static final class ValueCodec implements AppendOnlyJournal.Codec<String[]> {
+
+        @Override
+        public boolean replay(Map<String, String[]> entries, String[] fields) {
+            if ("P".equals(fields[0]) && fields.length == 3) {
+                entries.put(fields[1], new String[] {fields[1], fields[2]});
+                return true;
+            } else if ("R".equals(fields[0]) && fields.length == 2) {
+                entries.remove(fields[1]);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String[] snapshot(String[] entry) {
+            return new String[] {"P", entry[0], entry[1]};
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AsyncTransferServiceImplTest {
+
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(100);
+
+    @Mock
+    private TransferSagaService transferSagaService;
+
+    private ThreadPoolExecutor executor;
+    private AsyncTransferServiceImpl asyncTransferService;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch blocking = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        asyncTransferService = new AsyncTransferServiceImpl(transferSagaService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSubmitTransfer_CompletesWithSaga() throws Exception {
+        // Act
+        CompletableFuture<Void> saga = asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT);
+
+        // Assert
+        assertNull(saga.get(5, TimeUnit.SECONDS));
+        verify(transferSagaService).initiateTransferSaga("123", "456", AMOUNT);
+    }
+
+    @Test
+    void testSubmitTransfer_FailsWithSagaException() throws Exception {
+        // Arrange
+        doThrow(new InsufficientFundsException("Insufficient funds")).when(transferSagaService)
+                .initiateTransferSaga("123", "456", AMOUNT);
+
+        // Act
+        CompletableFuture<Void> saga = asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT);
+
+        // Assert
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> saga.get(5, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof InsufficientFundsException);
+    }
+
+    @Test
+    void testCancelTransfer_BeforeSagaStarts() throws Exception {
+        // Arrange
+        occupyExecutor();
+        CompletableFuture<Void> saga = asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT);
+
+        // Act
+        boolean cancelled = asyncTransferService.cancelTransfer("req-1");
+        release.countDown();
+
+        // Assert
+        assertTrue(cancelled);
+        assertThrows(CancellationException.class, saga::join);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        verify(transferSagaService, never()).initiateTransferSaga("123", "456", AMOUNT);
+        assertFalse(asyncTransferService.cancelTransfer("req-1"));
+    }
+
+    @Test
+    void testCancelTransfer_RunningSagaIsNotCancelled() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(transferSagaService).initiateTransferSaga("123", "456", AMOUNT);
+        CompletableFuture<Void> saga = asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        boolean cancelled = asyncTransferService.cancelTransfer("req-1");
+        release.countDown();
+
+        // Assert
+        assertFalse(cancelled);
+        assertNull(saga.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmitTransfer_DuplicateRequestIdInFlight() {
+        // Arrange
+        occupyExecutor();
+        asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT));
+    }
+
+    @Test
+    void testSubmitTransfer_RejectedWhenQueueIsFull() {
+        // Arrange
+        occupyExecutor();
+        asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT);
+
+        // Act
+        CompletableFuture<Void> saga = asyncTransferService.submitTransfer("req-2", "123", "456", AMOUNT);
+
+        // Assert
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> saga.get(5, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof RejectedExecutionException);
+    }
+
+    /**
+     * Blocks the executor's only thread until the test releases it.
+     */
+    private void occupyExecutor() {
+        executor.execute(() -> {
+            blocking.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            assertTrue(blocking.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.BalanceChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceChangeFeedTest {
+
+    private BalanceChangeFeed balanceChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        balanceChangeFeed = new BalanceChangeFeed(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceChangeFeed.stop();
+    }
+
+    @Test
+    void testPublish_DeliversMatchingAccountsAndPrefixes() throws InterruptedException {
+        // Arrange
+        BlockingQueue<BalanceChangeEvent> received = new LinkedBlockingQueue<>();
+        balanceChangeFeed.subscribe(List.of("Id-1"), List.of("Team-"), received::addAll);
+
+        // Act
+        balanceChangeFeed.publish(new Account("Id-1", BigDecimal.ONE));
+        balanceChangeFeed.publish(new Account("Id-2", BigDecimal.ONE));
+        balanceChangeFeed.publish(new Account("Team-7", BigDecimal.TEN));
+
+        // Assert
+        List<String> accountIds = new ArrayList<>();
+        accountIds.add(received.poll(5, TimeUnit.SECONDS).getAccountId());
+        accountIds.add(received.poll(5, TimeUnit.SECONDS).getAccountId());
+        Collections.sort(accountIds);
+        assertEquals(List.of("Id-1", "Team-7"), accountIds);
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(3, balanceChangeFeed.currentSequence());
+    }
+
+    @Test
+    void testPublish_SlowSubscriberGetsLatestBalance() throws InterruptedException {
+        // Arrange
+        CountDownLatch firstBatchReceived = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<BalanceChangeEvent> received = new LinkedBlockingQueue<>();
+        BalanceChangeFeed.Subscription subscription = balanceChangeFeed.subscribe(List.of(), List.of(), batch -> {
+            received.addAll(batch);
+            firstBatchReceived.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Account account = new Account("Id-1", BigDecimal.ZERO);
+        balanceChangeFeed.publish(account);
+        assertTrue(firstBatchReceived.await(5, TimeUnit.SECONDS));
+
+        // Act: the subscriber is stuck in its first batch while 100 more changes arrive
+        for (int i = 1; i <= 100; i++) {
+            account.setBalance(BigDecimal.valueOf(i));
+            balanceChangeFeed.publish(account);
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals(BigDecimal.ZERO, received.poll(5, TimeUnit.SECONDS).getBalance());
+        BalanceChangeEvent latest = received.poll(5, TimeUnit.SECONDS);
+        assertEquals(BigDecimal.valueOf(100), latest.getBalance());
+        assertEquals(101, latest.getSequence());
+        assertEquals(99, subscription.getCoalescedCount());
+    }
+
+    @Test
+    void testCancel_StopsDelivery() throws InterruptedException {
+        // Arrange
+        BlockingQueue<BalanceChangeEvent> received = new LinkedBlockingQueue<>();
+        BalanceChangeFeed.Subscription subscription = balanceChangeFeed.subscribe(List.of(), List.of(), received::addAll);
+
+        // Act
+        subscription.cancel();
+        balanceChangeFeed.publish(new Account("Id-1", BigDecimal.ONE));
+
+        // Assert
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,269 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.BulkAdjustmentType;
+import com.dws.challenge.domain.BulkJob;
+import com.dws.challenge.domain.BulkJobState;
+import com.dws.challenge.domain.BulkJobStatus;
+import com.dws.challenge.domain.FundHold;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.repository.BulkJobsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class BulkAdjustmentServiceImplTest {
+
+    private static final int ACCOUNTS = 200;
+
+    @Mock
+    private BulkJobsRepository bulkJobsRepository;
+
+    private AccountsRepository accountsRepository;
+    private AccountLocks accountLocks;
+    private ConservationLedger conservationLedger;
+    private FundHoldRegistry fundHoldRegistry;
+    private BalanceChangeFeed balanceChangeFeed;
+    private BulkAdjustmentServiceImpl bulkAdjustmentService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        accountsRepository = new AccountsRepositoryInMemory();
+        accountLocks = new AccountLocks();
+        conservationLedger = new ConservationLedger();
+        fundHoldRegistry = new FundHoldRegistry();
+        balanceChangeFeed = new BalanceChangeFeed(1);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("Id-" + i, BigDecimal.valueOf(1000));
+            conservationLedger.recordAccountCreated(account, () -> accountsRepository.createAccount(account));
+        }
+        when(bulkJobsRepository.loadAll()).thenReturn(Collections.emptyList());
+        bulkAdjustmentService = newService();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        bulkAdjustmentService.stop();
+    }
+
+    @Test
+    void testStartJob_FeeSkipsAccountsThatCannotPay() throws InterruptedException {
+        // Arrange
+        accountsRepository.getAccount("Id-7").setBalance(new BigDecimal("1.50"));
+
+        // Act
+        BulkJobStatus started = bulkAdjustmentService.startJob(BulkAdjustmentType.FEE, new BigDecimal("2.50"), null);
+        BulkJobStatus status = awaitStopped(started.getJobId());
+
+        // Assert
+        assertEquals(BulkJobState.COMPLETED, status.getState());
+        assertEquals(ACCOUNTS, status.getAccountsProcessed());
+        assertEquals(ACCOUNTS - 1, status.getAccountsAdjusted());
+        assertEquals(1, status.getAccountsSkipped());
+        assertEquals(status.getChunks(), status.getChunksDone());
+        assertEquals(new BigDecimal("997.50"), accountsRepository.getAccount("Id-0").getBalance());
+        assertEquals(new BigDecimal("1.50"), accountsRepository.getAccount("Id-7").getBalance());
+        assertEquals(0, new BigDecimal("-497.50").compareTo(status.getNetAmount()));
+    }
+
+    @Test
+    void testStartJob_FeeCannotTakeHeldFunds() throws InterruptedException, InsufficientFundsException {
+        // Arrange
+        FundHoldServiceImpl fundHoldService = new FundHoldServiceImpl(accountsRepository, accountLocks,
+                conservationLedger, new BalanceChangeFeed(1), fundHoldRegistry, 3600, 0);
+        FundHold hold = fundHoldService.authorize("Id-7", BigDecimal.valueOf(999), null);
+
+        // Act
+        BulkJobStatus status = awaitStopped(
+                bulkAdjustmentService.startJob(BulkAdjustmentType.FEE, new BigDecimal("2.50"), null).getJobId());
+        FundHold captured = fundHoldService.capture(hold.getHoldId(), "Id-8", null);
+
+        // Assert
+        assertEquals(BulkJobState.COMPLETED, status.getState());
+        assertEquals(1, status.getAccountsSkipped());
+        assertEquals(BigDecimal.valueOf(999), captured.getCapturedAmount());
+        assertEquals(BigDecimal.valueOf(1), accountsRepository.getAccount("Id-7").getBalance());
+        assertEquals(new BigDecimal("1996.50"), accountsRepository.getAccount("Id-8").getBalance());
+    }
+
+    @Test
+    void testStartJob_InterestOnPrefix() throws InterruptedException {
+        // Arrange
+        accountsRepository.getAccount("Id-10").setBalance(new BigDecimal("333.33"));
+
+        // Act
+        BulkJobStatus started = bulkAdjustmentService.startJob(BulkAdjustmentType.INTEREST, new BigDecimal("1.5"), "Id-1");
+        BulkJobStatus status = awaitStopped(started.getJobId());
+
+        // Assert
+        assertEquals(BulkJobState.COMPLETED, status.getState());
+        // Id-1, Id-10..Id-19 and Id-100..Id-199
+        assertEquals(111, status.getAccountsAdjusted());
+        assertEquals(new BigDecimal("1015.00"), accountsRepository.getAccount("Id-1").getBalance());
+        assertEquals(new BigDecimal("338.33"), accountsRepository.getAccount("Id-10").getBalance());
+        assertEquals(BigDecimal.valueOf(1000), accountsRepository.getAccount("Id-2").getBalance());
+    }
+
+    @Test
+    void testStartJob_InvalidDetails() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkAdjustmentService.startJob(BulkAdjustmentType.FEE, BigDecimal.ZERO, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkAdjustmentService.startJob(BulkAdjustmentType.INTEREST, BigDecimal.valueOf(-1), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkAdjustmentService.startJob(BulkAdjustmentType.CORRECTION, BigDecimal.ZERO, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkAdjustmentService.startJob(null, BigDecimal.ONE, null));
+    }
+
+    @Test
+    void testPauseAndResume_AdjustsEachAccountOnce() throws InterruptedException {
+        // Arrange: pause the job from inside its first checkpoint
+        AtomicBoolean paused = new AtomicBoolean();
+        doAnswer(invocation -> {
+            BulkJob job = invocation.getArgument(0);
+            if (paused.compareAndSet(false, true)) {
+                bulkAdjustmentService.pauseJob(job.getJobId());
+            }
+            return null;
+        }).when(bulkJobsRepository).saveCheckpoint(any(BulkJob.class), anyInt());
+
+        // Act
+        String jobId = bulkAdjustmentService.startJob(BulkAdjustmentType.CORRECTION, BigDecimal.TEN, null).getJobId();
+        BulkJobStatus pausedStatus = awaitStopped(jobId);
+        bulkAdjustmentService.resumeJob(jobId);
+        BulkJobStatus status = awaitStopped(jobId);
+
+        // Assert
+        assertEquals(BulkJobState.PAUSED, pausedStatus.getState());
+        assertTrue(pausedStatus.getAccountsProcessed() < ACCOUNTS);
+        assertEquals(BulkJobState.COMPLETED, status.getState());
+        assertEquals(ACCOUNTS, status.getAccountsAdjusted());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertEquals(BigDecimal.valueOf(1010), accountsRepository.getAccount("Id-" + i).getBalance());
+        }
+        assertThrows(IllegalArgumentException.class, () -> bulkAdjustmentService.resumeJob(jobId));
+    }
+
+    @Test
+    void testResumeJob_FailedBatchKeepsAdjustmentsMadeBeforeFailure() throws InterruptedException {
+        // Arrange: fail the batch right after its account Id-150 has been adjusted
+        AtomicBoolean failed = new AtomicBoolean();
+        balanceChangeFeed.addListener(event -> {
+            if (event.getAccountId().equals("Id-150") && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Listener failure");
+            }
+        });
+
+        // Act
+        String jobId = bulkAdjustmentService.startJob(BulkAdjustmentType.CORRECTION, BigDecimal.TEN, null).getJobId();
+        BulkJobStatus failedStatus = awaitStopped(jobId);
+        bulkAdjustmentService.resumeJob(jobId);
+        BulkJobStatus status = awaitStopped(jobId);
+
+        // Assert
+        assertEquals(BulkJobState.FAILED, failedStatus.getState());
+        assertEquals(BulkJobState.COMPLETED, status.getState());
+        assertEquals(ACCOUNTS, status.getAccountsProcessed());
+        assertEquals(ACCOUNTS, status.getAccountsAdjusted());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertEquals(BigDecimal.valueOf(1010), accountsRepository.getAccount("Id-" + i).getBalance());
+        }
+        assertEquals(0, BigDecimal.valueOf(10L * ACCOUNTS).compareTo(status.getNetAmount()));
+    }
+
+    @Test
+    void testConstructor_InterruptedJobIsReportedPaused() throws InterruptedException {
+        // Arrange
+        BulkJob job = new BulkJob("job-1", BulkAdjustmentType.FEE, BigDecimal.ONE, null, Instant.now(), List.of("Id-0"));
+        when(bulkJobsRepository.loadAll()).thenReturn(List.of(job));
+        bulkAdjustmentService.stop();
+
+        // Act
+        bulkAdjustmentService = newService();
+
+        // Assert
+        assertEquals(BulkJobState.PAUSED, bulkAdjustmentService.getJob("job-1").getState());
+        verify(bulkJobsRepository).saveJob(job);
+    }
+
+    @Test
+    void testStartJob_ConservesMoneyWhileTransfersRun() throws InterruptedException {
+        // Arrange
+        TransferServiceImpl transferService = new TransferServiceImpl(accountsRepository, accountLocks,
+                conservationLedger, new BalanceChangeFeed(1), true, ContentionProfiler.disabled(), fundHoldRegistry);
+        ConservationAuditor conservationAuditor = new ConservationAuditor(accountsRepository, accountLocks,
+                conservationLedger, new SimpleMeterRegistry(), 0, 10);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] workers = new Thread[4];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    try {
+                        transferService.transfer("Id-" + random.nextInt(ACCOUNTS), "Id-" + random.nextInt(ACCOUNTS),
+                                BigDecimal.valueOf(random.nextInt(1, 50)));
+                    } catch (InsufficientFundsException e) {
+                        // Declined transfers are part of the mix
+                    }
+                }
+            });
+            workers[w].start();
+        }
+
+        // Act
+        String jobId = bulkAdjustmentService.startJob(BulkAdjustmentType.INTEREST, BigDecimal.ONE, null).getJobId();
+        boolean consistentDuringJob = conservationAuditor.audit().isConsistent();
+        BulkJobStatus status = awaitStopped(jobId);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Assert
+        assertTrue(consistentDuringJob);
+        assertTrue(conservationAuditor.audit().isConsistent());
+        assertEquals(BulkJobState.COMPLETED, status.getState());
+        BigDecimal total = BigDecimal.ZERO;
+        for (String accountId : accountsRepository.getAccountIds()) {
+            total = total.add(accountsRepository.getAccount(accountId).getBalance());
+        }
+        assertEquals(0, BigDecimal.valueOf(1000L * ACCOUNTS).add(status.getNetAmount()).compareTo(total));
+        assertEquals(0, total.compareTo(conservationLedger.getTotalBalance()));
+    }
+
+    private BulkAdjustmentServiceImpl newService() {
+        return new BulkAdjustmentServiceImpl(accountsRepository, accountLocks, conservationLedger,
+                balanceChangeFeed, fundHoldRegistry, bulkJobsRepository, 2, 8, 4, 64, 200);
+    }
+
+    private BulkJobStatus awaitStopped(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        BulkJobStatus status = bulkAdjustmentService.getJob(jobId);
+        while (status.getState() == BulkJobState.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            status = bulkAdjustmentService.getJob(jobId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,121 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AuditReport;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConservationAuditorTest {
+
+    private static final int ACCOUNTS = 200;
+
+    private AccountsRepository accountsRepository;
+    private ConservationLedger conservationLedger;
+    private TransferServiceImpl transferService;
+    private ConservationAuditor conservationAuditor;
+
+    @BeforeEach
+    void setUp() {
+        accountsRepository = new AccountsRepositoryInMemory();
+        AccountLocks accountLocks = new AccountLocks();
+        conservationLedger = new ConservationLedger();
+        transferService = new TransferServiceImpl(accountsRepository, accountLocks, conservationLedger, new BalanceChangeFeed(1),
+                true, ContentionProfiler.disabled(), new FundHoldRegistry());
+        conservationAuditor = new ConservationAuditor(accountsRepository, accountLocks, conservationLedger,
+                new SimpleMeterRegistry(), 0, 10);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("Id-" + i, BigDecimal.valueOf(1000));
+            conservationLedger.recordAccountCreated(account, () -> accountsRepository.createAccount(account));
+        }
+    }
+
+    @Test
+    void testAudit_Consistent() {
+        // Act
+        AuditReport report = conservationAuditor.audit();
+
+        // Assert
+        assertTrue(report.isConsistent());
+        assertEquals(ACCOUNTS, report.getAccountsScanned());
+        assertEquals(0, BigDecimal.valueOf(1000L * ACCOUNTS).compareTo(report.getScannedTotal()));
+        assertSame(report, conservationAuditor.getLastReport());
+    }
+
+    @Test
+    void testAudit_ConsistentWhileTransfersRun() throws InterruptedException {
+        // Arrange
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] workers = new Thread[4];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    try {
+                        transferService.transfer("Id-" + random.nextInt(ACCOUNTS), "Id-" + random.nextInt(ACCOUNTS),
+                                BigDecimal.valueOf(random.nextInt(1, 50)));
+                    } catch (InsufficientFundsException e) {
+                        // Declined transfers are part of the mix
+                    }
+                }
+            });
+            workers[w].start();
+        }
+
+        // Act
+        AuditReport[] reports = new AuditReport[20];
+        for (int i = 0; i < reports.length; i++) {
+            reports[i] = conservationAuditor.audit();
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Assert
+        for (AuditReport report : reports) {
+            assertTrue(report.isConsistent(), "discrepancy of " + report.getDiscrepancy());
+        }
+        assertTrue(conservationLedger.getTransferCount() > 0);
+    }
+
+    @Test
+    void testAudit_ConsistentAfterAccountsCleared() {
+        // Arrange
+        conservationLedger.recordAccountsCleared(accountsRepository::clearAccounts);
+        Account account = new Account("Id-new", BigDecimal.valueOf(250));
+        conservationLedger.recordAccountCreated(account, () -> accountsRepository.createAccount(account));
+
+        // Act
+        AuditReport report = conservationAuditor.audit();
+
+        // Assert
+        assertTrue(report.isConsistent(), "discrepancy of " + report.getDiscrepancy());
+        assertEquals(1, report.getAccountsScanned());
+        assertEquals(0, BigDecimal.valueOf(250).compareTo(report.getExpectedTotal()));
+    }
+
+    @Test
+    void testAudit_DetectsMoneyCreatedOutsideTheLedger() {
+        // Arrange
+        Account account = accountsRepository.getAccount("Id-0");
+        account.setBalance(account.getBalance().add(BigDecimal.TEN));
+
+        // Act
+        AuditReport report = conservationAuditor.audit();
+
+        // Assert
+        assertFalse(report.isConsistent());
+        assertEquals(0, BigDecimal.TEN.compareTo(report.getDiscrepancy()));
+    }
+}
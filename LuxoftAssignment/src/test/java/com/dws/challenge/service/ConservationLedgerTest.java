@@ -0,0 +1,78 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConservationLedgerTest {
+
+    private AccountsRepository accountsRepository;
+    private ConservationLedger conservationLedger;
+
+    @BeforeEach
+    void setUp() {
+        accountsRepository = new AccountsRepositoryInMemory();
+        conservationLedger = new ConservationLedger();
+    }
+
+    @Test
+    void testBeforeBalanceChanges_EpochOpenedBetweenLegsSeesWholeTransfer() {
+        // Arrange
+        AtomicBoolean openEpochOnRead = new AtomicBoolean();
+        AtomicReference<ConservationLedger.Epoch> opened = new AtomicReference<>();
+        Account accountFrom = new Account("Id-1", BigDecimal.valueOf(1000)) {
+            @Override
+            public BigDecimal getBalance() {
+                if (openEpochOnRead.getAndSet(false)) {
+                    // The next audit opens its epoch while the debited account is being recorded
+                    conservationLedger.endEpoch();
+                    opened.set(conservationLedger.beginEpoch());
+                }
+                return super.getBalance();
+            }
+        };
+        Account accountTo = new Account("Id-2", BigDecimal.valueOf(1000));
+        conservationLedger.recordAccountCreated(accountFrom, () -> accountsRepository.createAccount(accountFrom));
+        conservationLedger.recordAccountCreated(accountTo, () -> accountsRepository.createAccount(accountTo));
+        conservationLedger.beginEpoch();
+        openEpochOnRead.set(true);
+
+        // Act
+        conservationLedger.beforeBalanceChanges(accountFrom, accountTo);
+        accountFrom.setBalance(accountFrom.getBalance().subtract(BigDecimal.valueOf(100)));
+        accountTo.setBalance(accountTo.getBalance().add(BigDecimal.valueOf(100)));
+        conservationLedger.recordTransfer();
+
+        // Assert
+        ConservationLedger.Epoch epoch = opened.get();
+        assertNotNull(epoch);
+        BigDecimal scanned = epoch.balanceAtStart(accountFrom).add(epoch.balanceAtStart(accountTo));
+        assertEquals(0, epoch.getExpectedTotal().compareTo(scanned), "scanned " + scanned);
+    }
+
+    @Test
+    void testRecordAccountsCleared_ResetsTotalAndMarksOpenEpoch() {
+        // Arrange
+        Account account = new Account("Id-1", BigDecimal.valueOf(1000));
+        conservationLedger.recordAccountCreated(account, () -> accountsRepository.createAccount(account));
+        ConservationLedger.Epoch epoch = conservationLedger.beginEpoch();
+
+        // Act
+        conservationLedger.recordAccountsCleared(accountsRepository::clearAccounts);
+        conservationLedger.endEpoch();
+
+        // Assert
+        assertTrue(epoch.isCleared());
+        assertEquals(0, BigDecimal.ZERO.compareTo(conservationLedger.getTotalBalance()));
+        assertTrue(accountsRepository.getAccountIds().isEmpty());
+        assertFalse(conservationLedger.beginEpoch().isCleared());
+    }
+}
@@ -0,0 +1,124 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.ContentionReport;
+import com.dws.challenge.domain.HotAccount;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentionProfilerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testReport_FindsHottestAccountsAmongNoise() {
+        // Arrange
+        ContentionProfiler contentionProfiler = new ContentionProfiler(1, 1, 6, 5, 256);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            contentionProfiler.record("Cold-" + i, "Cold-" + (i + 1), 1_000, 2_000, now);
+            if (i % 10 == 0) {
+                contentionProfiler.record("Hot-1", "Cold-" + i, 50_000, 2_000, now);
+            }
+            if (i % 20 == 0) {
+                contentionProfiler.record("Hot-2", "Cold-" + i, 1_000, 2_000, now);
+            }
+        }
+
+        // Act
+        ContentionReport report = contentionProfiler.report(1, now);
+
+        // Assert
+        List<HotAccount> hotAccounts = report.getHotAccounts();
+        assertEquals(5, hotAccounts.size());
+        assertEquals("Hot-1", hotAccounts.get(0).getAccountId());
+        assertEquals("Hot-2", hotAccounts.get(1).getAccountId());
+        assertTrue(hotAccounts.get(0).getSampledTransfers() >= 1_000);
+        assertTrue(hotAccounts.get(0).getAverageLockWaitMicros() > hotAccounts.get(1).getAverageLockWaitMicros());
+        assertTrue(hotAccounts.get(0).getLockWaitShare() > 0.5);
+        assertEquals(11_500, report.getSampledTransfers());
+    }
+
+    @Test
+    void testReport_CoversOnlyRecentWindows() {
+        // Arrange
+        ContentionProfiler contentionProfiler = new ContentionProfiler(1, 1, 6, 5, 256);
+        long now = System.nanoTime();
+        contentionProfiler.record("Id-1", "Id-2", 1_000, 1_000, now);
+
+        // Act
+        ContentionReport current = contentionProfiler.report(1, now + SECOND);
+        ContentionReport recent = contentionProfiler.report(2, now + SECOND);
+        ContentionReport expired = contentionProfiler.report(6, now + 7 * SECOND);
+        contentionProfiler.record("Id-3", "Id-4", 1_000, 1_000, now + 6 * SECOND);
+
+        // Assert
+        assertTrue(current.getHotAccounts().isEmpty());
+        assertEquals(2, recent.getHotAccounts().size());
+        assertEquals(2, recent.getCoveredSeconds());
+        assertTrue(expired.getHotAccounts().isEmpty());
+        assertEquals(0, expired.getSampledTransfers());
+        assertEquals(2, contentionProfiler.report(6, now + 6 * SECOND).getHotAccounts().size());
+    }
+
+    @Test
+    void testTransfer_SampledTransfersAreRecorded() throws Exception {
+        // Arrange
+        ContentionProfiler contentionProfiler = new ContentionProfiler(1, 10, 6, 5, 256);
+        AccountsRepository accountsRepository = new AccountsRepositoryInMemory();
+        accountsRepository.createAccount(new Account("Id-1", BigDecimal.valueOf(100)));
+        accountsRepository.createAccount(new Account("Id-2", BigDecimal.valueOf(100)));
+        TransferServiceImpl transferService = new TransferServiceImpl(accountsRepository, new AccountLocks(),
+                new ConservationLedger(), new BalanceChangeFeed(1), true, contentionProfiler, new FundHoldRegistry());
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            transferService.transfer("Id-1", "Id-2", BigDecimal.ONE);
+        }
+        ContentionReport report = contentionProfiler.report(1);
+
+        // Assert
+        assertEquals(10, report.getSampledTransfers());
+        assertEquals(2, report.getHotAccounts().size());
+        assertEquals(10, report.getHotAccounts().get(0).getSampledTransfers());
+        assertTrue(report.getAverageLockHoldMicros() > 0);
+    }
+
+    @Test
+    void testConstructor_RejectsEmptyWindowsAndHeap() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ContentionProfiler(1, 0, 6, 5, 256));
+        assertThrows(IllegalArgumentException.class, () -> new ContentionProfiler(1, 1, 0, 5, 256));
+        assertThrows(IllegalArgumentException.class, () -> new ContentionProfiler(1, 1, 6, 0, 256));
+        assertThrows(IllegalArgumentException.class, () -> new ContentionProfiler(1, 1, 6, 5, 0));
+    }
+
+    @Test
+    void testRecord_FailureIsNotPassedToTheTransfer() {
+        // Arrange
+        ContentionProfiler contentionProfiler = new ContentionProfiler(1, 1, 6, 5, 256);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> contentionProfiler.record(null, "Id-2", 1_000, 1_000));
+    }
+
+    @Test
+    void testShouldSample_DisabledProfilerNeverSamples() {
+        // Arrange
+        ContentionProfiler contentionProfiler = ContentionProfiler.disabled();
+
+        // Act & Assert
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(contentionProfiler.shouldSample());
+        }
+        assertTrue(contentionProfiler.report(1).getHotAccounts().isEmpty());
+    }
+}
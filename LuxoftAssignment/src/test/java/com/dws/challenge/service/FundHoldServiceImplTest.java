@@ -0,0 +1,188 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.FundHold;
+import com.dws.challenge.domain.HeldBalance;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FundHoldServiceImplTest {
+
+    private AccountsRepository accountsRepository;
+    private ConservationLedger conservationLedger;
+    private FundHoldRegistry fundHoldRegistry;
+    private FundHoldServiceImpl fundHoldService;
+    private TransferServiceImpl transferService;
+
+    @BeforeEach
+    void setUp() {
+        accountsRepository = new AccountsRepositoryInMemory();
+        AccountLocks accountLocks = new AccountLocks();
+        conservationLedger = new ConservationLedger();
+        fundHoldRegistry = new FundHoldRegistry();
+        BalanceChangeFeed balanceChangeFeed = new BalanceChangeFeed(1);
+        for (String accountId : new String[] {"123", "456"}) {
+            Account account = new Account(accountId, BigDecimal.valueOf(500));
+            conservationLedger.recordAccountCreated(account, () -> accountsRepository.createAccount(account));
+        }
+        fundHoldService = new FundHoldServiceImpl(accountsRepository, accountLocks, conservationLedger,
+                balanceChangeFeed, fundHoldRegistry, 3600, 0);
+        transferService = new TransferServiceImpl(accountsRepository, accountLocks, conservationLedger,
+                balanceChangeFeed, true, ContentionProfiler.disabled(), fundHoldRegistry);
+    }
+
+    @Test
+    void testAuthorize_ReducesAvailableBalance() throws InsufficientFundsException {
+        // Act
+        FundHold hold = fundHoldService.authorize("123", BigDecimal.valueOf(200), null);
+
+        // Assert
+        HeldBalance heldBalance = fundHoldService.getHeldBalance("123");
+        assertEquals(BigDecimal.valueOf(500), heldBalance.getBalance());
+        assertEquals(BigDecimal.valueOf(200), heldBalance.getHeldAmount());
+        assertEquals(BigDecimal.valueOf(300), heldBalance.getAvailableBalance());
+        assertEquals(1, heldBalance.getHolds().size());
+        assertEquals(hold, fundHoldService.getHold(hold.getHoldId()));
+        assertEquals(BigDecimal.valueOf(500), accountsRepository.getAccount("123").getBalance());
+    }
+
+    @Test
+    void testAuthorize_InsufficientAvailableBalance() throws InsufficientFundsException {
+        // Arrange
+        fundHoldService.authorize("123", BigDecimal.valueOf(400), null);
+
+        // Act and Assert
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+                () -> fundHoldService.authorize("123", BigDecimal.valueOf(200), null));
+        assertEquals("Insufficient funds in account: 123", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> fundHoldService.authorize("123", BigDecimal.ZERO, null));
+        assertThrows(IllegalArgumentException.class, () -> fundHoldService.authorize("789", BigDecimal.ONE, null));
+    }
+
+    @Test
+    void testCapture_PartialThenRemainder() throws InsufficientFundsException {
+        // Arrange
+        FundHold hold = fundHoldService.authorize("123", BigDecimal.valueOf(200), null);
+
+        // Act
+        FundHold partial = fundHoldService.capture(hold.getHoldId(), "456", BigDecimal.valueOf(50));
+        FundHold full = fundHoldService.capture(hold.getHoldId(), "456", null);
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(150), partial.getHeldAmount());
+        assertEquals(BigDecimal.valueOf(50), partial.getCapturedAmount());
+        assertEquals(0, full.getHeldAmount().signum());
+        assertEquals(BigDecimal.valueOf(200), full.getCapturedAmount());
+        assertEquals(BigDecimal.valueOf(300), accountsRepository.getAccount("123").getBalance());
+        assertEquals(BigDecimal.valueOf(700), accountsRepository.getAccount("456").getBalance());
+        assertEquals(2, conservationLedger.getTransferCount());
+        assertNull(fundHoldService.getHold(hold.getHoldId()));
+        assertEquals(0, fundHoldService.getHeldBalance("123").getHeldAmount().signum());
+        assertNull(fundHoldService.capture(hold.getHoldId(), "456", null));
+    }
+
+    @Test
+    void testCapture_InvalidAmountOrAccount() throws InsufficientFundsException {
+        // Arrange
+        FundHold hold = fundHoldService.authorize("123", BigDecimal.valueOf(200), null);
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> fundHoldService.capture(hold.getHoldId(), "456", BigDecimal.valueOf(201)));
+        assertThrows(IllegalArgumentException.class,
+                () -> fundHoldService.capture(hold.getHoldId(), "123", BigDecimal.valueOf(10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> fundHoldService.capture(hold.getHoldId(), "456", BigDecimal.valueOf(-1)));
+        assertEquals(BigDecimal.valueOf(200), fundHoldService.getHold(hold.getHoldId()).getHeldAmount());
+        assertEquals(BigDecimal.valueOf(500), accountsRepository.getAccount("123").getBalance());
+    }
+
+    @Test
+    void testCapture_RejectedWhenBalanceNoLongerCoversIt() throws InsufficientFundsException {
+        // Arrange
+        FundHold hold = fundHoldService.authorize("123", BigDecimal.valueOf(400), null);
+        accountsRepository.getAccount("123").setBalance(BigDecimal.valueOf(300));
+
+        // Act and Assert
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+                () -> fundHoldService.capture(hold.getHoldId(), "456", null));
+        assertEquals("Insufficient funds in account: 123", exception.getMessage());
+        assertEquals(BigDecimal.valueOf(400), fundHoldService.getHold(hold.getHoldId()).getHeldAmount());
+        assertEquals(BigDecimal.valueOf(300), accountsRepository.getAccount("123").getBalance());
+        assertEquals(BigDecimal.valueOf(500), accountsRepository.getAccount("456").getBalance());
+        assertEquals(0, conservationLedger.getTransferCount());
+    }
+
+    @Test
+    void testRelease_RestoresAvailableBalance() throws InsufficientFundsException {
+        // Arrange
+        FundHold hold = fundHoldService.authorize("123", BigDecimal.valueOf(200), null);
+
+        // Act
+        FundHold released = fundHoldService.release(hold.getHoldId());
+
+        // Assert
+        assertEquals(hold, released);
+        assertNull(fundHoldService.release(hold.getHoldId()));
+        assertEquals(BigDecimal.valueOf(500), fundHoldService.getHeldBalance("123").getAvailableBalance());
+        assertEquals(0, fundHoldRegistry.size());
+    }
+
+    @Test
+    void testTransfer_CannotSpendHeldFunds() throws InsufficientFundsException {
+        // Arrange
+        fundHoldService.authorize("123", BigDecimal.valueOf(400), null);
+
+        // Act and Assert
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+                () -> transferService.transfer("123", "456", BigDecimal.valueOf(200)));
+        assertEquals("Insufficient funds in account: 123", exception.getMessage());
+        assertDoesNotThrow(() -> transferService.transfer("123", "456", BigDecimal.valueOf(100)));
+        assertEquals(BigDecimal.valueOf(400), accountsRepository.getAccount("123").getBalance());
+    }
+
+    @Test
+    void testExpiredHold_IsDroppedOnAccess() throws InsufficientFundsException {
+        // Arrange
+        addHold("hold-1", "123", BigDecimal.valueOf(400), Instant.now().minusSeconds(1));
+
+        // Act and Assert
+        assertEquals(BigDecimal.ZERO, fundHoldRegistry.peekHeldAmount("123"));
+        assertDoesNotThrow(() -> transferService.transfer("123", "456", BigDecimal.valueOf(200)));
+        assertNull(fundHoldService.getHold("hold-1"));
+        assertNull(fundHoldService.capture("hold-1", "456", null));
+        assertEquals(0, fundHoldRegistry.size());
+    }
+
+    @Test
+    void testSweep_DropsOnlyExpiredHolds() {
+        // Arrange
+        addHold("hold-1", "123", BigDecimal.valueOf(100), Instant.now().minusSeconds(1));
+        addHold("hold-2", "123", BigDecimal.valueOf(100), Instant.now().plusSeconds(3600));
+        addHold("hold-3", "456", BigDecimal.valueOf(100), Instant.now().minusSeconds(1));
+
+        // Act
+        int expired = fundHoldService.sweep();
+
+        // Assert
+        assertEquals(2, expired);
+        assertEquals(1, fundHoldRegistry.size());
+        assertNotNull(fundHoldService.getHold("hold-2"));
+        assertEquals(BigDecimal.valueOf(100), fundHoldRegistry.peekHeldAmount("123"));
+        assertEquals(BigDecimal.ZERO, fundHoldRegistry.peekHeldAmount("456"));
+    }
+
+    private void addHold(String holdId, String accountId, BigDecimal amount, Instant expiresAt) {
+        fundHoldRegistry.add(new FundHold(holdId, accountId, amount, amount, BigDecimal.ZERO,
+                expiresAt.minusSeconds(3600), expiresAt));
+    }
+}
@@ -0,0 +1,85 @@
+package com.dws.challenge.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void testAdvanceTo_FiresOnlyDueTasks() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3, START);
+        wheel.schedule("soon", START + 25);
+        wheel.schedule("later", START + 5_000);
+        List<String> fired = new ArrayList<>();
+
+        // Act
+        int count = wheel.advanceTo(START + 30, fired::add);
+
+        // Assert
+        assertEquals(1, count);
+        assertEquals(List.of("soon"), fired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void testAdvanceTo_NeverFiresEarlyAcrossLevels() {
+        // Arrange: 4 bits x 3 levels covers 4096 ticks, so the last deadlines are parked on the top level
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 3, START);
+        for (long offset = 1; offset < 100_000; offset += 997) {
+            wheel.schedule(START + offset, START + offset);
+        }
+        int expected = wheel.size();
+        List<Long> fired = new ArrayList<>();
+
+        // Act and Assert
+        for (long now = START; now <= START + 100_000; now += 50) {
+            long current = now;
+            wheel.advanceTo(now, deadline -> {
+                assertTrue(deadline <= current, "fired before its deadline");
+                assertTrue(deadline > current - 60, "fired too late");
+                fired.add(deadline);
+            });
+        }
+        assertEquals(expected, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancel() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 6, 4, START);
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule("cancelled", START + 100);
+        List<String> fired = new ArrayList<>();
+
+        // Act
+        boolean cancelled = wheel.cancel(timeout);
+        wheel.advanceTo(START + 1_000, fired::add);
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(wheel.cancel(timeout));
+        assertTrue(fired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testSchedule_PastDeadlineFiresOnNextAdvance() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 6, 4, START);
+        wheel.schedule("overdue", START - 1_000);
+        List<String> fired = new ArrayList<>();
+
+        // Act
+        wheel.advanceTo(START, fired::add);
+
+        // Assert
+        assertEquals(List.of("overdue"), fired);
+    }
+}
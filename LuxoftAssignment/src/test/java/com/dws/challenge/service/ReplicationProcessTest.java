@@ -0,0 +1,72 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.benchmark.NodeLauncher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Forks a primary and one follower, each in its own JVM, and checks over the loopback socket and
+ * HTTP that the follower reflects the writes made on the primary.
+ */
+public class ReplicationProcessTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final int TRANSFERS = 100;
+    private static final Pattern BALANCE = Pattern.compile("\"balance\":([-0-9.]+)");
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void testForkedFollower_ReflectsPrimaryWrites() throws Exception {
+        int replicationPort = NodeLauncher.freePort();
+        try (NodeLauncher nodes = new NodeLauncher(workDir)) {
+            // Arrange
+            int primary = nodes.start("primary", "--replication.listen-port=" + replicationPort);
+            int follower = nodes.start("follower", "--spring.profiles.active=replica",
+                    "--replication.primary-port=" + replicationPort);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                assertEquals(201, NodeLauncher.post(primary, "/v1/accounts",
+                        "{\"accountId\":\"Id-" + i + "\",\"balance\":1000}").getStatus());
+            }
+
+            // Act
+            long sequence = -1;
+            for (int i = 0; i < TRANSFERS; i++) {
+                NodeLauncher.Response transfer = NodeLauncher.post(primary, "/api/transfers/initiate?accountFromId=Id-"
+                        + (i % ACCOUNTS) + "&accountToId=Id-" + ((i * 7 + 3) % ACCOUNTS) + "&amount=" + (i % 50 + 1), null);
+                assertEquals(200, transfer.getStatus());
+                sequence = Math.max(sequence, transfer.getSequence());
+            }
+            NodeLauncher.Response rejected = NodeLauncher.post(follower, "/v1/accounts",
+                    "{\"accountId\":\"Id-replica\",\"balance\":1000}");
+
+            // Assert
+            assertTrue(sequence > 0);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < ACCOUNTS; i++) {
+                NodeLauncher.Response onPrimary = NodeLauncher.get(primary, "/v1/accounts/Id-" + i, -1);
+                NodeLauncher.Response onFollower = NodeLauncher.get(follower, "/v1/accounts/Id-" + i, sequence);
+                assertEquals(200, onFollower.getStatus());
+                assertTrue(onFollower.getSequence() >= sequence);
+                assertEquals(0, balance(onPrimary).compareTo(balance(onFollower)), "Id-" + i);
+                total = total.add(balance(onFollower));
+            }
+            assertEquals(0, BigDecimal.valueOf(1000L * ACCOUNTS).compareTo(total));
+            assertEquals(405, rejected.getStatus());
+        }
+    }
+
+    private static BigDecimal balance(NodeLauncher.Response response) {
+        Matcher matcher = BALANCE.matcher(response.getBody());
+        assertTrue(matcher.find(), response.getBody());
+        return new BigDecimal(matcher.group(1));
+    }
+}
@@ -0,0 +1,152 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.ReplicationStatus;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.repository.AccountsRepositoryReplica;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicationServerTest {
+
+    private static final int ACCOUNTS = 100;
+
+    private AccountsRepository accountsRepository;
+    private BalanceChangeFeed balanceChangeFeed;
+    private AccountsService accountsService;
+    private TransferServiceImpl transferService;
+    private ReplicationServer replicationServer;
+    private AccountsRepositoryReplica replica;
+    private ReplicationFollower replicationFollower;
+    private int port;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        accountsRepository = new AccountsRepositoryInMemory();
+        AccountLocks accountLocks = new AccountLocks();
+        ConservationLedger conservationLedger = new ConservationLedger();
+        balanceChangeFeed = new BalanceChangeFeed(1);
+        accountsService = new AccountsService(accountsRepository, conservationLedger, accountLocks, balanceChangeFeed);
+        transferService = new TransferServiceImpl(accountsRepository, accountLocks, conservationLedger, balanceChangeFeed,
+                true, ContentionProfiler.disabled(), new FundHoldRegistry());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountsService.createAccount(new Account("Id-" + i, BigDecimal.valueOf(1000)));
+        }
+        replicationServer = new ReplicationServer(accountsRepository, accountLocks, balanceChangeFeed, 0, 1_000_000, 20);
+        port = replicationServer.listen(0);
+        replica = new AccountsRepositoryReplica();
+        replicationFollower = new ReplicationFollower(replica, "localhost", port, 50, 5_000, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        replicationFollower.stop();
+        replicationServer.stop();
+        balanceChangeFeed.stop();
+    }
+
+    @Test
+    void testFollower_LoadsSnapshotThenFollowsChanges() throws InsufficientFundsException {
+        // Arrange
+        transferService.transfer("Id-0", "Id-1", BigDecimal.valueOf(100));
+        replicationFollower.start();
+        assertTrue(replicationFollower.awaitSequence(balanceChangeFeed.currentSequence()));
+
+        // Act
+        transferService.transfer("Id-1", "Id-2", BigDecimal.valueOf(300));
+        accountsService.createAccount(new Account("Id-new", BigDecimal.valueOf(5)));
+        long written = balanceChangeFeed.currentSequence();
+
+        // Assert
+        assertTrue(replicationFollower.awaitSequence(written));
+        assertEquals(BigDecimal.valueOf(900), replica.getAccount("Id-0").getBalance());
+        assertEquals(BigDecimal.valueOf(800), replica.getAccount("Id-1").getBalance());
+        assertEquals(BigDecimal.valueOf(1300), replica.getAccount("Id-2").getBalance());
+        assertEquals(BigDecimal.valueOf(5), replica.getAccount("Id-new").getBalance());
+        assertEquals(1, replicationServer.getFollowerCount());
+    }
+
+    @Test
+    void testFollower_ConvergesUnderConcurrentTransfers() throws Exception {
+        // Arrange
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            writers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    try {
+                        transferService.transfer("Id-" + from, "Id-" + to, BigDecimal.valueOf(random.nextInt(1, 50)));
+                    } catch (InsufficientFundsException e) {
+                        // Expected now and then
+                    }
+                }
+            }));
+        }
+
+        // Act: the snapshot is taken while transfers are running
+        writers.forEach(Thread::start);
+        replicationFollower.start();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Assert
+        assertTrue(replicationFollower.awaitSequence(balanceChangeFeed.currentSequence()));
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertEquals(accountsRepository.getAccount("Id-" + i).getBalance(), replica.getAccount("Id-" + i).getBalance());
+        }
+    }
+
+    @Test
+    void testFollower_ResynchronizesAfterReconnect() throws Exception {
+        // Arrange
+        replicationFollower.start();
+        assertTrue(replicationFollower.awaitSequence(balanceChangeFeed.currentSequence()));
+        replicationServer.stop();
+        transferService.transfer("Id-0", "Id-1", BigDecimal.valueOf(100));
+
+        // Act
+        replicationServer = new ReplicationServer(accountsRepository, new AccountLocks(), balanceChangeFeed, 0, 1_000_000, 20);
+        replicationServer.listen(port);
+
+        // Assert
+        assertTrue(replicationFollower.awaitSequence(balanceChangeFeed.currentSequence()));
+        assertEquals(BigDecimal.valueOf(900), replica.getAccount("Id-0").getBalance());
+        ReplicationStatus status = replicationFollower.getStatus();
+        assertEquals(balanceChangeFeed.currentSequence(), status.getSequence());
+        assertTrue(replicationFollower.isWithinStalenessBound());
+    }
+
+    @Test
+    void testFollower_RecoversFromQueueOverflow() throws Exception {
+        // Arrange
+        replicationServer.stop();
+        replicationServer = new ReplicationServer(accountsRepository, new AccountLocks(), balanceChangeFeed, 0, 1, 20);
+        replicationServer.listen(port);
+        replicationFollower.start();
+
+        // Act: bursts overflow the single queued change now and then, each time forcing a fresh snapshot
+        for (int i = 0; i < 1_000; i++) {
+            transferService.transfer("Id-" + (i % ACCOUNTS), "Id-" + ((i + 1) % ACCOUNTS), BigDecimal.ONE);
+        }
+
+        // Assert
+        assertTrue(replicationFollower.awaitSequence(balanceChangeFeed.currentSequence()));
+        for (int i = 0; i < ACCOUNTS; i++) {
+            assertEquals(accountsRepository.getAccount("Id-" + i).getBalance(), replica.getAccount("Id-" + i).getBalance());
+        }
+    }
+}
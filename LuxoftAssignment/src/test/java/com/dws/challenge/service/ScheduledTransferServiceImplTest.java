@@ -0,0 +1,137 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.ScheduledTransfersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ScheduledTransferServiceImplTest {
+
+    @Mock
+    private TransferSagaService transferSagaService;
+
+    @Mock
+    private ScheduledTransfersRepository scheduledTransfersRepository;
+
+    private ScheduledTransferServiceImpl scheduledTransferService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(scheduledTransfersRepository.loadAll()).thenReturn(Collections.emptyList());
+        scheduledTransferService = new ScheduledTransferServiceImpl(transferSagaService, scheduledTransfersRepository,
+                Runnable::run, 10, 2);
+    }
+
+    @Test
+    void testScheduleTransfer_FiresOnceWhenDue() throws InsufficientFundsException {
+        // Arrange
+        Instant executeAt = Instant.now().plusSeconds(5);
+        ScheduledTransfer scheduledTransfer = scheduledTransferService.scheduleTransfer("123", "456",
+                BigDecimal.valueOf(100), executeAt, 0);
+
+        // Act
+        int firedEarly = scheduledTransferService.tick(executeAt.toEpochMilli() - 1_000);
+        int fired = scheduledTransferService.tick(executeAt.toEpochMilli() + 10);
+
+        // Assert
+        assertEquals(0, firedEarly);
+        assertEquals(1, fired);
+        verify(transferSagaService, times(1)).initiateTransferSaga("123", "456", BigDecimal.valueOf(100));
+        verify(scheduledTransfersRepository).deleteAll(List.of(scheduledTransfer.getScheduleId()));
+        assertTrue(scheduledTransferService.getScheduledTransfers().isEmpty());
+    }
+
+    @Test
+    void testScheduleTransfer_RecurringIsRearmed() throws InsufficientFundsException {
+        // Arrange
+        Instant executeAt = Instant.now().plusSeconds(5);
+        ScheduledTransfer scheduledTransfer = scheduledTransferService.scheduleTransfer("123", "456",
+                BigDecimal.valueOf(100), executeAt, 60);
+
+        // Act
+        scheduledTransferService.tick(executeAt.toEpochMilli() + 10);
+
+        // Assert
+        verify(transferSagaService, times(1)).initiateTransferSaga("123", "456", BigDecimal.valueOf(100));
+        assertEquals(executeAt.plusSeconds(60).toEpochMilli(), scheduledTransfer.getNextExecution().toEpochMilli());
+        assertEquals(List.of(scheduledTransfer), scheduledTransferService.getScheduledTransfers());
+    }
+
+    @Test
+    void testScheduleTransfer_FiringIsJournaledBeforeSagaRuns() throws InsufficientFundsException {
+        // Arrange
+        Instant executeAt = Instant.now().plusSeconds(5);
+        ScheduledTransfer oneShot = scheduledTransferService.scheduleTransfer("123", "456",
+                BigDecimal.valueOf(100), executeAt, 0);
+        ScheduledTransfer recurring = scheduledTransferService.scheduleTransfer("789", "456",
+                BigDecimal.valueOf(50), executeAt, 60);
+        clearInvocations(scheduledTransfersRepository);
+
+        // Act
+        scheduledTransferService.tick(executeAt.toEpochMilli() + 10);
+
+        // Assert
+        InOrder inOrder = inOrder(scheduledTransfersRepository, transferSagaService);
+        inOrder.verify(scheduledTransfersRepository).saveAll(List.of(recurring));
+        inOrder.verify(scheduledTransfersRepository).deleteAll(List.of(oneShot.getScheduleId()));
+        inOrder.verify(transferSagaService, times(2)).initiateTransferSaga(anyString(), eq("456"), any(BigDecimal.class));
+    }
+
+    @Test
+    void testScheduleTransfer_FailedTransferDoesNotStopBatch() throws InsufficientFundsException {
+        // Arrange
+        Instant executeAt = Instant.now().plusSeconds(5);
+        doThrow(new InsufficientFundsException("Insufficient funds")).when(transferSagaService)
+                .initiateTransferSaga(eq("123"), anyString(), any(BigDecimal.class));
+        scheduledTransferService.scheduleTransfer("123", "456", BigDecimal.valueOf(100), executeAt, 0);
+        scheduledTransferService.scheduleTransfer("789", "456", BigDecimal.valueOf(100), executeAt, 0);
+        scheduledTransferService.scheduleTransfer("789", "123", BigDecimal.valueOf(100), executeAt, 0);
+
+        // Act
+        int fired = scheduledTransferService.tick(executeAt.toEpochMilli() + 10);
+
+        // Assert
+        assertEquals(3, fired);
+        verify(transferSagaService, times(3)).initiateTransferSaga(anyString(), anyString(), any(BigDecimal.class));
+    }
+
+    @Test
+    void testCancelScheduledTransfer() throws InsufficientFundsException {
+        // Arrange
+        Instant executeAt = Instant.now().plusSeconds(5);
+        ScheduledTransfer scheduledTransfer = scheduledTransferService.scheduleTransfer("123", "456",
+                BigDecimal.valueOf(100), executeAt, 0);
+
+        // Act
+        boolean cancelled = scheduledTransferService.cancelScheduledTransfer(scheduledTransfer.getScheduleId());
+        scheduledTransferService.tick(executeAt.toEpochMilli() + 10);
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(scheduledTransferService.cancelScheduledTransfer(scheduledTransfer.getScheduleId()));
+        verify(transferSagaService, never()).initiateTransferSaga(anyString(), anyString(), any(BigDecimal.class));
+    }
+
+    @Test
+    void testScheduleTransfer_NegativeAmount() {
+        // Act and Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> scheduledTransferService.scheduleTransfer("123", "456", new BigDecimal("-100"), Instant.now(), 0));
+
+        assertEquals("The amount to transfer must be a positive number", exception.getMessage());
+    }
+}
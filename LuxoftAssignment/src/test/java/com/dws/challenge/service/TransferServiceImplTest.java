@@ -1,14 +1,18 @@
 package com.dws.challenge.service;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferLeg;
 import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
 import com.dws.challenge.repository.AccountsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -17,12 +21,22 @@ public class TransferServiceImplTest {
     @Mock
     private AccountsRepository accountsRepository;
 
-    @InjectMocks
+    @Spy
+    private AccountLocks accountLocks = new AccountLocks();
+
+    @Spy
+    private ConservationLedger conservationLedger = new ConservationLedger();
+
+    @Spy
+    private BalanceChangeFeed balanceChangeFeed = new BalanceChangeFeed(1);
+
     private TransferServiceImpl transferService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        transferService = new TransferServiceImpl(accountsRepository, accountLocks, conservationLedger, balanceChangeFeed,
+                true, ContentionProfiler.disabled(), new FundHoldRegistry());
     }
 
     @Test
@@ -43,6 +57,9 @@ public class TransferServiceImplTest {
         // Assert
         assertEquals(BigDecimal.valueOf(400), accountFrom.getBalance());
         assertEquals(BigDecimal.valueOf(2100), accountTo.getBalance());
+        assertEquals(1, conservationLedger.getTransferCount());
+        verify(balanceChangeFeed).publish(accountFrom);
+        verify(balanceChangeFeed).publish(accountTo);
     }
 
     @Test
@@ -66,6 +83,50 @@ public class TransferServiceImplTest {
         assertEquals(BigDecimal.valueOf(2000), accountTo.getBalance());
     }
 
+    @Test
+    void testTransfer_InsufficientFundsRejectedWithoutLocking() {
+        // Arrange
+        Account accountFrom = new Account("123", BigDecimal.valueOf(50));
+        Account accountTo = new Account("456", BigDecimal.valueOf(2000));
+
+        when(accountsRepository.getAccount("123")).thenReturn(accountFrom);
+        when(accountsRepository.getAccount("456")).thenReturn(accountTo);
+
+        // Act and Assert
+        assertThrows(InsufficientFundsException.class, () -> transferService.transfer("123", "456", BigDecimal.valueOf(100)));
+        verify(accountLocks, never()).lockAt(anyInt());
+        verify(accountLocks, never()).lockFor(anyString());
+    }
+
+    @Test
+    void testTransfer_PrecheckDefersToLockWhileStripeIsHeld() throws InterruptedException {
+        // Arrange
+        Account accountFrom = new Account("123", BigDecimal.valueOf(50));
+        Account accountTo = new Account("456", BigDecimal.valueOf(2000));
+
+        when(accountsRepository.getAccount("123")).thenReturn(accountFrom);
+        when(accountsRepository.getAccount("456")).thenReturn(accountTo);
+
+        // Act: a deposit commits while the transfer waits for the lock
+        accountLocks.lockFor("123").lock();
+        Thread transfer = new Thread(() -> assertDoesNotThrow(
+                () -> transferService.transfer("123", "456", BigDecimal.valueOf(100))));
+        try {
+            transfer.start();
+            while (!((ReentrantLock) accountLocks.lockFor("123")).hasQueuedThreads()) {
+                Thread.onSpinWait();
+            }
+            accountFrom.setBalance(BigDecimal.valueOf(150));
+        } finally {
+            accountLocks.lockFor("123").unlock();
+        }
+        transfer.join();
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(50), accountFrom.getBalance());
+        assertEquals(BigDecimal.valueOf(2100), accountTo.getBalance());
+    }
+
     @Test
     void testTransfer_NullAccount() {
         // Arrange
@@ -98,4 +159,71 @@ public class TransferServiceImplTest {
         // Verify that the expected exception is thrown
         assertEquals("The amount to transfer must be a positive number", exception.getMessage());
     }
+
+    @Test
+    void testTransferMultiLeg_SuccessfulTransfer() throws InsufficientFundsException {
+        // Arrange
+        Account accountFrom = new Account("500", BigDecimal.valueOf(1000));
+        Account accountTo1 = new Account("123", BigDecimal.valueOf(10));
+        Account accountTo2 = new Account("900", BigDecimal.valueOf(20));
+        when(accountsRepository.getAccount("500")).thenReturn(accountFrom);
+        when(accountsRepository.getAccount("123")).thenReturn(accountTo1);
+        when(accountsRepository.getAccount("900")).thenReturn(accountTo2);
+
+        // Act
+        transferService.transferMultiLeg("500", List.of(
+                new TransferLeg("900", BigDecimal.valueOf(100)),
+                new TransferLeg("123", BigDecimal.valueOf(200)),
+                new TransferLeg("900", BigDecimal.valueOf(300))));
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(400), accountFrom.getBalance());
+        assertEquals(BigDecimal.valueOf(210), accountTo1.getBalance());
+        assertEquals(BigDecimal.valueOf(420), accountTo2.getBalance());
+        verify(accountsRepository, times(1)).getAccount("900");
+    }
+
+    @Test
+    void testTransferMultiLeg_InsufficientFundsAppliesNoLeg() {
+        // Arrange
+        Account accountFrom = new Account("500", BigDecimal.valueOf(250));
+        Account accountTo1 = new Account("123", BigDecimal.valueOf(10));
+        Account accountTo2 = new Account("900", BigDecimal.valueOf(20));
+        when(accountsRepository.getAccount("500")).thenReturn(accountFrom);
+        when(accountsRepository.getAccount("123")).thenReturn(accountTo1);
+        when(accountsRepository.getAccount("900")).thenReturn(accountTo2);
+
+        // Act and Assert
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+                () -> transferService.transferMultiLeg("500", List.of(
+                        new TransferLeg("123", BigDecimal.valueOf(200)),
+                        new TransferLeg("900", BigDecimal.valueOf(100)))));
+
+        assertEquals("Insufficient funds in account: 500", exception.getMessage());
+        assertEquals(BigDecimal.valueOf(250), accountFrom.getBalance());
+        assertEquals(BigDecimal.valueOf(10), accountTo1.getBalance());
+        assertEquals(BigDecimal.valueOf(20), accountTo2.getBalance());
+    }
+
+    @Test
+    void testTransferMultiLeg_NullAccount() {
+        // Arrange
+        when(accountsRepository.getAccount("500")).thenReturn(new Account("500", BigDecimal.valueOf(1000)));
+        when(accountsRepository.getAccount("123")).thenReturn(null);
+
+        // Act and Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> transferService.transferMultiLeg("500", List.of(new TransferLeg("123", BigDecimal.valueOf(100)))));
+
+        assertEquals("Invalid account details provided", exception.getMessage());
+    }
+
+    @Test
+    void testTransferMultiLeg_CreditToDebitedAccount() {
+        // Act and Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> transferService.transferMultiLeg("500", List.of(new TransferLeg("500", BigDecimal.valueOf(100)))));
+
+        assertEquals("A multi-leg transfer cannot credit the account it debits", exception.getMessage());
+    }
 }
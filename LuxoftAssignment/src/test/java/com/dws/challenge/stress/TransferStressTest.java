@@ -0,0 +1,334 @@
+package com.dws.challenge.stress;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.TransferLeg;
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.repository.AccountLocks;
+import com.dws.challenge.repository.AccountsRepository;
+import com.dws.challenge.repository.AccountsRepositoryCompact;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import com.dws.challenge.repository.AccountsRepositoryTiered;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.ConservationAuditor;
+import com.dws.challenge.service.ConservationLedger;
+import com.dws.challenge.service.ContentionProfiler;
+import com.dws.challenge.service.FundHoldRegistry;
+import com.dws.challenge.service.TransferServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs millions of randomized concurrent transfers against each repository implementation and checks
+ * that money is conserved, that no balance goes negative, that unlocked readers never see a broken
+ * balance, and that the locking scheme never deadlocks. A run that stops making progress fails with
+ * a dump of every thread. Throughput of each run is printed and appended to stress.results.file.
+ * Run with ./gradlew stress [-PstressTransfers=...].
+ */
+@Tag("stress")
+public class TransferStressTest {
+
+    private static final long TRANSFERS = Long.getLong("stress.transfers", 1_000_000);
+    private static final long TIMEOUT_SECONDS = Long.getLong("stress.timeout.seconds", 600);
+    private static final String RESULTS_FILE = System.getProperty("stress.results.file");
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(1_000);
+
+    private static Level transferLogLevel;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void quietTransferLog() {
+        // One log line per transfer would dominate the run
+        Logger logger = (Logger) LoggerFactory.getLogger(TransferServiceImpl.class);
+        transferLogLevel = logger.getLevel();
+        logger.setLevel(Level.WARN);
+    }
+
+    @AfterAll
+    static void restoreTransferLog() {
+        ((Logger) LoggerFactory.getLogger(TransferServiceImpl.class)).setLevel(transferLogLevel);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"in-memory", "compact", "tiered"})
+    void testRandomTransfers_SmallAccountSet(String repositoryType) throws Exception {
+        runScenario("random-small", repositoryType, 8, TransferStressTest::randomTransfer);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"in-memory", "compact", "tiered"})
+    void testRandomTransfers_LargeAccountSet(String repositoryType) throws Exception {
+        runScenario("random-large", repositoryType, 100_000, TransferStressTest::randomTransfer);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"in-memory", "compact", "tiered"})
+    void testCyclicTransfers(String repositoryType) throws Exception {
+        // Half the workers move money around a ring of four accounts one way, half the other way,
+        // so A->B and B->A transfers and longer cycles are always in flight together
+        runScenario("cycles", repositoryType, 4, (bank, worker, iteration, random) -> {
+            int from = (int) ((iteration + worker) % 4);
+            int to = (from + (worker % 2 == 0 ? 1 : 3)) % 4;
+            bank.transferService.transfer(bank.accountIds[from], bank.accountIds[to], BigDecimal.valueOf(random.nextInt(1, 10)));
+        });
+    }
+
+    /**
+     * Mixes plain transfers with self-transfers (about 10%) and multi-leg transfers (about 5%).
+     */
+    private static void randomTransfer(Bank bank, int worker, long iteration, ThreadLocalRandom random)
+            throws InsufficientFundsException {
+        String[] accountIds = bank.accountIds;
+        String from = accountIds[random.nextInt(accountIds.length)];
+        int kind = random.nextInt(100);
+        if (kind < 10) {
+            bank.transferService.transfer(from, from, BigDecimal.valueOf(random.nextInt(1, 200)));
+        } else if (kind < 15) {
+            List<TransferLeg> legs = new ArrayList<>();
+            for (int i = random.nextInt(2, 5); i > 0; i--) {
+                String to = accountIds[random.nextInt(accountIds.length)];
+                if (!to.equals(from)) {
+                    legs.add(new TransferLeg(to, BigDecimal.valueOf(random.nextInt(1, 50))));
+                }
+            }
+            if (!legs.isEmpty()) {
+                bank.transferService.transferMultiLeg(from, legs);
+            }
+        } else {
+            bank.transferService.transfer(from, accountIds[random.nextInt(accountIds.length)],
+                    BigDecimal.valueOf(random.nextInt(1, 200)));
+        }
+    }
+
+    private void runScenario(String scenario, String repositoryType, int accounts, Workload workload) throws Exception {
+        Bank bank = new Bank(repositoryType, accounts, tempDir);
+        try {
+            LongAdder completed = new LongAdder();
+            LongAdder declined = new LongAdder();
+            LongAdder readViolations = new LongAdder();
+            LongAdder inconsistentAudits = new LongAdder();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AtomicBoolean running = new AtomicBoolean(true);
+            long perWorker = TRANSFERS / THREADS;
+            CountDownLatch done = new CountDownLatch(THREADS);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < THREADS; w++) {
+                int worker = w;
+                threads.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    try {
+                        for (long i = 0; i < perWorker; i++) {
+                            try {
+                                workload.run(bank, worker, i, random);
+                                completed.increment();
+                            } catch (InsufficientFundsException e) {
+                                declined.increment();
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }, "stress-worker-" + w));
+            }
+            // Readers go through the service like the accounts endpoint, without taking any lock
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    Account account = bank.accountsService.getAccount(bank.accountIds[random.nextInt(accounts)]);
+                    BigDecimal balance = account == null ? null : account.getBalance();
+                    if (balance == null || balance.signum() < 0) {
+                        readViolations.increment();
+                    }
+                }
+            }, "stress-reader"));
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    if (!bank.auditor.audit().isConsistent()) {
+                        inconsistentAudits.increment();
+                    }
+                }
+            }, "stress-auditor"));
+
+            long started = System.nanoTime();
+            threads.forEach(Thread::start);
+            awaitWithoutDeadlock(done, scenario + "/" + repositoryType);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            running.set(false);
+            for (Thread thread : threads) {
+                thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+            }
+
+            assertNull(failure.get(), () -> "A worker failed: " + failure.get());
+            assertEquals(0, readViolations.sum(), "unlocked reads saw a missing or negative balance");
+            assertEquals(0, inconsistentAudits.sum(), "an audit ran while transfers were in flight and found a discrepancy");
+            BigDecimal total = BigDecimal.ZERO;
+            for (String accountId : bank.accountIds) {
+                BigDecimal balance = bank.accountsRepository.getAccount(accountId).getBalance();
+                assertTrue(balance.signum() >= 0, () -> accountId + " went negative: " + balance);
+                total = total.add(balance);
+            }
+            BigDecimal expected = OPENING_BALANCE.multiply(BigDecimal.valueOf(accounts));
+            assertEquals(0, expected.compareTo(total), "money was created or destroyed");
+            assertEquals(0, expected.compareTo(bank.conservationLedger.getTotalBalance()));
+            assertTrue(bank.auditor.audit().isConsistent());
+            assertEquals(perWorker * THREADS, completed.sum() + declined.sum());
+
+            recordThroughput(scenario, repositoryType, accounts, completed.sum(), declined.sum(), seconds);
+        } finally {
+            bank.close();
+        }
+    }
+
+    /**
+     * Waits for the workers, checking every second for threads deadlocked on monitors or locks.
+     * Fails with a full thread dump on a deadlock or when the run exceeds the timeout.
+     */
+    private static void awaitWithoutDeadlock(CountDownLatch done, String run) throws InterruptedException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!done.await(1, TimeUnit.SECONDS)) {
+            long[] deadlocked = threadMXBean.findDeadlockedThreads();
+            if (deadlocked != null) {
+                fail("Deadlock in " + run + ":\n" + dump(threadMXBean.getThreadInfo(deadlocked, true, true)));
+            }
+            if (System.nanoTime() > deadline) {
+                fail("No completion within " + TIMEOUT_SECONDS + " s in " + run + ":\n"
+                        + dump(threadMXBean.dumpAllThreads(true, true)));
+            }
+        }
+    }
+
+    private static String dump(ThreadInfo[] threadInfos) {
+        StringBuilder dump = new StringBuilder();
+        for (ThreadInfo threadInfo : threadInfos) {
+            // ThreadInfo.toString cuts stacks at eight frames
+            dump.append('"').append(threadInfo.getThreadName()).append("\" ").append(threadInfo.getThreadState());
+            if (threadInfo.getLockName() != null) {
+                dump.append(" on ").append(threadInfo.getLockName());
+            }
+            if (threadInfo.getLockOwnerName() != null) {
+                dump.append(" owned by \"").append(threadInfo.getLockOwnerName()).append('"');
+            }
+            dump.append('\n');
+            for (StackTraceElement frame : threadInfo.getStackTrace()) {
+                dump.append("\tat ").append(frame).append('\n');
+            }
+            dump.append('\n');
+        }
+        return dump.toString();
+    }
+
+    private static void recordThroughput(String scenario, String repositoryType, int accounts, long completed,
+                                         long declined, double seconds) throws IOException {
+        double perSecond = (completed + declined) / seconds;
+        System.out.printf("Stress %-12s %-9s %,7d accounts, %2d threads: %,10d completed, %,10d declined, %,10.0f transfers/s%n",
+                scenario, repositoryType, accounts, THREADS, completed, declined, perSecond);
+        if (RESULTS_FILE == null) {
+            return;
+        }
+        Path results = Paths.get(RESULTS_FILE);
+        Files.createDirectories(results.toAbsolutePath().getParent());
+        if (!Files.exists(results)) {
+            Files.write(results, "timestamp,scenario,repository,accounts,threads,completed,declined,seconds,transfers_per_second\n"
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        String line = String.format("%s,%s,%s,%d,%d,%d,%d,%.3f,%.0f%n", Instant.now(), scenario, repositoryType, accounts,
+                THREADS, completed, declined, seconds, perSecond);
+        Files.write(results, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Workload interface for one step of a stress worker.
+     */
+    private interface Workload {
+        void run(Bank bank, int worker, long iteration, ThreadLocalRandom random) throws InsufficientFundsException;
+    }
+
+    /**
+     * Bank class wiring the services under test around one repository implementation.
+     */
+    private static final class Bank {
+
+        private final AccountsRepository accountsRepository;
+        private final AccountsRepositoryTiered tieredRepository;
+        private final ConservationLedger conservationLedger = new ConservationLedger();
+        private final BalanceChangeFeed balanceChangeFeed = new BalanceChangeFeed(1);
+        private final AccountsService accountsService;
+        private final TransferServiceImpl transferService;
+        private final ConservationAuditor auditor;
+        private final String[] accountIds;
+
+        private Bank(String repositoryType, int accounts, Path tempDir) {
+            AccountLocks accountLocks = new AccountLocks();
+            switch (repositoryType) {
+                case "compact":
+                    tieredRepository = null;
+                    accountsRepository = new AccountsRepositoryCompact(accountLocks);
+                    break;
+                case "tiered":
+                    // Demote every idle account each second so transfers race promotion and demotion
+                    tieredRepository = new AccountsRepositoryTiered(accountLocks,
+                            tempDir.resolve("accounts.store").toString(), Math.max(1024, accounts * 2), 0, 1);
+                    tieredRepository.start();
+                    accountsRepository = tieredRepository;
+                    break;
+                default:
+                    tieredRepository = null;
+                    accountsRepository = new AccountsRepositoryInMemory();
+            }
+            accountsService = new AccountsService(accountsRepository, conservationLedger, accountLocks, balanceChangeFeed);
+            transferService = new TransferServiceImpl(accountsRepository, accountLocks, conservationLedger, balanceChangeFeed,
+                    true, ContentionProfiler.disabled(), new FundHoldRegistry());
+            auditor = new ConservationAuditor(accountsRepository, accountLocks, conservationLedger,
+                    new SimpleMeterRegistry(), 0, 1000);
+            accountIds = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                accountIds[i] = "Id-" + i;
+                accountsService.createAccount(new Account(accountIds[i], OPENING_BALANCE));
+            }
+        }
+
+        private void close() throws IOException {
+            balanceChangeFeed.stop();
+            if (tieredRepository != null) {
+                tieredRepository.stop();
+            }
+        }
+    }
+}
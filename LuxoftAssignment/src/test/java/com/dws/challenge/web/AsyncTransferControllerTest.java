@@ -0,0 +1,176 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.service.AsyncTransferService;
+import com.dws.challenge.service.AsyncTransferServiceImpl;
+import com.dws.challenge.service.BalanceChangeFeed;
+import com.dws.challenge.service.TransferSagaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.servlet.AsyncListener;
+import java.math.BigDecimal;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AsyncTransferControllerTest {
+
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(100);
+
+    @Mock
+    private AsyncTransferService asyncTransferService;
+
+    @Mock
+    private BalanceChangeFeed balanceChangeFeed;
+
+    private AsyncTransferController asyncTransferController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        asyncTransferController = new AsyncTransferController(asyncTransferService, balanceChangeFeed, 30_000);
+    }
+
+    @Test
+    void testInitiateTransfer_Success() {
+        // Arrange
+        CompletableFuture<Void> saga = new CompletableFuture<>();
+        when(asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT)).thenReturn(saga);
+        when(balanceChangeFeed.currentSequence()).thenReturn(42L);
+
+        // Act
+        DeferredResult<ResponseEntity<String>> result = asyncTransferController.initiateTransfer("123", "456", AMOUNT, "req-1");
+        boolean answeredBeforeCompletion = result.hasResult();
+        saga.complete(null);
+
+        // Assert
+        assertFalse(answeredBeforeCompletion);
+        ResponseEntity<String> response = response(result);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Transfer initiated successfully", response.getBody());
+        assertEquals("req-1", response.getHeaders().getFirst(AsyncTransferController.REQUEST_ID_HEADER));
+        assertEquals("42", response.getHeaders().getFirst(AsyncTransferController.SEQUENCE_HEADER));
+    }
+
+    @Test
+    void testInitiateTransfer_InsufficientFunds() {
+        // Arrange
+        when(asyncTransferService.submitTransfer(anyString(), eq("123"), eq("456"), eq(AMOUNT)))
+                .thenReturn(CompletableFuture.failedFuture(new InsufficientFundsException("Insufficient funds")));
+
+        // Act
+        ResponseEntity<String> response = response(asyncTransferController.initiateTransfer("123", "456", AMOUNT, null));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Insufficient funds", response.getBody());
+        assertNotNull(response.getHeaders().getFirst(AsyncTransferController.REQUEST_ID_HEADER));
+    }
+
+    @Test
+    void testInitiateTransfer_Cancelled() {
+        // Arrange
+        CompletableFuture<Void> saga = new CompletableFuture<>();
+        saga.cancel(false);
+        when(asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT)).thenReturn(saga);
+
+        // Act
+        ResponseEntity<String> response = response(asyncTransferController.initiateTransfer("123", "456", AMOUNT, "req-1"));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void testInitiateTransfer_TimedOutBeforeSagaStarted() throws Exception {
+        // Arrange: the only saga thread is busy, so the transfer waits in the queue
+        TransferSagaService transferSagaService = mock(TransferSagaService.class);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AsyncTransferController(
+                new AsyncTransferServiceImpl(transferSagaService, executor), balanceChangeFeed, 30_000)).build();
+
+        try {
+            // Act
+            MvcResult mvcResult = mockMvc.perform(post("/api/transfers/async/initiate")
+                            .param("accountFromId", "123").param("accountToId", "456").param("amount", "100"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            MockAsyncContext asyncContext = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+            for (AsyncListener listener : asyncContext.getListeners()) {
+                listener.onTimeout(null);
+            }
+
+            // Assert
+            mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(content().string("Transfer timed out before it started and was not applied"));
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            verifyNoInteractions(transferSagaService);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInitiateTransfer_DuplicateRequestId() {
+        // Arrange
+        when(asyncTransferService.submitTransfer("req-1", "123", "456", AMOUNT))
+                .thenThrow(new IllegalArgumentException("Transfer request req-1 is already in flight"));
+
+        // Act
+        ResponseEntity<String> response = response(asyncTransferController.initiateTransfer("123", "456", AMOUNT, "req-1"));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Transfer request req-1 is already in flight", response.getBody());
+    }
+
+    @Test
+    void testCancelTransfer() {
+        // Arrange
+        when(asyncTransferService.cancelTransfer("req-1")).thenReturn(true);
+
+        // Act & Assert
+        assertEquals(HttpStatus.NO_CONTENT, asyncTransferController.cancelTransfer("req-1").getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, asyncTransferController.cancelTransfer("req-2").getStatusCode());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseEntity<String> response(DeferredResult<ResponseEntity<String>> result) {
+        assertTrue(result.hasResult());
+        return (ResponseEntity<String>) result.getResult();
+    }
+}
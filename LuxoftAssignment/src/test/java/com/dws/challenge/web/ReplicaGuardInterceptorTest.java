@@ -0,0 +1,57 @@
+package com.dws.challenge.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaGuardInterceptorTest {
+
+    private final ReplicaGuardInterceptor readOnly = new ReplicaGuardInterceptor(true, ReplicaGuardInterceptor.READ_ONLY_MESSAGE);
+
+    @Test
+    void testPreHandle_ReadsPass() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = readOnly.preHandle(new MockHttpServletRequest("GET", "/v1/accounts/Id-1"), response, null);
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    @Test
+    void testPreHandle_WritesAreRejected() throws Exception {
+        for (String method : new String[] {"POST", "PUT", "PATCH", "DELETE"}) {
+            // Arrange
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // Act
+            boolean proceed = readOnly.preHandle(new MockHttpServletRequest(method, "/api/transfers/initiate"), response, null);
+
+            // Assert
+            assertFalse(proceed, method);
+            assertEquals(HttpStatus.METHOD_NOT_ALLOWED.value(), response.getStatus(), method);
+            assertEquals(ReplicaGuardInterceptor.READ_ONLY_MESSAGE, response.getContentAsString());
+        }
+    }
+
+    @Test
+    void testPreHandle_UnreplicatedReadsAreRejected() throws Exception {
+        // Arrange
+        ReplicaGuardInterceptor unreplicated = new ReplicaGuardInterceptor(false, "Holds are not replicated");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = unreplicated.preHandle(new MockHttpServletRequest("GET", "/api/holds"), response, null);
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals(HttpStatus.METHOD_NOT_ALLOWED.value(), response.getStatus());
+        assertEquals("Holds are not replicated", response.getContentAsString());
+    }
+}
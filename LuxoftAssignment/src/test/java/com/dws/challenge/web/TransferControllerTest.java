@@ -1,6 +1,9 @@
 package com.dws.challenge.web;
 
+import com.dws.challenge.domain.MultiLegTransfer;
+import com.dws.challenge.domain.TransferLeg;
 import com.dws.challenge.exception.InsufficientFundsException;
+import com.dws.challenge.service.BalanceChangeFeed;
 import com.dws.challenge.service.TransferSagaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -20,6 +24,9 @@ public class TransferControllerTest {
     @Mock
     private TransferSagaService transferSagaService;
 
+    @Mock
+    private BalanceChangeFeed balanceChangeFeed;
+
     @InjectMocks
     private TransferController transferController;
 
@@ -35,12 +42,15 @@ public class TransferControllerTest {
         String accountToId = "456";
         BigDecimal amount = BigDecimal.valueOf(100);
 
+        when(balanceChangeFeed.currentSequence()).thenReturn(42L);
+
         // Act
         ResponseEntity<String> responseEntity = transferController.initiateTransfer(accountFromId, accountToId, amount);
 
         // Assert
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals("Transfer initiated successfully", responseEntity.getBody());
+        assertEquals("42", responseEntity.getHeaders().getFirst(TransferController.SEQUENCE_HEADER));
         verify(transferSagaService, times(1)).initiateTransferSaga(accountFromId, accountToId, amount);
     }
 
@@ -81,4 +91,33 @@ public class TransferControllerTest {
         assertEquals("Transfer failed: Internal server error", responseEntity.getBody());
         verify(transferSagaService, times(1)).initiateTransferSaga(accountFromId, accountToId, amount);
     }
+
+    @Test
+    void testInitiateMultiLegTransfer_Success() throws InsufficientFundsException {
+        // Arrange
+        List<TransferLeg> legs = List.of(new TransferLeg("456", BigDecimal.valueOf(100)), new TransferLeg("789", BigDecimal.valueOf(50)));
+
+        // Act
+        ResponseEntity<String> responseEntity = transferController.initiateMultiLegTransfer(new MultiLegTransfer("123", legs));
+
+        // Assert
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("Multi-leg transfer completed successfully", responseEntity.getBody());
+        verify(transferSagaService, times(1)).initiateMultiLegTransferSaga("123", legs);
+    }
+
+    @Test
+    void testInitiateMultiLegTransfer_InsufficientFunds() throws InsufficientFundsException {
+        // Arrange
+        List<TransferLeg> legs = List.of(new TransferLeg("456", BigDecimal.valueOf(100)));
+        doThrow(new InsufficientFundsException("Insufficient funds")).when(transferSagaService)
+                .initiateMultiLegTransferSaga("123", legs);
+
+        // Act
+        ResponseEntity<String> responseEntity = transferController.initiateMultiLegTransfer(new MultiLegTransfer("123", legs));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertEquals("Insufficient funds", responseEntity.getBody());
+    }
 }